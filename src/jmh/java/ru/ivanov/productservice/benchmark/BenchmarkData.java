@@ -0,0 +1,30 @@
+package ru.ivanov.productservice.benchmark;
+
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+class BenchmarkData {
+
+    // same shape as the seeded catalog: a short title and a sentence of details
+    static Product product(int number) {
+        Product product = new Product("Product " + number, "Details of product number " + number + ", made to last");
+        product.setId(new UUID(0x5eed_0000_0000_0000L, number));
+        product.setVersion((long) number % 7);
+        return product;
+    }
+
+    static List<Product> products(int count) {
+        return IntStream.range(0, count).mapToObj(BenchmarkData::product).toList();
+    }
+
+    static List<ProductDto> productDtos(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(BenchmarkData::product)
+                .map(product -> new ProductDto(product.getId(), product.getTitle(), product.getDetails(), product.getVersion()))
+                .toList();
+    }
+}
@@ -0,0 +1,155 @@
+package ru.ivanov.productservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import ru.ivanov.productservice.controller.ProductRestController;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.exception.exceptionHandler.GlobalExceptionHandler;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.response.ErrorResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+
+/**
+ * The 404 and 400 answers as they used to be built, an exception with a stack trace, a message from
+ * String.formatted, a stream-built validation message and a response builder, against the current
+ * stackless exceptions, message templates and shared headers. The exception is thrown from
+ * {@code stackDepth} frames down, since filling in a stack trace costs in proportion to it;
+ * a request inside Tomcat and Spring MVC is about 100 frames deep. Run with -prof gc for the allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeanErrorPathBenchmark {
+    @Param({"10", "100"})
+    private int stackDepth;
+
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+    private final CreateProductRequest invalidRequest = new CreateProductRequest("Milk", "");
+    private final UUID productId = UUID.randomUUID();
+
+    private ValidatorFactory validatorFactory;
+    private MethodArgumentNotValidException validationException;
+    private MockHttpServletRequest productRequest;
+    private MockHttpServletRequest createRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(invalidRequest, "createProductRequest");
+        new SpringValidatorAdapter(validatorFactory.getValidator()).validate(invalidRequest, bindingResult);
+        // created by Spring MVC in both cases, only the way it is answered differs
+        validationException = new MethodArgumentNotValidException(
+                new MethodParameter(ProductRestController.class.getMethod("createProduct", CreateProductRequest.class), 0),
+                bindingResult
+        );
+        productRequest = new MockHttpServletRequest("GET", "/api/v1/products/" + productId);
+        createRequest = new MockHttpServletRequest("POST", "/api/v1/products");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFoundWithStackTrace() {
+        try {
+            throwAt(stackDepth, () -> new StackTraceNotFoundException(PRODUCT_NOT_FOUND_WITH_ID.formatted(productId)));
+            return null;
+        } catch (StackTraceNotFoundException ex) {
+            return builtErrorResponse(NOT_FOUND.value(), ex.getMessage(), productRequest);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFoundStackless() {
+        try {
+            throwAt(stackDepth, () -> ResourceNotFoundException.product(productId));
+            return null;
+        } catch (ResourceNotFoundException ex) {
+            return exceptionHandler.handleResourceNotFoundException(ex, productRequest);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailedWithStream() {
+        List<String> errors = validationException.getFieldErrors().stream()
+                .map(error -> {
+                    String message = error.getDefaultMessage();
+                    return message != null ? message
+                            : "validation failed on field %s"
+                            .formatted(error.getField());
+                })
+                .toList();
+        return builtErrorResponse(BAD_REQUEST.value(), "Validation failed: " + errors, createRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailedLean() {
+        return exceptionHandler.handleValidationExceptions(validationException, createRequest);
+    }
+
+    private static ResponseEntity<ErrorResponse> builtErrorResponse(int status, String message, MockHttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                request.getRequestURI(),
+                message,
+                status,
+                LocalDateTime.now(),
+                null
+        );
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+
+    private static void throwAt(int depth, ExceptionFactory factory) {
+        if (depth == 0) {
+            throw factory.create();
+        }
+        throwAt(depth - 1, factory);
+    }
+
+    @FunctionalInterface
+    private interface ExceptionFactory {
+        RuntimeException create();
+    }
+
+    // ResourceNotFoundException as it was, with a writable stack trace
+    private static class StackTraceNotFoundException extends RuntimeException {
+        StackTraceNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.ivanov.productservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.mapper.ProductMapperImpl;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping and page assembly as done by every list request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private Product product;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        product = BenchmarkData.product(0);
+        products = BenchmarkData.products(pageSize);
+    }
+
+    @Benchmark
+    public ProductDto toDto() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductDto> pageFromEntities() {
+        List<ProductDto> content = products.stream().map(productMapper::toDto).toList();
+        return PagedResponse.fromPage(new PageImpl<>(content, PageRequest.of(3, pageSize), 100_000L));
+    }
+}
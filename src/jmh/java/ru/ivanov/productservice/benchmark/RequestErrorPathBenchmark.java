@@ -0,0 +1,98 @@
+package ru.ivanov.productservice.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import ru.ivanov.productservice.controller.ProductRestController;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.exception.exceptionHandler.GlobalExceptionHandler;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.response.ErrorResponse;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean Validation of a create request and the 404 and 400 answers of {@link GlobalExceptionHandler},
+ * including the cost of creating the exception the way the service and Spring MVC create it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestErrorPathBenchmark {
+    private final GlobalExceptionHandler exceptionHandler = new GlobalExceptionHandler(new SimpleMeterRegistry());
+    private final CreateProductRequest validRequest = new CreateProductRequest("Milk", "Best milk in the world");
+    private final CreateProductRequest invalidRequest = new CreateProductRequest("Milk", "");
+    private final UUID productId = UUID.randomUUID();
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private SpringValidatorAdapter springValidator;
+    private MethodParameter createProductParameter;
+    private MockHttpServletRequest productRequest;
+    private MockHttpServletRequest createRequest;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        springValidator = new SpringValidatorAdapter(validator);
+        createProductParameter = new MethodParameter(
+                ProductRestController.class.getMethod("createProduct", CreateProductRequest.class), 0
+        );
+        productRequest = new MockHttpServletRequest("GET", "/api/v1/products/" + productId);
+        createRequest = new MockHttpServletRequest("POST", "/api/v1/products");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateProductRequest>> validateValidRequest() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreateProductRequest>> validateInvalidRequest() {
+        return validator.validate(invalidRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> notFound() {
+        ResourceNotFoundException exception = ResourceNotFoundException.product(productId);
+        return exceptionHandler.handleResourceNotFoundException(exception, productRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorResponse> validationFailed() {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(invalidRequest, "createProductRequest");
+        springValidator.validate(invalidRequest, bindingResult);
+        MethodArgumentNotValidException exception = new MethodArgumentNotValidException(createProductParameter, bindingResult);
+        return exceptionHandler.handleValidationExceptions(exception, createRequest);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.ivanov.productservice.loadtest;
+
+import java.util.Locale;
+
+enum Endpoint {
+    LIST,
+    SLICE,
+    CURSOR,
+    GET,
+    SEARCH,
+    SUGGEST,
+    CREATE,
+    UPDATE,
+    DELETE;
+
+    // name used in load-test.properties and in the report
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.ivanov.productservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies per endpoint in nanoseconds, measured from the intended start of each request.
+ */
+class LoadTestResults {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Map<String, Double> PERCENTILES = Map.of("p50", 50.0, "p99", 99.0, "p999", 99.9);
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+
+    LoadTestResults() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS));
+            errors.put(endpoint, new AtomicLong());
+        }
+    }
+
+    void record(Endpoint endpoint, long latencyNanos, int status) {
+        if (status == ProductApiTraffic.NOT_SENT) {
+            return;
+        }
+        latencies.get(endpoint).recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status < 200 || status >= 400) {
+            errors.get(endpoint).incrementAndGet();
+        }
+    }
+
+    long errorCount() {
+        return errors.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    String report(Duration duration) {
+        StringBuilder report = new StringBuilder("%-8s %10s %10s %8s %10s %10s %10s %10s%n".formatted(
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            report.append("%-8s %10d %10.1f %8d %10.1f %10.1f %10.1f %10.1f%n".formatted(
+                    endpoint.key(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / (duration.toMillis() / 1000.0),
+                    errors.get(endpoint).get(),
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())
+            ));
+        }
+        return report.toString();
+    }
+
+    // full percentile distributions, readable by the HdrHistogram plotter
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream output = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.key() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(output, 1_000_000.0);
+            }
+        }
+    }
+
+    List<String> budgetViolations(LoadTestSettings settings) {
+        List<String> violations = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            PERCENTILES.forEach((name, percentile) -> {
+                OptionalDouble budget = settings.budgetMillis(endpoint, name);
+                double actual = millis(histogram.getValueAtPercentile(percentile));
+                if (budget.isPresent() && actual > budget.getAsDouble()) {
+                    violations.add("%s %s is %.1f ms, budget %.1f ms".formatted(endpoint.key(), name, actual, budget.getAsDouble()));
+                }
+            });
+            double errorRate = (double) errors.get(endpoint).get() / histogram.getTotalCount();
+            if (errorRate > settings.maxErrorRate()) {
+                violations.add("%s error rate is %.4f, budget %.4f".formatted(endpoint.key(), errorRate, settings.maxErrorRate()));
+            }
+        }
+        return violations;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
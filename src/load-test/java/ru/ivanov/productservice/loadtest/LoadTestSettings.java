@@ -0,0 +1,92 @@
+package ru.ivanov.productservice.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Properties;
+
+/**
+ * Settings from load-test.properties, each overridable with a system property of the same name.
+ */
+class LoadTestSettings {
+    private final Properties properties;
+
+    private LoadTestSettings(Properties properties) {
+        this.properties = properties;
+    }
+
+    static LoadTestSettings load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = LoadTestSettings.class.getResourceAsStream("/load-test.properties")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+        return new LoadTestSettings(properties);
+    }
+
+    int rate() {
+        return Integer.parseInt(required("loadtest.rate"));
+    }
+
+    Duration warmup() {
+        return Duration.parse(required("loadtest.warmup"));
+    }
+
+    Duration duration() {
+        return Duration.parse(required("loadtest.duration"));
+    }
+
+    int seedProducts() {
+        return Integer.parseInt(required("loadtest.seed-products"));
+    }
+
+    double maxErrorRate() {
+        return Double.parseDouble(required("loadtest.max-error-rate"));
+    }
+
+    int servingConcurrency() {
+        return Integer.parseInt(required("loadtest.serving.concurrency"));
+    }
+
+    int servingWarmupRequests() {
+        return Integer.parseInt(required("loadtest.serving.warmup-requests"));
+    }
+
+    int servingRequests() {
+        return Integer.parseInt(required("loadtest.serving.requests"));
+    }
+
+    Duration servingStatementLatency() {
+        return Duration.parse(required("loadtest.serving.statement-latency"));
+    }
+
+    Map<Endpoint, Integer> mix() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            mix.put(endpoint, Integer.parseInt(properties.getProperty("loadtest.mix." + endpoint.key(), "0")));
+        }
+        return mix;
+    }
+
+    // empty when neither an endpoint nor a default budget is configured for the percentile
+    OptionalDouble budgetMillis(Endpoint endpoint, String percentile) {
+        String budget = properties.getProperty("loadtest.budget." + endpoint.key() + "." + percentile,
+                properties.getProperty("loadtest.budget." + percentile));
+        return budget == null ? OptionalDouble.empty() : OptionalDouble.of(Double.parseDouble(budget));
+    }
+
+    private String required(String name) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            throw new IllegalStateException("Load test setting " + name + " is missing");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.ivanov.productservice.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Starts requests at a fixed rate, each on its own virtual thread, whether or not earlier ones have completed.
+ * Latency is taken from the moment a request was due rather than when it was actually sent,
+ * so a stalled generator or server shows up in the percentiles instead of silently lowering the load
+ * (coordinated omission).
+ */
+class OpenModelLoadGenerator {
+    private final ProductApiTraffic traffic;
+    private final long intervalNanos;
+
+    OpenModelLoadGenerator(ProductApiTraffic traffic, int ratePerSecond) {
+        this.traffic = traffic;
+        this.intervalNanos = 1_000_000_000L / ratePerSecond;
+    }
+
+    /**
+     * Runs the traffic for the given duration and waits for the last response.
+     *
+     * @param results receives the latencies, null to discard them while warming up
+     */
+    void run(Duration duration, LoadTestResults results) {
+        long requests = duration.toNanos() / intervalNanos;
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < requests; i++) {
+                long dueAt = startedAt + i * intervalNanos;
+                long wait = dueAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Endpoint endpoint = traffic.nextEndpoint();
+                executor.execute(() -> {
+                    int status = traffic.send(endpoint);
+                    if (results != null) {
+                        results.record(endpoint, System.nanoTime() - dueAt, status);
+                    }
+                });
+            }
+        }
+    }
+}
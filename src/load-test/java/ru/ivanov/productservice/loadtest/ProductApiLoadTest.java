@@ -0,0 +1,116 @@
+package ru.ivanov.productservice.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.index.ProductTitleIndex;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the servlet stack over HTTP with an open-model request mix and fails when a latency budget
+ * from load-test.properties is exceeded. Runs only in the load-test Maven profile:
+ * {@code ./mvnw -Pload-test test [-Dloadtest.rate=500 -Dloadtest.budget.get.p99=20]}.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.jpa.show-sql=false",
+                "product.query-stats.enabled=false",
+                "logging.level.root=WARN"
+        }
+)
+class ProductApiLoadTest {
+    private static final int SEED_CHUNK_SIZE = 1_000;
+    private static final Path HISTOGRAM_DIRECTORY = Path.of("target", "load-test");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductJdbcRepository productJdbcRepository;
+
+    @Autowired
+    private ProductCounter productCounter;
+
+    @Autowired
+    private ProductTitleIndex productTitleIndex;
+
+    @Test
+    @DisplayName("Should keep latency percentiles of the product API within the configured budgets")
+    public void givenSeededProducts_whenOpenModelTraffic_thenLatencyBudgetsHold() throws Exception {
+        //given
+        LoadTestSettings settings = LoadTestSettings.load();
+        List<UUID> readableIds = seed(productJdbcRepository, settings.seedProducts());
+        Queue<UUID> deletableIds = new ConcurrentLinkedQueue<>(seed(productJdbcRepository, deletableProducts(settings)));
+        productCounter.resync();
+        productTitleIndex.load();
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ProductApiTraffic traffic = new ProductApiTraffic(
+                httpClient,
+                "http://localhost:" + port + "/api/v1/products",
+                readableIds,
+                deletableIds,
+                settings.mix()
+        );
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(traffic, settings.rate());
+        LoadTestResults results = new LoadTestResults();
+
+        //when
+        generator.run(settings.warmup(), null);
+        generator.run(settings.duration(), results);
+
+        //then
+        System.out.printf("Load test at %d req/s for %s%n%s", settings.rate(), settings.duration(), results.report(settings.duration()));
+        results.writeHistograms(HISTOGRAM_DIRECTORY);
+        assertThat(results.budgetViolations(settings)).isEmpty();
+    }
+
+    static List<UUID> seed(ProductJdbcRepository productJdbcRepository, int count) {
+        List<UUID> productIds = new ArrayList<>(count);
+        List<Product> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product("Product " + i, "Seeded for the load test");
+            product.setId(UUID.randomUUID());
+            chunk.add(product);
+            productIds.add(product.getId());
+            if (chunk.size() == SEED_CHUNK_SIZE || i == count - 1) {
+                productJdbcRepository.insertAll(chunk);
+                chunk.clear();
+            }
+        }
+        return productIds;
+    }
+
+    // enough products for every delete of the warmup and the measured run, with some to spare
+    private static int deletableProducts(LoadTestSettings settings) {
+        int totalWeight = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        double deleteShare = (double) settings.mix().get(Endpoint.DELETE) / totalWeight;
+        double seconds = settings.warmup().plus(settings.duration()).toMillis() / 1000.0;
+        return (int) Math.ceil(settings.rate() * seconds * deleteShare * 1.1) + 100;
+    }
+}
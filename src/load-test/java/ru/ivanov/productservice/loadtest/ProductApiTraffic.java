@@ -0,0 +1,130 @@
+package ru.ivanov.productservice.loadtest;
+
+import ru.ivanov.productservice.util.CursorUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Draws endpoints from the weighted mix and sends one request to them.
+ * Reads and updates target the seeded products, deletes consume a separate pool
+ * so they never race with the reads.
+ */
+class ProductApiTraffic {
+    static final int PAGE_SIZE = 20;
+    static final int NOT_SENT = 0;
+    static final int FAILED = -1;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String PRODUCT_JSON = """
+            {"title":"Load test product %d","details":"Created while load testing the product API"}""";
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<UUID> readableIds;
+    private final Queue<UUID> deletableIds;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    ProductApiTraffic(
+            HttpClient httpClient,
+            String baseUrl,
+            List<UUID> readableIds,
+            Queue<UUID> deletableIds,
+            Map<Endpoint, Integer> mix
+    ) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.readableIds = readableIds;
+        this.deletableIds = deletableIds;
+        this.endpoints = mix.entrySet().stream()
+                .filter(weight -> weight.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Traffic mix has no endpoint with a positive weight");
+        }
+    }
+
+    Endpoint nextEndpoint() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Draw " + draw + " is outside of the traffic mix");
+    }
+
+    /**
+     * @return the response status, {@link #NOT_SENT} when no product was left to delete
+     * or {@link #FAILED} when no response came back
+     */
+    int send(Endpoint endpoint) {
+        HttpRequest request = request(endpoint);
+        if (request == null) {
+            return NOT_SENT;
+        }
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FAILED;
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int page = random.nextInt(Math.max(1, readableIds.size() / PAGE_SIZE));
+        return switch (endpoint) {
+            case LIST -> get("?page=" + page + "&size=" + PAGE_SIZE);
+            case SLICE -> get("?withTotal=false&page=" + page + "&size=" + PAGE_SIZE);
+            case CURSOR -> get("?after=" + CursorUtils.encode(randomReadableId()) + "&size=" + PAGE_SIZE);
+            case GET -> get("/" + randomReadableId());
+            case SEARCH -> get("/search?q=product+" + random.nextInt(readableIds.size()) + "&size=" + PAGE_SIZE);
+            case SUGGEST -> get("/suggest?prefix=Product+" + random.nextInt(100) + "&limit=10");
+            case CREATE -> builder("")
+                    .POST(HttpRequest.BodyPublishers.ofString(PRODUCT_JSON.formatted(random.nextInt())))
+                    .build();
+            case UPDATE -> builder("/" + randomReadableId())
+                    .PUT(HttpRequest.BodyPublishers.ofString(PRODUCT_JSON.formatted(random.nextInt())))
+                    .build();
+            case DELETE -> {
+                UUID productId = deletableIds.poll();
+                yield productId == null ? null : builder("/" + productId).DELETE().build();
+            }
+        };
+    }
+
+    private UUID randomReadableId() {
+        return readableIds.get(ThreadLocalRandom.current().nextInt(readableIds.size()));
+    }
+
+    private HttpRequest get(String pathAndQuery) {
+        return builder(pathAndQuery).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pathAndQuery))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+}
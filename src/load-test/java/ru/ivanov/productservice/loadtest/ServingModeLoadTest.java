@@ -0,0 +1,117 @@
+package ru.ivanov.productservice.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.ivanov.productservice.ProductServiceApplication;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application once on Tomcat's platform thread pool and once with the virtual-threads profile,
+ * and sends both the same closed-model burst of slice requests over HTTP, every one of them a database query.
+ * The report shows throughput and latency per mode. Only errors fail the test, because which mode serves
+ * more depends on where requests block: when the pool is the only wait, its size bounds both modes.
+ * Runs only in the load-test Maven profile:
+ * {@code ./mvnw -Pload-test test -Dtest=ServingModeLoadTest [-Dloadtest.serving.concurrency=2000]}.
+ */
+class ServingModeLoadTest {
+    private static final Logger log = LoggerFactory.getLogger(ServingModeLoadTest.class);
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Test
+    @DisplayName("Should serve the same burst without errors on platform threads and on virtual threads")
+    public void givenSameBurst_whenServedOnPlatformAndVirtualThreads_thenReportBothWithoutErrors() throws Exception {
+        //given
+        LoadTestSettings settings = LoadTestSettings.load();
+
+        //when
+        long platformErrors = serve("platform", settings);
+        long virtualErrors = serve("virtual", settings, "virtual-threads");
+
+        //then
+        assertThat(platformErrors).isZero();
+        assertThat(virtualErrors).isZero();
+    }
+
+    private static long serve(String mode, LoadTestSettings settings, String... profiles) {
+        List<String> activeProfiles = new ArrayList<>(List.of("test"));
+        activeProfiles.addAll(List.of(profiles));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductServiceApplication.class)
+                .profiles(activeProfiles.toArray(String[]::new))
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new StatementLatency(settings.servingStatementLatency())))
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.datasource.url=jdbc:h2:mem:serving-" + mode + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.jpa.show-sql=false",
+                        "product.query-stats.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.ru.ivanov.productservice.loadtest=INFO"
+                )
+                .run()) {
+            List<UUID> readableIds = ProductApiLoadTest.seed(
+                    context.getBean(ProductJdbcRepository.class),
+                    settings.seedProducts()
+            );
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            ProductApiTraffic traffic = new ProductApiTraffic(
+                    httpClient,
+                    "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port")
+                            + "/api/v1/products",
+                    readableIds,
+                    new ConcurrentLinkedQueue<>(),
+                    Map.of(Endpoint.SLICE, 1)
+            );
+            LoadTestResults results = new LoadTestResults();
+
+            burst(traffic, settings.servingConcurrency(), settings.servingWarmupRequests(), null);
+            Duration elapsed = burst(traffic, settings.servingConcurrency(), settings.servingRequests(), results);
+
+            log.info("Serving on {} threads, {} clients, {} per statement{}{}", mode, settings.servingConcurrency(),
+                    settings.servingStatementLatency(), System.lineSeparator(), results.report(elapsed));
+            return results.errorCount();
+        }
+    }
+
+    // every client sends its next request as soon as the previous one is answered, until the burst is used up
+    private static Duration burst(ProductApiTraffic traffic, int clients, int requests, LoadTestResults results) {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.execute(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long sentAt = System.nanoTime();
+                        int status = traffic.send(Endpoint.SLICE);
+                        if (results != null) {
+                            results.record(Endpoint.SLICE, System.nanoTime() - sentAt, status);
+                        }
+                    }
+                });
+            }
+        }
+        return Duration.ofNanos(System.nanoTime() - startedAt);
+    }
+}
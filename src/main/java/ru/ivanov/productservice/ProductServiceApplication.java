@@ -2,8 +2,12 @@ package ru.ivanov.productservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-@SpringBootApplication
+// a ConnectionFactory bean would switch off the JDBC data source, the reactive stack builds its own in ReactiveConfig
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
 public class ProductServiceApplication {
 
     public static void main(String[] args) {
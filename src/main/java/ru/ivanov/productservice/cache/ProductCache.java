@@ -0,0 +1,68 @@
+package ru.ivanov.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ivanov.productservice.datasource.ReadYourWrites;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of products by id with W-TinyLFU eviction. Loading happens inside the cache
+ * entry lock, so an invalidation that races with a load always wins over the loaded value.
+ * Loads read from the primary, a lagging replica would otherwise put a pre-update row back after an invalidation.
+ * Multi-gets serve hits from the cache and load the misses in one call without caching them: a bulk load
+ * runs outside the entry locks and could put a row read before an update back after its invalidation.
+ */
+@Component
+public class ProductCache {
+    private final Cache<UUID, ProductDto> cache;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductDto get(UUID productId, Function<UUID, ProductDto> loader) {
+        return cache.get(productId, id -> ReadYourWrites.callOnPrimary(() -> loader.apply(id)));
+    }
+
+    public Map<UUID, ProductDto> getAll(
+            Collection<UUID> productIds,
+            Function<Set<? extends UUID>, Map<UUID, ProductDto>> loader
+    ) {
+        Map<UUID, ProductDto> products = new HashMap<>(cache.getAllPresent(productIds));
+        Set<UUID> missingIds = new HashSet<>(productIds);
+        missingIds.removeAll(products.keySet());
+        if (!missingIds.isEmpty()) {
+            products.putAll(loader.apply(missingIds));
+        }
+        return products;
+    }
+
+    public void invalidate(UUID productId) {
+        cache.invalidate(productId);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.changeType() != ProductChangedEvent.ChangeType.CREATED) {
+            invalidate(event.productId());
+        }
+    }
+}
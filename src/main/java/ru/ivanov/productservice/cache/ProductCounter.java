@@ -0,0 +1,48 @@
+package ru.ivanov.productservice.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process number of products, kept current by committed creates and deletes of this instance
+ * and re-synchronized with the database periodically to bound the drift caused by other writers.
+ * With sharding on, the repository is the sharded one and a re-synchronization sums the shards.
+ */
+@Component
+public class ProductCounter {
+    private final ProductJdbcRepository productJdbcRepository;
+    private final AtomicLong count = new AtomicLong();
+
+    public ProductCounter(ProductJdbcRepository productJdbcRepository) {
+        this.productJdbcRepository = productJdbcRepository;
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    @PostConstruct
+    @Scheduled(
+            initialDelayString = "${product.counter.resync-interval:PT5M}",
+            fixedDelayString = "${product.counter.resync-interval:PT5M}"
+    )
+    public void resync() {
+        count.set(productJdbcRepository.count());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.changeType()) {
+            case CREATED -> count.incrementAndGet();
+            case DELETED -> count.updateAndGet(current -> Math.max(0, current - 1));
+            default -> {
+            }
+        }
+    }
+}
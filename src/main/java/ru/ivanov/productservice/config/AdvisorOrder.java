@@ -0,0 +1,14 @@
+package ru.ivanov.productservice.config;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Orders of the advisors the auto-proxy creator applies in one proxy, outermost first. Each one runs outside
+ * the transaction advisor, which keeps the default lowest precedence: spans and timers include the transaction
+ * and a create sent to the group commit never opens one.
+ */
+public class AdvisorOrder {
+    public static final int TRACING = Ordered.LOWEST_PRECEDENCE - 300;
+    public static final int TIMING = Ordered.LOWEST_PRECEDENCE - 200;
+    public static final int GROUP_COMMIT = Ordered.LOWEST_PRECEDENCE - 100;
+}
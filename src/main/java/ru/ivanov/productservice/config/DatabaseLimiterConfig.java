@@ -0,0 +1,58 @@
+package ru.ivanov.productservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.ivanov.productservice.datasource.ConcurrencyLimitingDataSource;
+import ru.ivanov.productservice.datasource.DatabaseLimiterProperties;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class DatabaseLimiterConfig {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseLimiterConfig.class);
+
+    /**
+     * Puts the application data source behind a {@link ConcurrencyLimitingDataSource} when the limiter is enabled,
+     * JPA, JDBC and Liquibase all take their connections through it.
+     */
+    @Bean
+    public static BeanPostProcessor databaseLimiterPostProcessor(
+            ObjectProvider<DatabaseLimiterProperties> properties,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                DatabaseLimiterProperties limiter = properties.getObject();
+                if (!limiter.enabled()) {
+                    return bean;
+                }
+                log.info("Limiting data source {} to {} concurrent connections", beanName, limiter.maxConcurrency());
+                ConcurrencyLimitingDataSource limited = new ConcurrencyLimitingDataSource(
+                        dataSource,
+                        limiter.maxConcurrency(),
+                        limiter.acquireTimeout()
+                );
+                meterRegistry.ifAvailable(registry -> {
+                    // tagged by bean, the shard pools get limiters of their own
+                    Gauge.builder("product.database.limiter.in-flight", limited, ConcurrencyLimitingDataSource::inFlight)
+                            .tag("data.source", beanName)
+                            .register(registry);
+                    Gauge.builder("product.database.limiter.queued", limited, ConcurrencyLimitingDataSource::queued)
+                            .tag("data.source", beanName)
+                            .register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
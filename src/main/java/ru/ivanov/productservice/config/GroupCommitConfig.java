@@ -0,0 +1,74 @@
+package ru.ivanov.productservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+import ru.ivanov.productservice.groupcommit.GroupCommitInterceptor;
+import ru.ivanov.productservice.groupcommit.GroupCommitProperties;
+import ru.ivanov.productservice.groupcommit.ProductCreatePipeline;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.ProductService;
+
+import java.lang.reflect.Method;
+
+/**
+ * Group commit of product creates, off by default. With sharding on the injected repository is the sharded one,
+ * so a batch is split per shard like any other batch insert.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitConfig {
+    // resolved by signature, so renaming the method fails the startup instead of quietly turning group commit off
+    private static final Method CREATE_PRODUCT =
+            ClassUtils.getMethod(ProductService.class, "createProduct", CreateProductRequest.class);
+
+    @Bean(destroyMethod = "close")
+    public ProductCreatePipeline productCreatePipeline(
+            ProductJdbcRepository productJdbcRepository,
+            ProductMapper productMapper,
+            ProductIdGenerator productIdGenerator,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            GroupCommitProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        return new ProductCreatePipeline(
+                productJdbcRepository, productMapper, productIdGenerator, eventPublisher, transactionManager,
+                properties, meterRegistry
+        );
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor groupCommitAdvisor(ObjectProvider<ProductCreatePipeline> pipeline) {
+        StaticMethodMatcherPointcut createProduct = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return ClassUtils.getMostSpecificMethod(method, targetClass)
+                        .equals(ClassUtils.getMostSpecificMethod(CREATE_PRODUCT, targetClass));
+            }
+        };
+        createProduct.setClassFilter(new RootClassFilter(ProductService.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                createProduct,
+                new GroupCommitInterceptor(SingletonSupplier.of(pipeline::getObject))
+        );
+        advisor.setOrder(AdvisorOrder.GROUP_COMMIT);
+        return advisor;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.ivanov.productservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import ru.ivanov.productservice.metrics.TimingInterceptor;
+import ru.ivanov.productservice.service.ProductService;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Times every {@link ProductService} method, histogram buckets come from
+     * management.metrics.distribution.slo.product.service.method.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor productServiceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(ProductService.class)),
+                new TimingInterceptor(ProductService.class, meterRegistry::getIfAvailable)
+        );
+        advisor.setOrder(AdvisorOrder.TIMING);
+        return advisor;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.ivanov.productservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.id.ProductIdProperties;
+import ru.ivanov.productservice.id.RandomUuidGenerator;
+import ru.ivanov.productservice.id.UuidV7Generator;
+
+@Configuration
+public class ProductIdConfig {
+
+    /**
+     * Ids of new products only, existing rows keep theirs whatever version they are.
+     */
+    @Bean
+    public ProductIdGenerator productIdGenerator(ProductIdProperties properties) {
+        return switch (properties.version()) {
+            case V4 -> new RandomUuidGenerator();
+            case V7 -> UuidV7Generator.shared();
+        };
+    }
+}
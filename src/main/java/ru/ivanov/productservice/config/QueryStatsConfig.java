@@ -0,0 +1,43 @@
+package ru.ivanov.productservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.ivanov.productservice.datasource.QueryStatsProperties;
+import ru.ivanov.productservice.datasource.StatementCountingDataSource;
+import ru.ivanov.productservice.metrics.QueryStatsFilter;
+
+import javax.sql.DataSource;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Statement counting per request, off by default and meant for non-production profiles.
+ */
+@Configuration
+public class QueryStatsConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingPostProcessor(ObjectProvider<QueryStatsProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof StatementCountingDataSource) {
+                    return bean;
+                }
+                return properties.getObject().enabled() ? new StatementCountingDataSource(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = SERVLET)
+    @ConditionalOnProperty(prefix = "product.query-stats", name = "enabled", havingValue = "true")
+    public QueryStatsFilter queryStatsFilter(MeterRegistry meterRegistry) {
+        return new QueryStatsFilter(meterRegistry);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.ivanov.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import ru.ivanov.productservice.datasource.ReadYourWritesFilter;
+import ru.ivanov.productservice.datasource.ReplicaPoolDataSource;
+import ru.ivanov.productservice.datasource.ReplicaRoutingDataSource;
+import ru.ivanov.productservice.datasource.ReplicaRoutingProperties;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
+
+/**
+ * Read replicas for the blocking stack, off by default. The reactive profile keeps reading from the primary.
+ * Each replica pool gets pool metrics and a health contributor of its own, like the primary and the shards.
+ */
+@Configuration
+public class ReplicaRoutingConfig {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+    /**
+     * Routes the application data source before the limiter and the statement counter wrap it,
+     * so both of them see replica connections too.
+     */
+    @Bean
+    public static BeanPostProcessor replicaRoutingPostProcessor(
+            ObjectProvider<ReplicaRoutingProperties> properties,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new ReplicaRoutingPostProcessor(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.replicas", name = "enabled", havingValue = "true")
+    public CompositeHealthContributor replicasHealthContributor(DataSource dataSource) throws SQLException {
+        // every wrapper on the way, the JDBC observation proxy included, passes unwrap on to its target
+        ReplicaRoutingDataSource routingDataSource = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        Map<String, HealthContributor> replicas = new LinkedHashMap<>();
+        for (DataSource replica : routingDataSource.replicas().replicas()) {
+            replicas.put("replica-" + replicas.size(), new DataSourceHealthIndicator(replica));
+        }
+        return CompositeHealthContributor.fromMap(replicas);
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = SERVLET)
+    @ConditionalOnProperty(prefix = "product.replicas", name = "enabled", havingValue = "true")
+    public ReadYourWritesFilter readYourWritesFilter(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesFilter(properties.readYourWritesWindow(), Clock.systemUTC());
+    }
+
+    private static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+        private final ObjectProvider<ReplicaRoutingProperties> properties;
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+
+        ReplicaRoutingPostProcessor(
+                ObjectProvider<ReplicaRoutingProperties> properties,
+                ObjectProvider<MeterRegistry> meterRegistry
+        ) {
+            this.properties = properties;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // shards have no replicas, their pools only pass through here to get the other data source wrappers
+            if (!(bean instanceof DataSource primary)
+                    || bean instanceof ReplicaRoutingDataSource
+                    || beanName.startsWith(ShardingConfig.SHARD_DATA_SOURCE_PREFIX)) {
+                return bean;
+            }
+            ReplicaRoutingProperties routing = properties.getObject();
+            if (!routing.enabled()) {
+                return bean;
+            }
+            if (routing.nodes().isEmpty()) {
+                throw new IllegalStateException("product.replicas.enabled is set but product.replicas.nodes is empty");
+            }
+            List<DataSource> replicas = new ArrayList<>(routing.nodes().size());
+            for (ReplicaRoutingProperties.Replica node : routing.nodes()) {
+                replicas.add(replica(node, replicas.size()));
+            }
+            log.info("Routing read-only transactions of {} to {} replicas, {} balancing",
+                    beanName, replicas.size(), routing.balancing());
+            return new ReplicaRoutingDataSource(
+                    primary,
+                    new ReplicaPoolDataSource(primary, replicas, routing.balancing())
+            );
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        private DataSource replica(ReplicaRoutingProperties.Replica node, int index) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(node.url())
+                    .username(node.username())
+                    .password(node.password())
+                    .build();
+            replica.setPoolName("replica-" + index);
+            replica.setMaximumPoolSize(node.maximumPoolSize());
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            return replica;
+        }
+    }
+}
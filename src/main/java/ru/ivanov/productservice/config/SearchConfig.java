@@ -0,0 +1,46 @@
+package ru.ivanov.productservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import ru.ivanov.productservice.repository.ProductRepository;
+import ru.ivanov.productservice.search.EmbeddedProductSearchEngine;
+import ru.ivanov.productservice.search.LikeProductSearchEngine;
+import ru.ivanov.productservice.search.PostgresProductSearchEngine;
+import ru.ivanov.productservice.search.ProductSearchEngine;
+import ru.ivanov.productservice.search.ProductSearchIndex;
+import ru.ivanov.productservice.search.ProductSearchProperties;
+import ru.ivanov.productservice.search.SearchEngineType;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+@Configuration
+public class SearchConfig {
+    private static final Logger log = LoggerFactory.getLogger(SearchConfig.class);
+
+    @Bean
+    public ProductSearchEngine productSearchEngine(
+            ProductSearchProperties properties,
+            DataSource dataSource,
+            JdbcTemplate jdbcTemplate,
+            ProductRepository productRepository,
+            ProductSearchIndex productSearchIndex
+    ) throws MetaDataAccessException {
+        SearchEngineType engine = properties.engine();
+        if (engine == SearchEngineType.AUTO) {
+            String databaseName = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            engine = "PostgreSQL".equals(databaseName) ? SearchEngineType.POSTGRES : SearchEngineType.LIKE;
+        }
+        log.info("Product search engine: {}", engine);
+        return switch (engine) {
+            case POSTGRES -> new PostgresProductSearchEngine(jdbcTemplate, properties.maxRankedCandidates());
+            case EMBEDDED -> new EmbeddedProductSearchEngine(productSearchIndex, new LikeProductSearchEngine(productRepository));
+            case LIKE, AUTO -> new LikeProductSearchEngine(productRepository);
+        };
+    }
+}
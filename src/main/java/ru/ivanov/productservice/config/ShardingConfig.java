@@ -0,0 +1,154 @@
+package ru.ivanov.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.actuate.health.CompositeHealthContributor;
+import org.springframework.boot.actuate.health.HealthContributor;
+import org.springframework.boot.actuate.jdbc.DataSourceHealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.repository.impl.ProductJdbcRepositoryImpl;
+import ru.ivanov.productservice.shard.ProductShard;
+import ru.ivanov.productservice.shard.ProductShardRebalancer;
+import ru.ivanov.productservice.shard.ShardedProductRepository;
+import ru.ivanov.productservice.shard.ShardingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash-sharded product storage, off by default. The shard pools and transaction managers are not beans,
+ * so the application data source, its transaction manager and JPA stay as they are and keep serving Liquibase,
+ * the id filter and the title index, which are not sharded. Each pool still goes through the data source
+ * post-processors, so the limiter, the statement counter and the JDBC observations cover the shards too,
+ * and gets pool metrics and a health contributor of its own.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+    public static final String SHARD_DATA_SOURCE_PREFIX = "shardDataSource";
+    private static final String SHARD_CHANGE_LOG = "classpath:db/changelog/db.changelog-shard.xml";
+
+    /**
+     * Primary, so the batch, import and export services write and read through the shards too.
+     */
+    @Bean
+    @Primary
+    public ShardedProductRepository shardedProductRepository(
+            ShardingProperties properties,
+            ResourceLoader resourceLoader,
+            AutowireCapableBeanFactory beanFactory,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) throws LiquibaseException {
+        if (properties.nodes().isEmpty()) {
+            throw new IllegalStateException("product.sharding.enabled is set but product.sharding.nodes is empty");
+        }
+        List<ProductShard> shards = new ArrayList<>(properties.nodes().size());
+        for (ShardingProperties.Node node : properties.nodes()) {
+            int index = shards.size();
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(node.url())
+                    .username(node.username())
+                    .password(node.password())
+                    .build();
+            pool.setPoolName("shard-" + index);
+            pool.setMaximumPoolSize(node.maximumPoolSize());
+            meterRegistry.ifAvailable(registry ->
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            DataSource dataSource = (DataSource) beanFactory.initializeBean(pool, SHARD_DATA_SOURCE_PREFIX + index);
+            migrate(dataSource, resourceLoader);
+            shards.add(new ProductShard(
+                    index,
+                    dataSource,
+                    new ProductJdbcRepositoryImpl(new JdbcTemplate(dataSource)),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+            ));
+        }
+        log.info("Products are sharded over {} data sources", shards.size());
+        return new ShardedProductRepository(shards);
+    }
+
+    @Bean
+    public CompositeHealthContributor shardsHealthContributor(ShardedProductRepository shardedProductRepository) {
+        Map<String, HealthContributor> shards = new LinkedHashMap<>();
+        for (ProductShard shard : shardedProductRepository.shards()) {
+            shards.put("shard-" + shard.index(), new DataSourceHealthIndicator(shard.dataSource()));
+        }
+        return CompositeHealthContributor.fromMap(shards);
+    }
+
+    /**
+     * Rebalances while the context starts, before the web server lifecycle opens the connectors,
+     * so no request reaches the instance while products are still on their old shards.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.sharding", name = "rebalance-on-startup", havingValue = "true")
+    public SmartLifecycle productShardRebalancer(
+            ShardedProductRepository shardedProductRepository,
+            ShardingProperties properties
+    ) {
+        return new RebalanceOnStartup(
+                new ProductShardRebalancer(shardedProductRepository, properties.rebalanceChunkSize())
+        );
+    }
+
+    private static void migrate(DataSource dataSource, ResourceLoader resourceLoader) throws LiquibaseException {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(SHARD_CHANGE_LOG);
+        liquibase.setResourceLoader(resourceLoader);
+        liquibase.afterPropertiesSet();
+    }
+
+    private static class RebalanceOnStartup implements SmartLifecycle {
+        private final ProductShardRebalancer rebalancer;
+        private volatile boolean running;
+
+        RebalanceOnStartup(ProductShardRebalancer rebalancer) {
+            this.rebalancer = rebalancer;
+        }
+
+        @Override
+        public void start() {
+            ProductShardRebalancer.Result result = rebalancer.rebalance();
+            log.info("Shard rebalancing scanned {} products and moved {}", result.scanned(), result.moved());
+            running = true;
+        }
+
+        @Override
+        public void stop() {
+            running = false;
+        }
+
+        @Override
+        public boolean isRunning() {
+            return running;
+        }
+
+        // lower phases start first, the web server starts in a phase close to the default
+        @Override
+        public int getPhase() {
+            return Integer.MIN_VALUE;
+        }
+    }
+}
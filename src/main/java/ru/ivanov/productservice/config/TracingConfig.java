@@ -0,0 +1,68 @@
+package ru.ivanov.productservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.tracing.Tracer;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.util.function.SingletonSupplier;
+import ru.ivanov.productservice.controller.ProductRestController;
+import ru.ivanov.productservice.service.ProductService;
+import ru.ivanov.productservice.tracing.JsonLinesSpanExporter;
+import ru.ivanov.productservice.tracing.ProductTracingProperties;
+import ru.ivanov.productservice.tracing.SqlSanitizingObservationFilter;
+import ru.ivanov.productservice.tracing.TracingInterceptor;
+import ru.ivanov.productservice.tracing.TransactionSpanListener;
+
+/**
+ * Spans below the HTTP server span that Spring MVC opens: one per controller handler, per service method,
+ * per transaction and, through datasource-micrometer, per JDBC statement.
+ * Sampling is decided once at the root by management.tracing.sampling.probability.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor productRestControllerTracingAdvisor(ObjectProvider<Tracer> tracer) {
+        return tracingAdvisor(ProductRestController.class, tracer);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor productServiceTracingAdvisor(ObjectProvider<Tracer> tracer) {
+        return tracingAdvisor(ProductService.class, tracer);
+    }
+
+    @Bean
+    public TransactionSpanListener transactionSpanListener(Tracer tracer) {
+        return new TransactionSpanListener(tracer);
+    }
+
+    @Bean
+    public SqlSanitizingObservationFilter sqlSanitizingObservationFilter() {
+        return new SqlSanitizingObservationFilter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.tracing", name = "span-file")
+    public JsonLinesSpanExporter jsonLinesSpanExporter(ProductTracingProperties properties, ObjectMapper objectMapper) {
+        return new JsonLinesSpanExporter(properties.spanFile(), objectMapper);
+    }
+
+    private static Advisor tracingAdvisor(Class<?> type, ObjectProvider<Tracer> tracer) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(type)),
+                new TracingInterceptor(SingletonSupplier.of(() -> tracer.getIfAvailable(() -> Tracer.NOOP)), type)
+        );
+        advisor.setOrder(AdvisorOrder.TRACING);
+        return advisor;
+    }
+}
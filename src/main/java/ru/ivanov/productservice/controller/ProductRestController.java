@@ -3,34 +3,68 @@ package ru.ivanov.productservice.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.BatchProductRequest;
 import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.dto.request.ProductLookupRequest;
 import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.BatchProductResponse;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
 import ru.ivanov.productservice.model.dto.response.ErrorResponse;
 import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.ProductImportResponse;
+import ru.ivanov.productservice.model.dto.response.ProductLookupResponse;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
+import ru.ivanov.productservice.service.ProductBatchService;
+import ru.ivanov.productservice.service.ProductExportService;
+import ru.ivanov.productservice.service.ProductImportService;
 import ru.ivanov.productservice.service.ProductService;
+import ru.ivanov.productservice.util.ETagUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
 import static org.springframework.http.MediaType.*;
 
 @RestController
 @RequestMapping("api/v1/products")
 @Tag(name = "Product API")
+@ConditionalOnWebApplication(type = SERVLET)
 public class ProductRestController {
     private final ProductService productService;
+    private final ProductBatchService productBatchService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
 
-    public ProductRestController(ProductService productService) {
+    public ProductRestController(
+            ProductService productService,
+            ProductBatchService productBatchService,
+            ProductExportService productExportService,
+            ProductImportService productImportService
+    ) {
         this.productService = productService;
+        this.productBatchService = productBatchService;
+        this.productExportService = productExportService;
+        this.productImportService = productImportService;
     }
 
     @Operation(
@@ -67,6 +101,37 @@ public class ProductRestController {
                 .body(product);
     }
 
+    @Operation(
+            summary = "Execute batch of product operations",
+            description = "Creates, updates and deletes products in one request. Operations are executed in order " +
+                    "within one transaction, every operation gets its own result with the status code " +
+                    "it would have as a single request",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Operations to execute, at most 1000",
+                    required = true,
+                    content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = BatchProductRequest.class))
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Batch is executed, see per-operation results",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = BatchProductResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid request data",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @PostMapping("batch")
+    public ResponseEntity<BatchProductResponse> executeBatch(@Valid @RequestBody BatchProductRequest request) {
+        BatchProductResponse response = productBatchService.executeBatch(request);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .body(response);
+    }
+
     @Operation(
             summary = "Get paginated list of products",
             description = "Retrieves a paginated list of all products",
@@ -91,6 +156,10 @@ public class ProductRestController {
                             description = "Paginated list of product successfully retrieved",
                             content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = PagedResponse.class))
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Page has not changed since the ETag given in If-None-Match"
+                    ),
                     @ApiResponse(
                             responseCode = "400",
                             description = "Invalid pagination parameters",
@@ -105,10 +174,361 @@ public class ProductRestController {
     ) {
         PagedResponse<ProductDto> page = productService.getAllProductsPaginated(pageNumber, pageSize);
         return ResponseEntity.ok()
+                .eTag(ETagUtils.forPage(page.content(), page.pageNumber(), page.pageSize(), page.totalElements(), page.last()))
                 .contentType(APPLICATION_JSON)
                 .body(page);
     }
 
+    @Operation(
+            summary = "Get paginated list of products without totals",
+            description = "Retrieves a page of products without counting all products, only reports if a next page exists",
+            parameters = {
+                    @Parameter(
+                            name = "withTotal",
+                            description = "Must be false to skip total counts",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "false",
+                            schema = @Schema(type = "boolean")),
+                    @Parameter(
+                            name = "page",
+                            description = "Zero-based page number",
+                            in = ParameterIn.QUERY,
+                            example = "0",
+                            schema = @Schema(type = "integer", defaultValue = "0", minimum = "0")),
+                    @Parameter(
+                            name = "size",
+                            description = "Number of items per page",
+                            in = ParameterIn.QUERY,
+                            example = "10",
+                            schema = @Schema(type = "integer", defaultValue = "10", minimum = "1")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Page of products successfully retrieved",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = SlicedResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Page has not changed since the ETag given in If-None-Match"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid pagination parameters",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping(params = "withTotal=false")
+    public ResponseEntity<SlicedResponse<ProductDto>> getProductsSlice(
+            @RequestParam(name = "page", required = false, defaultValue = "0") int pageNumber,
+            @RequestParam(name = "size", required = false, defaultValue = "10") int pageSize
+    ) {
+        SlicedResponse<ProductDto> page = productService.getProductsSlice(pageNumber, pageSize);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.forPage(page.content(), page.pageNumber(), page.pageSize(), page.hasNext()))
+                .contentType(APPLICATION_JSON)
+                .body(page);
+    }
+
+    @Operation(
+            summary = "Get products page by cursor",
+            description = "Retrieves a page of products ordered by ID, starting right after the given cursor. " +
+                    "An empty cursor returns the first page",
+            parameters = {
+                    @Parameter(
+                            name = "after",
+                            description = "Opaque cursor taken from 'nextCursor' of the previous page, empty for the first page",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "m2PHfY6RT0CtsWgXuSCBqw",
+                            schema = @Schema(type = "string")),
+                    @Parameter(
+                            name = "size",
+                            description = "Number of items per page",
+                            in = ParameterIn.QUERY,
+                            example = "10",
+                            schema = @Schema(type = "integer", defaultValue = "10", minimum = "1", maximum = "100")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Page of products successfully retrieved",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = CursorPagedResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Page has not changed since the ETag given in If-None-Match"
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid cursor or page size",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPagedResponse<ProductDto>> getProductsByCursor(
+            @RequestParam(name = "after") String cursor,
+            @RequestParam(name = "size", required = false, defaultValue = "10") int pageSize
+    ) {
+        CursorPagedResponse<ProductDto> page = productService.getProductsAfterCursor(cursor, pageSize);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.forPage(page.content(), page.pageSize(), page.hasNext()))
+                .contentType(APPLICATION_JSON)
+                .body(page);
+    }
+
+    @Operation(
+            summary = "Search products",
+            description = "Full-text search over product titles and details, most relevant products first. " +
+                    "Matches are not counted, the response only tells if a next page exists",
+            parameters = {
+                    @Parameter(
+                            name = "q",
+                            description = "Search query, supports quoted phrases, 'or' and '-' for exclusion",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "water bottle",
+                            schema = @Schema(type = "string")),
+                    @Parameter(
+                            name = "page",
+                            description = "Zero-based page number",
+                            in = ParameterIn.QUERY,
+                            example = "0",
+                            schema = @Schema(type = "integer", defaultValue = "0", minimum = "0")),
+                    @Parameter(
+                            name = "size",
+                            description = "Number of items per page",
+                            in = ParameterIn.QUERY,
+                            example = "10",
+                            schema = @Schema(type = "integer", defaultValue = "10", minimum = "1", maximum = "100")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Page of found products",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = SlicedResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Blank query or invalid pagination parameters",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("search")
+    public ResponseEntity<SlicedResponse<ProductDto>> searchProducts(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "page", required = false, defaultValue = "0") int pageNumber,
+            @RequestParam(name = "size", required = false, defaultValue = "10") int pageSize
+    ) {
+        SlicedResponse<ProductDto> page = productService.searchProducts(query, pageNumber, pageSize);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .body(page);
+    }
+
+    @Operation(
+            summary = "Suggest products by title prefix",
+            description = "Autocomplete over product titles, a prefix matches the start of a title. " +
+                    "Suggestions are ordered alphabetically by title",
+            parameters = {
+                    @Parameter(
+                            name = "prefix",
+                            description = "Beginning of a title, case insensitive",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "wat",
+                            schema = @Schema(type = "string")),
+                    @Parameter(
+                            name = "limit",
+                            description = "Maximum number of suggestions",
+                            in = ParameterIn.QUERY,
+                            example = "10",
+                            schema = @Schema(type = "integer", defaultValue = "10", minimum = "1", maximum = "50")
+                    )
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Matching products",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = ProductSuggestion.class)))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Blank prefix or invalid limit",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam(name = "prefix") String prefix,
+            @RequestParam(name = "limit", required = false, defaultValue = "10") int limit
+    ) {
+        List<ProductSuggestion> suggestions = productService.suggestProducts(prefix, limit);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .body(suggestions);
+    }
+
+    @Operation(
+            summary = "Get products by IDs",
+            description = "Retrieves products with the given IDs in one query. Products keep the order of requested IDs, " +
+                    "IDs without a product are listed in 'notFound'",
+            parameters = {
+                    @Parameter(
+                            name = "ids",
+                            description = "Comma separated product IDs, at most 1000",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "9b63c77d-8e91-4f40-adb1-6817b92081ab,52c6d5b6-b73d-415a-bcf4-a4e59d520015",
+                            schema = @Schema(type = "string"))
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Products successfully retrieved",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductLookupResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid or too many IDs",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductLookupResponse> getProductsByIds(@RequestParam(name = "ids") List<UUID> productIds) {
+        ProductLookupResponse products = productService.getProductsByIds(productIds);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .body(products);
+    }
+
+    @Operation(
+            summary = "Look up products by IDs",
+            description = "Same as getting products by IDs, for ID lists that do not fit into a query string",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Product IDs, at most 1000",
+                    required = true,
+                    content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductLookupRequest.class))
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Products successfully retrieved",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductLookupResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Invalid request data",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @PostMapping("lookup")
+    public ResponseEntity<ProductLookupResponse> lookupProducts(@Valid @RequestBody ProductLookupRequest request) {
+        ProductLookupResponse products = productService.getProductsByIds(request.ids());
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .body(products);
+    }
+
+    @Operation(
+            summary = "Export all products",
+            description = "Streams every product ordered by ID as NDJSON or CSV. An interrupted export can be resumed " +
+                    "by passing the last received ID as 'after'",
+            parameters = {
+                    @Parameter(
+                            name = "format",
+                            description = "Output format, ndjson or csv",
+                            in = ParameterIn.QUERY,
+                            example = "ndjson",
+                            schema = @Schema(type = "string", defaultValue = "ndjson", allowableValues = {"ndjson", "csv"})),
+                    @Parameter(
+                            name = "after",
+                            description = "Export only products with ID greater than this one",
+                            in = ParameterIn.QUERY,
+                            example = "9b63c77d-8e91-4f40-adb1-6817b92081ab",
+                            schema = @Schema(type = "string", format = "uuid"))
+            },
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Products are streamed",
+                            content = {
+                                    @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ProductDto.class)),
+                                    @Content(mediaType = "text/csv")
+                            }
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unsupported format or invalid ID",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(name = "format", required = false, defaultValue = "ndjson") String format,
+            @RequestParam(name = "after", required = false) UUID afterId
+    ) {
+        ProductFileFormat fileFormat = ProductFileFormat.fromValue(format);
+        StreamingResponseBody body = outputStream ->
+                productExportService.exportProducts(fileFormat, afterId, outputStream);
+        return ResponseEntity.ok()
+                .contentType(fileFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + fileFormat.fileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Import products",
+            description = "Creates or overwrites products from an NDJSON or CSV upload with 'id', 'title' and 'details' " +
+                    "fields. The upload is read incrementally and written in chunks, rows without an ID get a new one. " +
+                    "Invalid rows are skipped and reported in the summary",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Products, one per line for NDJSON or with a header row for CSV",
+                    required = true,
+                    content = {
+                            @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ProductDto.class)),
+                            @Content(mediaType = "text/csv")
+                    }
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Upload is processed, see the summary for rejected rows",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductImportResponse.class))
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Unsupported content type",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    )
+            }
+    )
+    @PostMapping("import")
+    public ResponseEntity<ProductImportResponse> importProducts(
+            @RequestHeader(name = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body
+    ) throws IOException {
+        ProductFileFormat fileFormat = ProductFileFormat.fromContentType(contentType);
+        ProductImportResponse response = productImportService.importProducts(fileFormat, body);
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_JSON)
+                .body(response);
+    }
+
     @Operation(
             summary = "Get product",
             description = "Retrieve product by ID",
@@ -128,6 +548,10 @@ public class ProductRestController {
                             description = "Product retrieved successfully",
                             content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ProductDto.class))
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Product has not changed since the ETag given in If-None-Match"
+                    ),
                     @ApiResponse(
                             responseCode = "204",
                             description = "Product not found",
@@ -138,7 +562,9 @@ public class ProductRestController {
     @GetMapping("{productId}")
     public ResponseEntity<ProductDto> getProduct(@PathVariable("productId") UUID productId) {
         ProductDto product = productService.getProductById(productId);
+        // a matching If-None-Match is answered with 304 before the body is serialized
         return ResponseEntity.ok()
+                .eTag(ETagUtils.forProduct(product))
                 .contentType(APPLICATION_JSON)
                 .body(product);
     }
@@ -154,6 +580,13 @@ public class ProductRestController {
                             in = ParameterIn.PATH,
                             example = "9b63c77d-8e91-4f40-adb1-6817b92081ab",
                             schema = @Schema(type = "string", format = "uuid")
+                    ),
+                    @Parameter(
+                            name = HttpHeaders.IF_MATCH,
+                            description = "ETag of the product as last read, the update is rejected if the product has changed since",
+                            in = ParameterIn.HEADER,
+                            example = "\"3\"",
+                            schema = @Schema(type = "string")
                     )
             },
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -174,6 +607,11 @@ public class ProductRestController {
                             description = "Product for update not found",
                             content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
                     ),
+                    @ApiResponse(
+                            responseCode = "412",
+                            description = "Product has changed since the ETag given in If-Match",
+                            content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = ErrorResponse.class))
+                    ),
                     @ApiResponse(
                             responseCode = "400",
                             description = "Invalid request data",
@@ -184,9 +622,14 @@ public class ProductRestController {
     @PutMapping("{productId}")
     public ResponseEntity<Void> updateProduct(
             @PathVariable("productId") UUID productId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateProductRequest request
     ) {
-        productService.updateProduct(productId, request);
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")) {
+            productService.updateProduct(productId, request);
+        } else {
+            productService.updateProduct(productId, ETagUtils.parseVersion(ifMatch), request);
+        }
         return ResponseEntity.noContent().build();
     }
 
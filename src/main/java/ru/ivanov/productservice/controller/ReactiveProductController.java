@@ -0,0 +1,116 @@
+package ru.ivanov.productservice.controller;
+
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
+import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
+import ru.ivanov.productservice.service.ReactiveProductService;
+import ru.ivanov.productservice.util.ETagUtils;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+/**
+ * Reactive counterpart of {@link ProductRestController} for the core product routes, same paths,
+ * bodies, ETags and status codes. The API documentation is the one of the servlet controller.
+ */
+@RestController
+@RequestMapping("api/v1/products")
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveProductController {
+    private final ReactiveProductService productService;
+
+    public ReactiveProductController(ReactiveProductService productService) {
+        this.productService = productService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductDto>> createProduct(
+            @Valid @RequestBody CreateProductRequest request,
+            ServerHttpRequest httpRequest
+    ) {
+        return productService.createProduct(request).map(product -> {
+            URI location = UriComponentsBuilder
+                    .fromUri(httpRequest.getURI())
+                    .path("/{productId}")
+                    .buildAndExpand(product.id())
+                    .toUri();
+            return ResponseEntity.created(location)
+                    .contentType(APPLICATION_JSON)
+                    .body(product);
+        });
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<PagedResponse<ProductDto>>> getAllProductsPaginated(
+            @RequestParam(name = "page", required = false, defaultValue = "0") int pageNumber,
+            @RequestParam(name = "size", required = false, defaultValue = "10") int pageSize
+    ) {
+        return productService.getAllProductsPaginated(pageNumber, pageSize).map(page -> ResponseEntity.ok()
+                .eTag(ETagUtils.forPage(page.content(), page.pageNumber(), page.pageSize(), page.totalElements(), page.last()))
+                .contentType(APPLICATION_JSON)
+                .body(page));
+    }
+
+    @GetMapping(params = "withTotal=false")
+    public Mono<ResponseEntity<SlicedResponse<ProductDto>>> getProductsSlice(
+            @RequestParam(name = "page", required = false, defaultValue = "0") int pageNumber,
+            @RequestParam(name = "size", required = false, defaultValue = "10") int pageSize
+    ) {
+        return productService.getProductsSlice(pageNumber, pageSize).map(page -> ResponseEntity.ok()
+                .eTag(ETagUtils.forPage(page.content(), page.pageNumber(), page.pageSize(), page.hasNext()))
+                .contentType(APPLICATION_JSON)
+                .body(page));
+    }
+
+    @GetMapping(params = "after")
+    public Mono<ResponseEntity<CursorPagedResponse<ProductDto>>> getProductsByCursor(
+            @RequestParam(name = "after") String cursor,
+            @RequestParam(name = "size", required = false, defaultValue = "10") int pageSize
+    ) {
+        return productService.getProductsAfterCursor(cursor, pageSize).map(page -> ResponseEntity.ok()
+                .eTag(ETagUtils.forPage(page.content(), page.pageSize(), page.hasNext()))
+                .contentType(APPLICATION_JSON)
+                .body(page));
+    }
+
+    @GetMapping("{productId}")
+    public Mono<ResponseEntity<ProductDto>> getProduct(@PathVariable("productId") UUID productId) {
+        // a matching If-None-Match is answered with 304 before the body is serialized
+        return productService.getProductById(productId).map(product -> ResponseEntity.ok()
+                .eTag(ETagUtils.forProduct(product))
+                .contentType(APPLICATION_JSON)
+                .body(product));
+    }
+
+    @PutMapping("{productId}")
+    public Mono<ResponseEntity<Void>> updateProduct(
+            @PathVariable("productId") UUID productId,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateProductRequest request
+    ) {
+        Mono<Void> update = ifMatch == null || ifMatch.isBlank() || ifMatch.strip().equals("*")
+                ? productService.updateProduct(productId, request)
+                : productService.updateProduct(productId, ETagUtils.parseVersion(ifMatch), request);
+        return update.then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+
+    @DeleteMapping("{productId}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable("productId") UUID productId) {
+        return productService.deleteProduct(productId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().build()));
+    }
+}
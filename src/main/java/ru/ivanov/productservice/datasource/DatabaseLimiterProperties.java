@@ -0,0 +1,14 @@
+package ru.ivanov.productservice.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product.database-limiter")
+public record DatabaseLimiterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int maxConcurrency,
+        @DefaultValue("PT30S") Duration acquireTimeout
+) {
+}
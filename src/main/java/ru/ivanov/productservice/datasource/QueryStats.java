@@ -0,0 +1,37 @@
+package ru.ivanov.productservice.datasource;
+
+/**
+ * JDBC statements executed by the current thread since the last {@link #reset()}, with their total execution time.
+ * One mutable instance per thread, so counting a statement allocates nothing.
+ */
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = ThreadLocal.withInitial(QueryStats::new);
+
+    private int count;
+    private long nanos;
+
+    private QueryStats() {
+    }
+
+    public static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    public void reset() {
+        count = 0;
+        nanos = 0;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    void record(long statementNanos) {
+        count++;
+        nanos += statementNanos;
+    }
+}
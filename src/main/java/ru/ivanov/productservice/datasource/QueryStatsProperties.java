@@ -0,0 +1,10 @@
+package ru.ivanov.productservice.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product.query-stats")
+public record QueryStatsProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
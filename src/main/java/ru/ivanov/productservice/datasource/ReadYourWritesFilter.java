@@ -0,0 +1,89 @@
+package ru.ivanov.productservice.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Gives a client that has just written a cookie holding the end of its read-your-writes window.
+ * While the window is open, the client's reads are pinned to the primary. The cookie keeps this
+ * working across instances without shared state; clients that drop cookies read from the replicas right away.
+ * The cookie is chosen by the client, so a value further ahead than one window is ignored rather than trusted.
+ * Read-only POSTs, like the lookup by ids, read within a window but do not open one.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String PRIMARY_UNTIL_COOKIE = "product-primary-until";
+    private static final Set<String> READ_ONLY_POST_PATHS = Set.of("/api/v1/products/lookup");
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        if (isMutation(request)) {
+            // set before the body commits the response, a failed write only keeps the client on the primary a bit longer
+            long until = clock.millis() + window.toMillis();
+            Cookie cookie = new Cookie(PRIMARY_UNTIL_COOKIE, String.valueOf(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        } else if (!withinWindow(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReadYourWrites.pinToPrimary();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    private boolean withinWindow(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (PRIMARY_UNTIL_COOKIE.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    long now = clock.millis();
+                    return until > now && until <= now + window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMutation(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        if (method == HttpMethod.POST) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return !READ_ONLY_POST_PATHS.contains(path);
+        }
+        return method == HttpMethod.PUT
+                || method == HttpMethod.PATCH || method == HttpMethod.DELETE;
+    }
+}
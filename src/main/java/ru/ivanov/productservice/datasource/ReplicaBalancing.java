@@ -0,0 +1,7 @@
+package ru.ivanov.productservice.datasource;
+
+public enum ReplicaBalancing {
+    ROUND_ROBIN,
+    // the replica with the fewest connections currently borrowed through this instance
+    LEAST_CONNECTIONS
+}
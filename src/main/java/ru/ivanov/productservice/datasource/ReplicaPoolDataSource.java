@@ -0,0 +1,140 @@
+package ru.ivanov.productservice.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Hands out connections of one of several replicas, picked round-robin or by the fewest borrowed connections.
+ * A thread pinned by {@link ReadYourWrites} gets a primary connection instead.
+ */
+public class ReplicaPoolDataSource extends AbstractDataSource implements Closeable {
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReplicaBalancing balancing;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicIntegerArray borrowed;
+
+    public ReplicaPoolDataSource(DataSource primary, List<DataSource> replicas, ReplicaBalancing balancing) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.balancing = balancing;
+        this.borrowed = new AtomicIntegerArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWrites.isPinnedToPrimary()) {
+            return primary.getConnection();
+        }
+        int replica = pick();
+        borrowed.incrementAndGet(replica);
+        try {
+            return tracked(replicas.get(replica).getConnection(), replica);
+        } catch (SQLException | RuntimeException e) {
+            borrowed.decrementAndGet(replica);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the credentials of their pool");
+    }
+
+    public List<DataSource> replicas() {
+        return replicas;
+    }
+
+    public int borrowed(int replica) {
+        return borrowed.get(replica);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas) {
+            if (replica instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private int pick() {
+        if (balancing == ReplicaBalancing.ROUND_ROBIN) {
+            return Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        }
+        // ties go round-robin so that idle replicas share the load
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        int best = start;
+        for (int i = 1; i < replicas.size(); i++) {
+            int candidate = (start + i) % replicas.size();
+            if (borrowed.get(candidate) < borrowed.get(best)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private Connection tracked(Connection target, int replica) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionProxy.class.getClassLoader(),
+                new Class<?>[]{ConnectionProxy.class},
+                new BorrowTrackingHandler(target, replica)
+        );
+    }
+
+    private class BorrowTrackingHandler implements InvocationHandler {
+        private final Connection target;
+        private final int replica;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        BorrowTrackingHandler(Connection target, int replica) {
+            this.target = target;
+            this.replica = replica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "getTargetConnection":
+                    return target;
+                case "close":
+                    try {
+                        target.close();
+                    } finally {
+                        if (returned.compareAndSet(false, true)) {
+                            borrowed.decrementAndGet(replica);
+                        }
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
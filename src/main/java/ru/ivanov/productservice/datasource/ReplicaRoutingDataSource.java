@@ -0,0 +1,37 @@
+package ru.ivanov.productservice.datasource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sends read-only transactions to the replicas and everything else to the primary. The physical connection
+ * is fetched lazily, on the first statement, because the transaction manager marks the connection
+ * read-only only after it has asked for it.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+    private final ReplicaPoolDataSource replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPoolDataSource replicas) {
+        super(primary);
+        this.replicas = replicas;
+        setReadOnlyDataSource(replicas);
+    }
+
+    public ReplicaPoolDataSource replicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            replicas.close();
+        } finally {
+            if (getTargetDataSource() instanceof Closeable primary) {
+                primary.close();
+            }
+        }
+    }
+}
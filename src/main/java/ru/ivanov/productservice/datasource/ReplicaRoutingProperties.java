@@ -0,0 +1,27 @@
+package ru.ivanov.productservice.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param readYourWritesWindow how long a client's reads stay on the primary after its own write,
+ *                             should cover the usual replication lag
+ */
+@ConfigurationProperties(prefix = "product.replicas")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("ROUND_ROBIN") ReplicaBalancing balancing,
+        @DefaultValue("PT5S") Duration readYourWritesWindow,
+        @DefaultValue List<Replica> nodes
+) {
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize
+    ) {
+    }
+}
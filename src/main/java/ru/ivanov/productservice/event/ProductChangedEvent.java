@@ -0,0 +1,35 @@
+package ru.ivanov.productservice.event;
+
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.util.UUID;
+
+public record ProductChangedEvent(
+        ChangeType changeType,
+        UUID productId,
+        ProductDto product
+) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // created or overwritten by a bulk import
+        IMPORTED
+    }
+
+    public static ProductChangedEvent created(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.CREATED, product.id(), product);
+    }
+
+    public static ProductChangedEvent updated(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.UPDATED, product.id(), product);
+    }
+
+    public static ProductChangedEvent imported(ProductDto product) {
+        return new ProductChangedEvent(ChangeType.IMPORTED, product.id(), product);
+    }
+
+    public static ProductChangedEvent deleted(UUID productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, productId, null);
+    }
+}
@@ -1,7 +1,10 @@
 package ru.ivanov.productservice.exception;
 
+/**
+ * An expected outcome answered with 400, so it is created without a stack trace.
+ */
 public class BadRequestException extends RuntimeException{
     public BadRequestException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
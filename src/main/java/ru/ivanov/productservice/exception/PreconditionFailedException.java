@@ -0,0 +1,18 @@
+package ru.ivanov.productservice.exception;
+
+import java.util.UUID;
+
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_VERSION_MISMATCH_TEMPLATE;
+
+/**
+ * An expected outcome answered with 412, so it is created without a stack trace.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message, null, false, false);
+    }
+
+    public static PreconditionFailedException productVersionMismatch(UUID productId) {
+        return new PreconditionFailedException(PRODUCT_VERSION_MISMATCH_TEMPLATE.format(productId));
+    }
+}
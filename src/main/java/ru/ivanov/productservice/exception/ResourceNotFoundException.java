@@ -1,7 +1,18 @@
 package ru.ivanov.productservice.exception;
 
+import java.util.UUID;
+
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID_TEMPLATE;
+
+/**
+ * An expected outcome answered with 404, so it is created without a stack trace.
+ */
 public class ResourceNotFoundException extends RuntimeException{
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+    }
+
+    public static ResourceNotFoundException product(UUID productId) {
+        return new ResourceNotFoundException(PRODUCT_NOT_FOUND_WITH_ID_TEMPLATE.format(productId));
     }
 }
\ No newline at end of file
@@ -1,37 +1,70 @@
 package ru.ivanov.productservice.exception.exceptionHandler;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
 import ru.ivanov.productservice.exception.ResourceNotFoundException;
 import ru.ivanov.productservice.model.dto.response.ErrorResponse;
+import ru.ivanov.productservice.util.TraceUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.SERVLET;
 import static org.springframework.http.HttpStatus.*;
 
 @RestControllerAdvice
+@ConditionalOnWebApplication(type = SERVLET)
 public class GlobalExceptionHandler {
+    public static final String ERRORS_METRIC_NAME = "product.api.errors";
+
+    // shared by every error response instead of building headers per response
+    private static final HttpHeaders JSON_HEADERS;
+
+    static {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private final Counter resourceNotFoundErrors;
+    private final Counter validationErrors;
+    private final Counter badRequestErrors;
+    private final Counter preconditionFailedErrors;
+    private final Counter databaseUnavailableErrors;
+    private final Counter illegalArgumentErrors;
+    private final Counter unexpectedErrors;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.resourceNotFoundErrors = errorCounter(meterRegistry, "resource_not_found", NOT_FOUND);
+        this.validationErrors = errorCounter(meterRegistry, "validation", BAD_REQUEST);
+        this.badRequestErrors = errorCounter(meterRegistry, "bad_request", BAD_REQUEST);
+        this.preconditionFailedErrors = errorCounter(meterRegistry, "precondition_failed", PRECONDITION_FAILED);
+        this.databaseUnavailableErrors = errorCounter(meterRegistry, "database_unavailable", SERVICE_UNAVAILABLE);
+        this.illegalArgumentErrors = errorCounter(meterRegistry, "illegal_argument", BAD_REQUEST);
+        this.unexpectedErrors = errorCounter(meterRegistry, "unexpected", INTERNAL_SERVER_ERROR);
+    }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
             ResourceNotFoundException ex,
             HttpServletRequest request
     ) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                request.getRequestURI(),
-                ex.getMessage(),
-                NOT_FOUND.value(),
-                LocalDateTime.now()
-        );
-        return ResponseEntity
-                .status(NOT_FOUND)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(errorResponse);
+        resourceNotFoundErrors.increment();
+        return errorResponse(NOT_FOUND, ex.getMessage(), request);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -39,27 +72,52 @@ public class GlobalExceptionHandler {
             MethodArgumentNotValidException ex,
             HttpServletRequest request
     ) {
-        List<String> errors = ex.getFieldErrors().stream()
-                .map(error -> {
-                    String message = error.getDefaultMessage();
-                    return message != null ? message
-                            : "validation failed on field %s"
-                            .formatted(error.getField());
-                })
-                .toList();
+        validationErrors.increment();
+        // same text as "Validation failed: " + List.toString() of the messages, without the intermediate list
+        List<FieldError> fieldErrors = ex.getFieldErrors();
+        StringBuilder detailedMessage = new StringBuilder(64).append("Validation failed: [");
+        for (int i = 0; i < fieldErrors.size(); i++) {
+            FieldError error = fieldErrors.get(i);
+            if (i > 0) {
+                detailedMessage.append(", ");
+            }
+            String message = error.getDefaultMessage();
+            if (message != null) {
+                detailedMessage.append(message);
+            } else {
+                detailedMessage.append("validation failed on field ").append(error.getField());
+            }
+        }
+        detailedMessage.append(']');
 
-        String detailedMessage = "Validation failed: " + errors;
+        return errorResponse(BAD_REQUEST, detailedMessage.toString(), request);
+    }
 
-        ErrorResponse errorResponse = new ErrorResponse(
-                request.getRequestURI(),
-                detailedMessage,
-                BAD_REQUEST.value(),
-                LocalDateTime.now()
-        );
-        return ResponseEntity
-                .status(BAD_REQUEST)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(errorResponse);
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequestException(
+            BadRequestException ex,
+            HttpServletRequest request
+    ) {
+        badRequestErrors.increment();
+        return errorResponse(BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+            PreconditionFailedException ex,
+            HttpServletRequest request
+    ) {
+        preconditionFailedErrors.increment();
+        return errorResponse(PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(
+            Exception ex,
+            HttpServletRequest request
+    ) {
+        databaseUnavailableErrors.increment();
+        return errorResponse(SERVICE_UNAVAILABLE, ex.getMessage(), request);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -67,16 +125,8 @@ public class GlobalExceptionHandler {
             IllegalArgumentException ex,
             HttpServletRequest request
     ) {
-        ErrorResponse errorResponse = new ErrorResponse(
-                request.getRequestURI(),
-                ex.getMessage(),
-                BAD_REQUEST.value(),
-                LocalDateTime.now()
-        );
-        return ResponseEntity
-                .status(BAD_REQUEST)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(errorResponse);
+        illegalArgumentErrors.increment();
+        return errorResponse(BAD_REQUEST, ex.getMessage(), request);
     }
 
     @ExceptionHandler(Exception.class)
@@ -84,15 +134,26 @@ public class GlobalExceptionHandler {
             Exception ex,
             HttpServletRequest request
     ) {
+        unexpectedErrors.increment();
+        return errorResponse(INTERNAL_SERVER_ERROR, ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<ErrorResponse> errorResponse(HttpStatus status, String message, HttpServletRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
                 request.getRequestURI(),
-                ex.getMessage(),
-                INTERNAL_SERVER_ERROR.value(),
-                LocalDateTime.now()
+                message,
+                status.value(),
+                LocalDateTime.now(),
+                TraceUtils.currentTraceId()
         );
-        return ResponseEntity
-                .status(INTERNAL_SERVER_ERROR)
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(errorResponse);
+        return new ResponseEntity<>(errorResponse, JSON_HEADERS, status);
+    }
+
+    private static Counter errorCounter(MeterRegistry meterRegistry, String handler, HttpStatus status) {
+        return Counter.builder(ERRORS_METRIC_NAME)
+                .description("Requests answered by an exception handler")
+                .tag("handler", handler)
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry);
     }
 }
\ No newline at end of file
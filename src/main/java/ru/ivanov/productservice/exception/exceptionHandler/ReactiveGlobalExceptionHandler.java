@@ -0,0 +1,101 @@
+package ru.ivanov.productservice.exception.exceptionHandler;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.model.dto.response.ErrorResponse;
+import ru.ivanov.productservice.util.TraceUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static org.springframework.http.HttpStatus.*;
+
+/**
+ * Same status codes and bodies as {@link GlobalExceptionHandler} for the reactive stack.
+ */
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveGlobalExceptionHandler {
+
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleResourceNotFoundException(
+            ResourceNotFoundException ex,
+            ServerHttpRequest request
+    ) {
+        return errorResponse(NOT_FOUND, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(
+            WebExchangeBindException ex,
+            ServerHttpRequest request
+    ) {
+        List<String> errors = ex.getFieldErrors().stream()
+                .map(error -> {
+                    String message = error.getDefaultMessage();
+                    return message != null ? message
+                            : "validation failed on field %s"
+                            .formatted(error.getField());
+                })
+                .toList();
+
+        return errorResponse(BAD_REQUEST, "Validation failed: " + errors, request);
+    }
+
+    @ExceptionHandler({BadRequestException.class, IllegalArgumentException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequestException(
+            RuntimeException ex,
+            ServerHttpRequest request
+    ) {
+        return errorResponse(BAD_REQUEST, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailedException(
+            PreconditionFailedException ex,
+            ServerHttpRequest request
+    ) {
+        return errorResponse(PRECONDITION_FAILED, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(DataAccessResourceFailureException.class)
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailableException(
+            DataAccessResourceFailureException ex,
+            ServerHttpRequest request
+    ) {
+        return errorResponse(SERVICE_UNAVAILABLE, ex.getMessage(), request);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(
+            Exception ex,
+            ServerHttpRequest request
+    ) {
+        return errorResponse(INTERNAL_SERVER_ERROR, ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<ErrorResponse> errorResponse(HttpStatus status, String message, ServerHttpRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                request.getPath().value(),
+                message,
+                status.value(),
+                LocalDateTime.now(),
+                TraceUtils.currentTraceId()
+        );
+        return ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(errorResponse);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.ivanov.productservice.groupcommit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.service.ProductService;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers {@link ProductService#createProduct} from the {@link ProductCreatePipeline}, the advisor's pointcut
+ * selects that method. Advises outside the transaction advisor, so a create waiting for its batch holds no connection.
+ */
+public class GroupCommitInterceptor implements MethodInterceptor {
+    private final Supplier<ProductCreatePipeline> pipeline;
+
+    public GroupCommitInterceptor(Supplier<ProductCreatePipeline> pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        return pipeline.get().create((CreateProductRequest) invocation.getArguments()[0]);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.ivanov.productservice.groupcommit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxWait        how long the first create of a batch waits for others, zero batches only
+ *                       what queued up during the previous commit
+ * @param queueCapacity  creates waiting for a batch, callers beyond it wait up to enqueueTimeout
+ *                       and are then turned away with 503
+ * @param commitTimeout  how long a queued create waits for its batch to commit before it is answered with 503
+ */
+@ConfigurationProperties(prefix = "product.group-commit")
+public record GroupCommitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("100") int maxBatchSize,
+        @DefaultValue("PT0.002S") Duration maxWait,
+        @DefaultValue("1000") int queueCapacity,
+        @DefaultValue("PT0.5S") Duration enqueueTimeout,
+        @DefaultValue("PT5S") Duration commitTimeout
+) {
+}
@@ -0,0 +1,232 @@
+package ru.ivanov.productservice.groupcommit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for product creation: callers queue their request and block, a single flusher thread inserts
+ * whatever has queued up, at most maxBatchSize, with one batched statement in one transaction and hands every
+ * caller its own product. A failed batch is retried one create per transaction with the same ids, so one bad row
+ * only fails its own caller and rows a shard already committed are not inserted twice. The queue is bounded:
+ * a caller that cannot enqueue within enqueueTimeout, or whose batch has not committed within commitTimeout,
+ * gets a 503.
+ */
+public class ProductCreatePipeline implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ProductCreatePipeline.class);
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductMapper productMapper;
+    private final ProductIdGenerator productIdGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final long enqueueTimeoutNanos;
+    private final long commitTimeoutNanos;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    public ProductCreatePipeline(
+            ProductJdbcRepository productJdbcRepository,
+            ProductMapper productMapper,
+            ProductIdGenerator productIdGenerator,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            GroupCommitProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productMapper = productMapper;
+        this.productIdGenerator = productIdGenerator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = Math.max(1, properties.maxBatchSize());
+        this.maxWaitNanos = properties.maxWait().toNanos();
+        this.enqueueTimeoutNanos = properties.enqueueTimeout().toNanos();
+        this.commitTimeoutNanos = properties.commitTimeout().toNanos();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity()));
+        this.batchSizes = DistributionSummary.builder("product.group.commit.batch.size")
+                .description("Products inserted per group commit")
+                .register(meterRegistry);
+        Gauge.builder("product.group.commit.queued", queue, BlockingQueue::size)
+                .register(meterRegistry);
+        this.flusher = Thread.ofPlatform()
+                .name("product-group-commit")
+                .daemon()
+                .start(this::flushUntilClosed);
+    }
+
+    public ProductDto create(CreateProductRequest request) {
+        // the id is fixed here, a retry of the product after a failed batch inserts the same row
+        Product product = new Product(request.title(), request.details());
+        product.setId(productIdGenerator.nextId());
+        product.setVersion(0L);
+        PendingCreate pending = new PendingCreate(product, new CompletableFuture<>());
+        try {
+            if (closed || !queue.offer(pending, enqueueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotCreateTransactionException("Product create queue is full");
+            }
+            // enqueued while closing, after the flusher has already stopped
+            if (closed && queue.remove(pending)) {
+                throw new CannotCreateTransactionException("Product create pipeline is shut down");
+            }
+            return pending.result().get(commitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // a create still queued is never written, one already in a batch may still be
+            queue.remove(pending);
+            throw new CannotCreateTransactionException("Timed out waiting for the group commit");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotCreateTransactionException("Interrupted while waiting for the group commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    // creates already queued are still committed, new ones are turned away
+    @Override
+    public void close() {
+        closed = true;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingCreate> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result().completeExceptionally(
+                new CannotCreateTransactionException("Product create pipeline is shut down")));
+    }
+
+    private void flushUntilClosed() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                collectOrDrainOnClose(batch);
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (Throwable e) {
+                // the flusher has to outlive any batch, callers queued behind it would wait for nothing
+                log.error("Group commit of {} products failed", batch.size(), e);
+                CannotCreateTransactionException failure = new CannotCreateTransactionException("Group commit failed", e);
+                batch.forEach(pending -> pending.result().completeExceptionally(failure));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectOrDrainOnClose(List<PendingCreate> batch) {
+        try {
+            collect(batch);
+        } catch (InterruptedException e) {
+            // close() wakes the flusher up, what was collected so far is still flushed
+            if (batch.isEmpty()) {
+                queue.drainTo(batch, maxBatchSize);
+            }
+        }
+    }
+
+    private void collect(List<PendingCreate> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatchSize || remaining <= 0) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingCreate> batch) {
+        batchSizes.record(batch.size());
+        try {
+            List<ProductDto> products = insert(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(products.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.debug("Group commit of {} products failed, retrying them one by one", batch.size(), e);
+            for (PendingCreate pending : batch) {
+                try {
+                    pending.result().complete(insertUnlessPresent(pending.product()));
+                } catch (RuntimeException itemFailure) {
+                    pending.result().completeExceptionally(itemFailure);
+                }
+            }
+        }
+    }
+
+    // the events are published inside the transaction, listeners hear of them once it commits
+    private List<ProductDto> insert(List<PendingCreate> batch) {
+        List<Product> products = batch.stream().map(PendingCreate::product).toList();
+        return transactionTemplate.execute(status -> {
+            productJdbcRepository.insertAll(products);
+            return products.stream().map(this::publishCreated).toList();
+        });
+    }
+
+    // a sharded repository commits every shard of a batch on its own, so a failed batch may be partly stored
+    private ProductDto insertUnlessPresent(Product product) {
+        return transactionTemplate.execute(status -> {
+            if (!productJdbcRepository.existsById(product.getId())) {
+                productJdbcRepository.insertAll(List.of(product));
+            }
+            return publishCreated(product);
+        });
+    }
+
+    private ProductDto publishCreated(Product product) {
+        ProductDto productDto = productMapper.toDto(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(productDto));
+        return productDto;
+    }
+
+    private record PendingCreate(Product product, CompletableFuture<ProductDto> result) {
+    }
+}
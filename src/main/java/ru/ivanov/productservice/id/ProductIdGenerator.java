@@ -0,0 +1,11 @@
+package ru.ivanov.productservice.id;
+
+import java.util.UUID;
+
+/**
+ * Source of ids for new products, chosen with product.ids.version.
+ */
+public interface ProductIdGenerator {
+
+    UUID nextId();
+}
@@ -0,0 +1,10 @@
+package ru.ivanov.productservice.id;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product.ids")
+public record ProductIdProperties(
+        @DefaultValue("V7") ProductIdVersion version
+) {
+}
@@ -0,0 +1,8 @@
+package ru.ivanov.productservice.id;
+
+public enum ProductIdVersion {
+    // random, every insert lands on a random leaf of the primary key index
+    V4,
+    // time-ordered, inserts append to the rightmost leaf
+    V7
+}
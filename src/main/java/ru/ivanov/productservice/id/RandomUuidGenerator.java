@@ -0,0 +1,11 @@
+package ru.ivanov.productservice.id;
+
+import java.util.UUID;
+
+public class RandomUuidGenerator implements ProductIdGenerator {
+
+    @Override
+    public UUID nextId() {
+        return UUID.randomUUID();
+    }
+}
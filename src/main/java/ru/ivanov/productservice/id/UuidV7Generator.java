@@ -0,0 +1,50 @@
+package ru.ivanov.productservice.id;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48 bits of Unix milliseconds, a 12-bit counter in rand_a and 62 random bits.
+ * Ids of one generator strictly increase: the counter orders ids within a millisecond, and when it overflows
+ * or the clock steps back the timestamp is carried forward instead of repeating a value.
+ * Lock-free, an id costs one compare-and-set. The random bits come from {@link ThreadLocalRandom},
+ * they only need to keep the ids of different instances apart, not to make them unguessable.
+ */
+public final class UuidV7Generator implements ProductIdGenerator {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final UuidV7Generator SHARED = new UuidV7Generator(System::currentTimeMillis);
+
+    private final LongSupplier clock;
+    // Unix milliseconds << COUNTER_BITS | counter, of the last id
+    private final AtomicLong last = new AtomicLong();
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    // one generator per process keeps every id of this instance monotonic
+    public static UuidV7Generator shared() {
+        return SHARED;
+    }
+
+    @Override
+    public UUID nextId() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            next = Math.max(now, previous + 1);
+        } while (!last.compareAndSet(previous, next));
+
+        long mostSignificantBits = (next >>> COUNTER_BITS) << 16 | VERSION | (next & COUNTER_MASK);
+        long leastSignificantBits = ThreadLocalRandom.current().nextLong() & RANDOM_MASK | VARIANT;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.ivanov.productservice.index;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.datasource.ReadYourWrites;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.repository.ProductRepository;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of existing product ids that answers lookups of unknown ids without a database round trip.
+ * Ids written by anything but this instance are only seen after the next rebuild,
+ * so keep it disabled when the products table has other writers.
+ */
+@Component
+public class ProductIdFilter {
+    private static final Logger log = LoggerFactory.getLogger(ProductIdFilter.class);
+    private static final double HEADROOM = 1.5;
+    private static final long MIN_EXPECTED_INSERTIONS = 1024;
+
+    private final ProductRepository productRepository;
+    private final ProductCounter productCounter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProductIdFilterProperties properties;
+
+    private final Counter definiteMisses;
+    private final Counter maybeHits;
+    private final Counter falsePositives;
+
+    private volatile UuidBloomFilter active;
+    private volatile UuidBloomFilter rebuilding;
+
+    public ProductIdFilter(
+            ProductRepository productRepository,
+            ProductCounter productCounter,
+            PlatformTransactionManager transactionManager,
+            ProductIdFilterProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productRepository = productRepository;
+        this.productCounter = productCounter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+
+        this.definiteMisses = Counter.builder("product.id.filter.lookups")
+                .tag("result", "definite_miss")
+                .register(meterRegistry);
+        this.maybeHits = Counter.builder("product.id.filter.lookups")
+                .tag("result", "maybe")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("product.id.filter.false.positives")
+                .register(meterRegistry);
+        Gauge.builder("product.id.filter.observed.fpp", this, ProductIdFilter::observedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("product.id.filter.expected.fpp", this, ProductIdFilter::expectedFalsePositiveRate)
+                .register(meterRegistry);
+        Gauge.builder("product.id.filter.size", this, ProductIdFilter::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean mightContain(UUID productId) {
+        UuidBloomFilter filter = active;
+        if (filter == null) {
+            return true;
+        }
+        if (filter.mightContain(productId)) {
+            maybeHits.increment();
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    public void recordFalsePositive() {
+        if (active != null) {
+            falsePositives.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${product.id-filter.rebuild-interval:PT10M}",
+            fixedDelayString = "${product.id-filter.rebuild-interval:PT10M}"
+    )
+    public void rebuild() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long expectedInsertions = Math.max(MIN_EXPECTED_INSERTIONS, (long) (productCounter.get() * HEADROOM));
+        UuidBloomFilter next = new UuidBloomFilter(expectedInsertions, properties.falsePositiveRate());
+        // ids committed while the scan runs are added to both filters by onProductChanged
+        rebuilding = next;
+        try {
+            // a lagging replica would miss ids committed before the scan, answering 404 for them until the next rebuild
+            ReadYourWrites.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<UUID> ids = productRepository.streamAllIds()) {
+                    ids.forEach(next::put);
+                }
+            }));
+            active = next;
+            log.info("Product id filter rebuilt for {} expected ids, {} bytes", expectedInsertions, next.sizeInBytes());
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.changeType() != ProductChangedEvent.ChangeType.CREATED
+                && event.changeType() != ProductChangedEvent.ChangeType.IMPORTED) {
+            return;
+        }
+        // read rebuilding before active: after a swap active already is the rebuilt filter
+        UuidBloomFilter next = rebuilding;
+        UuidBloomFilter current = active;
+        if (current != null) {
+            current.put(event.productId());
+        }
+        if (next != null && next != current) {
+            next.put(event.productId());
+        }
+    }
+
+    private double observedFalsePositiveRate() {
+        double absentLookups = falsePositives.count() + definiteMisses.count();
+        return absentLookups == 0 ? 0 : falsePositives.count() / absentLookups;
+    }
+
+    private double expectedFalsePositiveRate() {
+        UuidBloomFilter filter = active;
+        return filter == null ? 0 : filter.expectedFalsePositiveRate();
+    }
+
+    private double sizeInBytes() {
+        UuidBloomFilter filter = active;
+        return filter == null ? 0 : filter.sizeInBytes();
+    }
+}
@@ -0,0 +1,14 @@
+package ru.ivanov.productservice.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product.id-filter")
+public record ProductIdFilterProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0.01") double falsePositiveRate,
+        @DefaultValue("PT10M") Duration rebuildInterval
+) {
+}
@@ -0,0 +1,100 @@
+package ru.ivanov.productservice.index;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.datasource.ReadYourWrites;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.repository.ProductRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index of product titles for autocomplete, loaded once at startup
+ * and then kept current by product change events.
+ * Titles written by anything but this instance are not seen until a restart,
+ * so keep it disabled when the products table has other writers.
+ */
+@Component
+public class ProductTitleIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProductTitleIndex.class);
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProductTitleIndexProperties properties;
+    private final TitlePrefixIndex index = new TitlePrefixIndex();
+
+    private volatile boolean ready;
+
+    public ProductTitleIndex(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            ProductTitleIndexProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+
+        Gauge.builder("product.title.index.titles", index, TitlePrefixIndex::size)
+                .register(meterRegistry);
+        Gauge.builder("product.title.index.size", index, TitlePrefixIndex::estimatedSizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether {@link #suggest} answers from a complete index.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!properties.enabled()) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        // titles committed while the scan runs are applied by onProductChanged and win over the scanned ones
+        index.startLoad();
+        try {
+            ReadYourWrites.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductSuggestion> titles = productRepository.streamAllTitles()) {
+                    titles.forEach(title -> index.putIfAbsent(title.id(), title.title()));
+                }
+            }));
+        } finally {
+            index.finishLoad();
+        }
+        ready = true;
+        log.info("Product title index loaded {} titles in {} ms, about {} bytes",
+                index.size(), (System.nanoTime() - startedAt) / 1_000_000, index.estimatedSizeInBytes());
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!properties.enabled()) {
+            return;
+        }
+        if (event.changeType() == ProductChangedEvent.ChangeType.DELETED) {
+            index.remove(event.productId());
+        } else {
+            index.put(event.productId(), event.product().title());
+        }
+    }
+}
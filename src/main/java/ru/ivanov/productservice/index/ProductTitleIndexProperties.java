@@ -0,0 +1,10 @@
+package ru.ivanov.productservice.index;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product.title-index")
+public record ProductTitleIndexProperties(
+        @DefaultValue("false") boolean enabled
+) {
+}
@@ -0,0 +1,132 @@
+package ru.ivanov.productservice.index;
+
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Sorted set of normalized titles, so a prefix is found with one ceiling lookup and the matches
+ * are read in order: a lookup costs O(log n + limit) whatever the catalog size.
+ * A prefix matches the start of a title, like the {@code LIKE 'prefix%'} query used without the index.
+ * Writes for the same id are serialized by the id map, reads never lock.
+ */
+class TitlePrefixIndex {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final UUID MIN_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final IndexedTitle TOMBSTONE = new IndexedTitle(null, null);
+
+    // rough sizes on a 64-bit JVM with compressed oops and compact strings
+    private static final long ENTRY_BYTES = 24 + 24 + 8;
+    private static final long TITLE_BYTES = 32 + 32 + 16 + 2 * (24 + 16);
+
+    private final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<UUID, IndexedTitle> titles = new ConcurrentHashMap<>();
+    private final AtomicInteger titleCount = new AtomicInteger();
+    private final AtomicLong titleChars = new AtomicLong();
+
+    private volatile boolean loading;
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty()) {
+            return List.of();
+        }
+        List<ProductSuggestion> found = new ArrayList<>(limit);
+        for (Entry entry : entries.tailSet(new Entry(normalizedPrefix, MIN_ID))) {
+            if (found.size() == limit || !entry.text().startsWith(normalizedPrefix)) {
+                break;
+            }
+            IndexedTitle title = titles.get(entry.id());
+            if (title != null && title != TOMBSTONE) {
+                found.add(new ProductSuggestion(entry.id(), title.title()));
+            }
+        }
+        return found;
+    }
+
+    public void put(UUID id, String title) {
+        titles.compute(id, (key, previous) -> {
+            unindex(id, previous);
+            return index(id, title);
+        });
+    }
+
+    public void remove(UUID id) {
+        titles.compute(id, (key, previous) -> {
+            unindex(id, previous);
+            // while loading, the scan may still return a row deleted after it was read
+            return loading ? TOMBSTONE : null;
+        });
+    }
+
+    /**
+     * Starts a full load, until {@link #finishLoad()} removed ids are remembered
+     * so that {@link #putIfAbsent} from a concurrent scan can not bring them back.
+     */
+    public void startLoad() {
+        loading = true;
+    }
+
+    // anything already present was written after the scan read it
+    public void putIfAbsent(UUID id, String title) {
+        titles.computeIfAbsent(id, key -> index(id, title));
+    }
+
+    public void finishLoad() {
+        loading = false;
+        titles.values().removeIf(title -> title == TOMBSTONE);
+    }
+
+    public int size() {
+        return titleCount.get();
+    }
+
+    public long estimatedSizeInBytes() {
+        return entries.size() * ENTRY_BYTES + titleCount.get() * TITLE_BYTES + 2 * titleChars.get();
+    }
+
+    static String normalize(String text) {
+        return WHITESPACE.matcher(text.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private IndexedTitle index(UUID id, String title) {
+        if (title == null) {
+            return null;
+        }
+        String normalized = normalize(title);
+        entries.add(new Entry(normalized, id));
+        titleCount.incrementAndGet();
+        titleChars.addAndGet(title.length());
+        return new IndexedTitle(title, normalized);
+    }
+
+    private void unindex(UUID id, IndexedTitle indexed) {
+        if (indexed == null || indexed == TOMBSTONE) {
+            return;
+        }
+        entries.remove(new Entry(indexed.normalized(), id));
+        titleCount.decrementAndGet();
+        titleChars.addAndGet(-indexed.title().length());
+    }
+
+    private record IndexedTitle(String title, String normalized) {
+    }
+
+    // shares the normalized title, equal titles are told apart by id
+    private record Entry(String text, UUID id) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int diff = text.compareTo(other.text);
+            return diff != 0 ? diff : id.compareTo(other.id);
+        }
+    }
+}
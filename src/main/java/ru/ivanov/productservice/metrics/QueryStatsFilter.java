@@ -0,0 +1,130 @@
+package ru.ivanov.productservice.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.ivanov.productservice.datasource.QueryStats;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the JDBC statements run while handling a request, as X-Query-Count and X-Query-Time (milliseconds)
+ * response headers and as product.request.queries and product.request.query.time metrics per route and status.
+ * Headers are added right before the response is committed, so a streamed body only reports
+ * the statements run before its first byte. Statements run on other threads are not seen.
+ */
+public class QueryStatsFilter extends OncePerRequestFilter {
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+    public static final String QUERY_COUNT_METRIC_NAME = "product.request.queries";
+    public static final String QUERY_TIME_METRIC_NAME = "product.request.query.time";
+
+    // built once, a request only looks up the meters of its tags instead of building and registering them
+    private final Meter.MeterProvider<DistributionSummary> queryCounts;
+    private final Meter.MeterProvider<Timer> queryTimes;
+
+    public QueryStatsFilter(MeterRegistry meterRegistry) {
+        this.queryCounts = DistributionSummary.builder(QUERY_COUNT_METRIC_NAME)
+                .description("JDBC statements run per request")
+                .withRegistry(meterRegistry);
+        this.queryTimes = Timer.builder(QUERY_TIME_METRIC_NAME)
+                .description("Time spent executing JDBC statements per request")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        QueryStats stats = QueryStats.current();
+        stats.reset();
+        QueryStatsResponse statsResponse = new QueryStatsResponse(response, stats);
+        try {
+            filterChain.doFilter(request, statsResponse);
+        } finally {
+            statsResponse.addHeaders();
+            record(request, response, stats);
+            stats.reset();
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, QueryStats stats) {
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of(
+                "method", request.getMethod(),
+                "uri", route != null ? route.toString() : "UNKNOWN",
+                "status", String.valueOf(response.getStatus())
+        );
+        queryCounts.withTags(tags).record(stats.count());
+        queryTimes.withTags(tags).record(stats.nanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private static class QueryStatsResponse extends HttpServletResponseWrapper {
+        private final QueryStats stats;
+        private boolean headersAdded;
+
+        QueryStatsResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void addHeaders() {
+            if (headersAdded || isCommitted()) {
+                return;
+            }
+            headersAdded = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(stats.count()));
+            setHeader(QUERY_TIME_HEADER, String.valueOf(TimeUnit.NANOSECONDS.toMillis(stats.nanos())));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
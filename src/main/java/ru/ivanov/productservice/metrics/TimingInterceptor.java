@@ -0,0 +1,58 @@
+package ru.ivanov.productservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records a timer per method of an interface around every intercepted call, overloads share the timer of their name.
+ * All timers are registered by the first call, which is also when the registry is first asked for, so the
+ * interceptor can be built before the registry exists. From then on a call costs a map lookup and two clock reads.
+ * Calls ending with an exception are recorded too.
+ */
+public class TimingInterceptor implements MethodInterceptor {
+    public static final String METRIC_NAME = "product.service.method";
+
+    private final Supplier<Map<String, Timer>> timers;
+
+    public TimingInterceptor(Class<?> type, Supplier<MeterRegistry> meterRegistry) {
+        this.timers = SingletonSupplier.of(() -> registerTimers(type, meterRegistry.get()));
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer timer = timers.get().get(invocation.getMethod().getName());
+        if (timer == null) {
+            return invocation.proceed();
+        }
+        long startedAt = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Map<String, Timer> registerTimers(Class<?> type, MeterRegistry meterRegistry) {
+        Map<String, Timer> timers = new HashMap<>();
+        if (meterRegistry == null) {
+            return timers;
+        }
+        for (Method method : type.getMethods()) {
+            timers.computeIfAbsent(method.getName(), name -> Timer.builder(METRIC_NAME)
+                    .description("Time spent in service methods")
+                    .tag("service", type.getSimpleName())
+                    .tag("method", name)
+                    .register(meterRegistry));
+        }
+        return timers;
+    }
+}
@@ -1,5 +1,6 @@
 package ru.ivanov.productservice.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.UUID;
@@ -11,6 +12,10 @@ public record ProductDto(
         @Schema(description = "Title of the product", example = "Water")
         String title,
         @Schema(description = "Additional information about the product", example = "Best water in the world")
-        String details
+        String details,
+        // served as the ETag, null when the version written by a change is not known
+        @JsonIgnore
+        @Schema(hidden = true)
+        Long version
 ) {
 }
\ No newline at end of file
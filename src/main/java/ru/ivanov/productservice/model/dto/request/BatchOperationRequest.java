@@ -0,0 +1,31 @@
+package ru.ivanov.productservice.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+@Schema(description = "Single operation of a batch")
+public record BatchOperationRequest(
+        @NotNull(message = "operation не должно быть null")
+        @Schema(description = "Operation to perform", example = "UPDATE")
+        BatchOperationType operation,
+
+        @Schema(description = "ID of the product to update or delete, ignored for CREATE",
+                example = "9b63c77d-8e91-4f40-adb1-6817b92081ab", type = "string", format = "uuid")
+        UUID id,
+
+        @Schema(description = "Product title for CREATE and UPDATE", example = "Milk")
+        String title,
+
+        @Schema(description = "Product details for CREATE and UPDATE", example = "The best milk in the world")
+        String details
+) {
+    public CreateProductRequest toCreateProductRequest() {
+        return new CreateProductRequest(title, details);
+    }
+
+    public UpdateProductRequest toUpdateProductRequest() {
+        return new UpdateProductRequest(title, details);
+    }
+}
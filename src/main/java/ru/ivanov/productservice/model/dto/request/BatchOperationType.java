@@ -0,0 +1,7 @@
+package ru.ivanov.productservice.model.dto.request;
+
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,19 @@
+package ru.ivanov.productservice.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Batch of product operations executed in order")
+public record BatchProductRequest(
+        @NotNull(message = "operations не должно быть null")
+        @NotEmpty(message = "operations не должно быть пустым")
+        @Size(max = 1000, message = "operations не должно содержать больше 1000 элементов")
+        @Schema(description = "Operations to execute in order")
+        List<@NotNull(message = "operation не должно быть null") @Valid BatchOperationRequest> operations
+) {
+}
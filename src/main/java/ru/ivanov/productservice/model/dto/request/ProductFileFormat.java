@@ -0,0 +1,55 @@
+package ru.ivanov.productservice.model.dto.request;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import ru.ivanov.productservice.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+
+import static ru.ivanov.productservice.util.MessageUtils.UNSUPPORTED_EXPORT_FORMAT;
+import static ru.ivanov.productservice.util.MessageUtils.UNSUPPORTED_IMPORT_CONTENT_TYPE;
+
+public enum ProductFileFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    ProductFileFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    public static ProductFileFormat fromValue(String value) {
+        for (ProductFileFormat format : values()) {
+            if (format.fileExtension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new BadRequestException(UNSUPPORTED_EXPORT_FORMAT.formatted(value));
+    }
+
+    public static ProductFileFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            try {
+                MediaType mediaType = MediaType.parseMediaType(contentType);
+                for (ProductFileFormat format : values()) {
+                    if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                        return format;
+                    }
+                }
+            } catch (InvalidMediaTypeException ignored) {
+            }
+        }
+        throw new BadRequestException(UNSUPPORTED_IMPORT_CONTENT_TYPE.formatted(contentType));
+    }
+}
@@ -0,0 +1,19 @@
+package ru.ivanov.productservice.model.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "IDs of products to look up")
+public record ProductLookupRequest(
+        @NotNull(message = "ids не должно быть null")
+        @NotEmpty(message = "ids не должно быть пустым")
+        @Size(max = 1000, message = "ids не должно содержать больше 1000 элементов")
+        @Schema(description = "Product IDs, the response keeps their order")
+        List<@NotNull(message = "id не должно быть null") UUID> ids
+) {
+}
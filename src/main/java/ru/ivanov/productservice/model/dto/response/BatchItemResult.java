@@ -0,0 +1,21 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.ivanov.productservice.model.dto.request.BatchOperationType;
+
+import java.util.UUID;
+
+@Schema(description = "Result of a single batch operation")
+public record BatchItemResult(
+        @Schema(description = "Zero-based index of the operation in the batch", example = "0")
+        int index,
+        @Schema(description = "Performed operation", example = "CREATE")
+        BatchOperationType operation,
+        @Schema(description = "ID of the affected product", example = "9b63c77d-8e91-4f40-adb1-6817b92081ab", type = "string", format = "uuid")
+        UUID id,
+        @Schema(description = "Http status code the operation would have as a single request", example = "201")
+        int statusCode,
+        @Schema(description = "Error message, null on success", example = "Product not found with id = e1d797bb-26fe-4b58-8bcd-d9cdfa9eb263")
+        String message
+) {
+}
@@ -0,0 +1,22 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Batch response with per-operation results")
+public record BatchProductResponse(
+        @Schema(description = "Number of succeeded operations", example = "2")
+        int succeeded,
+        @Schema(description = "Number of failed operations", example = "1")
+        int failed,
+        @Schema(description = "Results in the order of requested operations")
+        List<BatchItemResult> results
+) {
+    public static BatchProductResponse fromResults(List<BatchItemResult> results) {
+        int failed = (int) results.stream()
+                .filter(result -> result.message() != null)
+                .count();
+        return new BatchProductResponse(results.size() - failed, failed, results);
+    }
+}
@@ -0,0 +1,31 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Cursor-based paginated response")
+public record CursorPagedResponse<T>(
+        @Schema(
+                description = "Requested number of items per page",
+                example = "10",
+                minimum = "1"
+        )
+        int pageSize,
+        @Schema(
+                description = "Indicates if there are more items after this page",
+                example = "true"
+        )
+        boolean hasNext,
+        @Schema(
+                description = "Opaque cursor to pass as 'after' to get the next page, null on the last page",
+                example = "m2PHfY6RT0CtsWgXuSCBqw"
+        )
+        String nextCursor,
+        @Schema(
+                description = "List of items for the current page",
+                implementation = Object.class
+        )
+        List<T> content
+) {
+}
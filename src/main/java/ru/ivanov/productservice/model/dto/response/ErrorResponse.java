@@ -1,5 +1,6 @@
 package ru.ivanov.productservice.model.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
@@ -15,6 +16,10 @@ public record ErrorResponse(
                 example = "2023-05-15T12:34:56.789",
                 type = "string",
                 format = "date-time")
-        LocalDateTime timestamp
+        LocalDateTime timestamp,
+        @Schema(description = "Trace id of the failed request, absent when it was not traced",
+                example = "4bf92f3577b34da6a3ce929d0e0e4736")
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String traceId
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Summary of a bulk import")
+public record ProductImportResponse(
+        @Schema(description = "Number of created or overwritten products", example = "99998")
+        long imported,
+        @Schema(description = "Number of rejected rows", example = "2")
+        long rejected,
+        @Schema(description = "First rejected rows, at most 'product.import.max-reported-rejections' of them")
+        List<RejectedRow> rejectedRows,
+        @Schema(description = "Import duration in milliseconds", example = "2150")
+        long durationMillis,
+        @Schema(description = "Imported rows per second", example = "46510.7")
+        double rowsPerSecond
+) {
+}
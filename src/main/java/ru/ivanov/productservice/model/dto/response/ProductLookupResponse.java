@@ -0,0 +1,16 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Products found by requested IDs")
+public record ProductLookupResponse(
+        @Schema(description = "Found products in the order of requested IDs")
+        List<ProductDto> content,
+        @Schema(description = "Requested IDs without a product")
+        List<UUID> notFound
+) {
+}
@@ -0,0 +1,14 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Product whose title matches an autocomplete prefix")
+public record ProductSuggestion(
+        @Schema(description = "Product ID", example = "9b63c77d-8e91-4f40-adb1-6817b92081ab")
+        UUID id,
+        @Schema(description = "Product title", example = "Stainless steel water bottle")
+        String title
+) {
+}
@@ -0,0 +1,12 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Row of an import that was not written")
+public record RejectedRow(
+        @Schema(description = "One-based number of the data row, the CSV header is not counted", example = "42")
+        long row,
+        @Schema(description = "Reason of the rejection", example = "Validation failed: [title не должно быть пустым]")
+        String message
+) {
+}
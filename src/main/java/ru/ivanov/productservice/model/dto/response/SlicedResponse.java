@@ -0,0 +1,47 @@
+package ru.ivanov.productservice.model.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Schema(description = "Paginated response without total counts")
+public record SlicedResponse<T>(
+        @Schema(
+                description = "Zero-based page number",
+                example = "0",
+                minimum = "0"
+        )
+        int pageNumber,
+        @Schema(
+                description = "Number of items per page",
+                example = "10",
+                minimum = "1"
+        )
+        int pageSize,
+        @Schema(
+                description = "Indicates if this is the first page",
+                example = "true"
+        )
+        boolean first,
+        @Schema(
+                description = "Indicates if there is a next page",
+                example = "true"
+        )
+        boolean hasNext,
+        @Schema(
+                description = "List of items for the current page",
+                implementation = Object.class
+        )
+        List<T> content
+) {
+    public static <T> SlicedResponse<T> fromSlice(Slice<T> slice) {
+        return new SlicedResponse<>(
+                slice.getNumber(),
+                slice.getSize(),
+                slice.isFirst(),
+                slice.hasNext(),
+                slice.getContent()
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package ru.ivanov.productservice.model.entity;
 
 import jakarta.persistence.*;
+import ru.ivanov.productservice.id.TimeOrderedId;
 
 import java.util.UUID;
 
@@ -8,13 +9,16 @@ import java.util.UUID;
 @Table(name = "products")
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     private String title;
 
     private String details;
 
+    @Version
+    private Long version;
+
     public Product() {}
 
     public Product(String title, String details) {
@@ -45,4 +49,12 @@ public class Product {
     public void setDetails(String details) {
         this.details = details;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,60 @@
+package ru.ivanov.productservice.repository;
+
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Product storage operations run with plain JDBC, either on the application database or spread over shards.
+ */
+public interface ProductJdbcRepository {
+
+    void insertAll(List<Product> products);
+
+    // copies rows between databases without restarting their versions, which would break If-Match of clients
+    void insertAllPreservingVersion(List<Product> products);
+
+    // every updated product gets the version its row was moved to, the others keep theirs
+    int[] updateAll(List<Product> products);
+
+    int[] deleteAll(List<UUID> productIds);
+
+    /**
+     * Inserts new products and overwrites existing ones with the same id.
+     * The products get the versions their rows ended up with. Must run inside a transaction.
+     */
+    void upsertAll(List<Product> products);
+
+    Optional<Product> findById(UUID id);
+
+    List<Product> findByIdIn(Collection<UUID> ids);
+
+    boolean existsById(UUID id);
+
+    long count();
+
+    Optional<UUID> findLastId();
+
+    List<Product> findOrderedById(UUID afterId, int limit);
+
+    // the same case-insensitive substring match as the JPA repository, ordered by id
+    List<Product> searchOrderedById(String term, int limit);
+
+    List<ProductSuggestion> findSuggestions(String prefix, int limit);
+
+    /**
+     * Returns the version the product was moved to, or an empty optional when there is no product with the id.
+     */
+    Optional<Long> updateTitleAndDetailsById(UUID id, String title, String details);
+
+    int updateTitleAndDetailsByIdAndVersion(UUID id, long version, String title, String details);
+
+    int deleteById(UUID id);
+
+    void streamAllOrderedById(UUID afterId, int fetchSize, Consumer<Product> consumer);
+}
@@ -0,0 +1,132 @@
+package ru.ivanov.productservice.repository;
+
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+
+@Repository
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ProductR2dbcRepository {
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO products (id, title, details) VALUES (:id, :title, :details) RETURNING version";
+    private static final String SELECT_PRODUCT_BY_ID = "SELECT id, title, details, version FROM products WHERE id = :id";
+    private static final String SELECT_PRODUCTS_PAGE =
+            "SELECT id, title, details, version FROM products ORDER BY id LIMIT :limit OFFSET :offset";
+    private static final String SELECT_PRODUCTS =
+            "SELECT id, title, details, version FROM products ORDER BY id LIMIT :limit";
+    private static final String SELECT_PRODUCTS_AFTER_ID =
+            "SELECT id, title, details, version FROM products WHERE id > :id ORDER BY id LIMIT :limit";
+    private static final String COUNT_PRODUCTS = "SELECT count(*) FROM products";
+    private static final String EXISTS_PRODUCT = "SELECT 1 FROM products WHERE id = :id";
+    private static final String UPDATE_PRODUCT =
+            "UPDATE products SET title = :title, details = :details, version = version + 1 WHERE id = :id";
+    private static final String UPDATE_PRODUCT_WITH_VERSION = """
+            UPDATE products SET title = :title, details = :details, version = version + 1
+            WHERE id = :id AND version = :version""";
+    private static final String DELETE_PRODUCT = "DELETE FROM products WHERE id = :id";
+
+    private final DatabaseClient databaseClient;
+    private final ProductIdGenerator productIdGenerator;
+
+    public ProductR2dbcRepository(DatabaseClient databaseClient, ProductIdGenerator productIdGenerator) {
+        this.databaseClient = databaseClient;
+        this.productIdGenerator = productIdGenerator;
+    }
+
+    // the id is generated here, by the same generator the servlet stack uses
+    public Mono<Product> insert(String title, String details) {
+        UUID id = productIdGenerator.nextId();
+        return databaseClient.sql(INSERT_PRODUCT)
+                .bind("id", id)
+                .bind("title", title)
+                .bind("details", details)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .map(version -> {
+                    Product product = new Product(title, details);
+                    product.setId(id);
+                    product.setVersion(version);
+                    return product;
+                });
+    }
+
+    public Mono<Product> findById(UUID id) {
+        return databaseClient.sql(SELECT_PRODUCT_BY_ID)
+                .bind("id", id)
+                .map(ProductR2dbcRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Product> findAllOrderedById(long offset, int limit) {
+        return databaseClient.sql(SELECT_PRODUCTS_PAGE)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ProductR2dbcRepository::toProduct)
+                .all();
+    }
+
+    public Flux<Product> findAfterIdOrderedById(UUID afterId, int limit) {
+        DatabaseClient.GenericExecuteSpec spec = afterId == null
+                ? databaseClient.sql(SELECT_PRODUCTS)
+                : databaseClient.sql(SELECT_PRODUCTS_AFTER_ID).bind("id", afterId);
+        return spec.bind("limit", limit)
+                .map(ProductR2dbcRepository::toProduct)
+                .all();
+    }
+
+    public Mono<Long> count() {
+        return databaseClient.sql(COUNT_PRODUCTS)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql(EXISTS_PRODUCT)
+                .bind("id", id)
+                .map(row -> true)
+                .one()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Long> updateTitleAndDetailsById(UUID id, String title, String details) {
+        return databaseClient.sql(UPDATE_PRODUCT)
+                .bind("id", id)
+                .bind("title", title)
+                .bind("details", details)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> updateTitleAndDetailsByIdAndVersion(UUID id, long version, String title, String details) {
+        return databaseClient.sql(UPDATE_PRODUCT_WITH_VERSION)
+                .bind("id", id)
+                .bind("version", version)
+                .bind("title", title)
+                .bind("details", details)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteById(UUID id) {
+        return databaseClient.sql(DELETE_PRODUCT)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Product toProduct(Readable row) {
+        Product product = new Product(row.get("title", String.class), row.get("details", String.class));
+        product.setId(row.get("id", UUID.class));
+        product.setVersion(row.get("version", Long.class));
+        return product;
+    }
+}
@@ -1,11 +1,58 @@
 package ru.ivanov.productservice.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
 import ru.ivanov.productservice.model.entity.Product;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
-}
\ No newline at end of file
+
+    Slice<Product> findAllBy(Pageable pageable);
+
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(UUID id, Limit limit);
+
+    Slice<Product> findByTitleContainingIgnoreCaseOrDetailsContainingIgnoreCase(
+            String title,
+            String details,
+            Pageable pageable
+    );
+
+    List<ProductSuggestion> findByTitleStartingWithIgnoreCaseOrderByTitleAsc(String prefix, Limit limit);
+
+    List<Product> findByIdIn(Collection<UUID> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update Product p set p.title = :title, p.details = :details, p.version = p.version + 1
+            where p.id = :id and p.version = :version""")
+    int updateTitleAndDetailsByIdAndVersion(UUID id, long version, String title, String details);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Product p where p.id = :id")
+    int deleteProductById(UUID id);
+
+    @Query("select p.id from Product p")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<UUID> streamAllIds();
+
+    @Query("select new ru.ivanov.productservice.model.dto.response.ProductSuggestion(p.id, p.title) from Product p")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<ProductSuggestion> streamAllTitles();
+}
@@ -0,0 +1,313 @@
+package ru.ivanov.productservice.repository.impl;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+public class ProductJdbcRepositoryImpl implements ProductJdbcRepository {
+    private static final String INSERT_PRODUCT = "INSERT INTO products (id, title, details) VALUES (?, ?, ?)";
+    private static final String INSERT_PRODUCT_WITH_VERSION =
+            "INSERT INTO products (id, title, details, version) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_PRODUCT = "UPDATE products SET title = ?, details = ?, version = version + 1 WHERE id = ?";
+    private static final String DELETE_PRODUCT = "DELETE FROM products WHERE id = ?";
+    private static final String CREATE_IMPORT_TABLE =
+            "CREATE TEMPORARY TABLE IF NOT EXISTS products_import (LIKE products INCLUDING DEFAULTS) ON COMMIT DELETE ROWS";
+    private static final String COPY_INTO_IMPORT_TABLE =
+            "COPY products_import (id, title, details) FROM STDIN WITH (FORMAT csv)";
+    private static final String UPSERT_FROM_IMPORT_TABLE = """
+            INSERT INTO products (id, title, details)
+            SELECT id, title, details FROM products_import
+            ON CONFLICT (id) DO UPDATE
+            SET title = EXCLUDED.title, details = EXCLUDED.details, version = products.version + 1
+            RETURNING id, version""";
+    private static final String TRUNCATE_IMPORT_TABLE = "TRUNCATE products_import";
+    private static final String SELECT_PRODUCTS = "SELECT id, title, details, version FROM products ORDER BY id";
+    private static final String SELECT_PRODUCTS_AFTER_ID =
+            "SELECT id, title, details, version FROM products WHERE id > ? ORDER BY id";
+    private static final String SELECT_PRODUCT_BY_ID = "SELECT id, title, details, version FROM products WHERE id = ?";
+    private static final String SELECT_PRODUCTS_BY_IDS = "SELECT id, title, details, version FROM products WHERE id IN (";
+    private static final String SELECT_PRODUCTS_PAGE = "SELECT id, title, details, version FROM products ORDER BY id LIMIT ?";
+    private static final String SELECT_PRODUCTS_PAGE_AFTER_ID =
+            "SELECT id, title, details, version FROM products WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SEARCH_PRODUCTS = """
+            SELECT id, title, details, version FROM products
+            WHERE lower(title) LIKE ? ESCAPE '\\' OR lower(details) LIKE ? ESCAPE '\\'
+            ORDER BY id LIMIT ?""";
+    private static final String SELECT_SUGGESTIONS =
+            "SELECT id, title FROM products WHERE lower(title) LIKE ? ESCAPE '\\' ORDER BY title LIMIT ?";
+    private static final String EXISTS_PRODUCT = "SELECT count(*) FROM products WHERE id = ?";
+    private static final String COUNT_PRODUCTS = "SELECT count(*) FROM products";
+    private static final String SELECT_LAST_ID = "SELECT id FROM products ORDER BY id DESC LIMIT 1";
+    private static final String UPDATE_PRODUCT_WITH_VERSION =
+            "UPDATE products SET title = ?, details = ?, version = version + 1 WHERE id = ? AND version = ?";
+    // requested as generated keys, so the driver reads them back from the update itself (RETURNING on PostgreSQL)
+    private static final String[] VERSION_COLUMN = {"version"};
+    private static final String[] ID_AND_VERSION_COLUMNS = {"id", "version"};
+    private static final long INITIAL_VERSION = 0L;
+    private static final RowMapper<Product> PRODUCT_ROW_MAPPER = (resultSet, rowNumber) -> toProduct(resultSet);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductJdbcRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // the inserted rows start at the column default, which is set on the products as well
+    @Override
+    public void insertAll(List<Product> products) {
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, products, products.size(), (ps, product) -> {
+            ps.setObject(1, product.getId());
+            ps.setString(2, product.getTitle());
+            ps.setString(3, product.getDetails());
+        });
+        products.forEach(product -> product.setVersion(INITIAL_VERSION));
+    }
+
+    @Override
+    public void insertAllPreservingVersion(List<Product> products) {
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_WITH_VERSION, products, products.size(), (ps, product) -> {
+            ps.setObject(1, product.getId());
+            ps.setString(2, product.getTitle());
+            ps.setString(3, product.getDetails());
+            ps.setLong(4, product.getVersion());
+        });
+    }
+
+    @Override
+    public int[] updateAll(List<Product> products) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] updateCounts = jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(UPDATE_PRODUCT, ID_AND_VERSION_COLUMNS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Product product = products.get(i);
+                        ps.setString(1, product.getTitle());
+                        ps.setString(2, product.getDetails());
+                        ps.setObject(3, product.getId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return products.size();
+                    }
+                },
+                keyHolder
+        );
+        // the keys come in statement order and only for the rows that were found
+        Iterator<Map<String, Object>> keys = keyHolder.getKeyList().iterator();
+        Map<String, Object> next = keys.hasNext() ? keys.next() : null;
+        for (Product product : products) {
+            if (next != null && product.getId().equals(next.get("id"))) {
+                product.setVersion(((Number) next.get("version")).longValue());
+                next = keys.hasNext() ? keys.next() : null;
+            }
+        }
+        return updateCounts;
+    }
+
+    @Override
+    public int[] deleteAll(List<UUID> productIds) {
+        return flatten(jdbcTemplate.batchUpdate(DELETE_PRODUCT, productIds, productIds.size(),
+                (ps, productId) -> ps.setObject(1, productId)));
+    }
+
+    /**
+     * On PostgreSQL rows are sent with COPY into a temporary table and merged with one INSERT ... ON CONFLICT,
+     * other databases get a batched UPDATE followed by a batched INSERT of the rows it did not match.
+     */
+    @Override
+    public void upsertAll(List<Product> products) {
+        // ON CONFLICT cannot touch the same row twice in one statement, the last duplicate wins
+        Map<UUID, Product> uniqueProducts = new LinkedHashMap<>();
+        products.forEach(product -> uniqueProducts.put(product.getId(), product));
+        List<Product> rows = List.copyOf(uniqueProducts.values());
+
+        Boolean copied = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            copyUpsert(connection, uniqueProducts);
+            return true;
+        });
+        if (!Boolean.TRUE.equals(copied)) {
+            int[] updateCounts = updateAll(rows);
+            List<Product> newProducts = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (updateCounts[i] == 0) {
+                    newProducts.add(rows.get(i));
+                }
+            }
+            if (!newProducts.isEmpty()) {
+                insertAll(newProducts);
+            }
+        }
+        products.forEach(product -> product.setVersion(uniqueProducts.get(product.getId()).getVersion()));
+    }
+
+    @Override
+    public Optional<Product> findById(UUID id) {
+        return jdbcTemplate.query(SELECT_PRODUCT_BY_ID, PRODUCT_ROW_MAPPER, id).stream().findFirst();
+    }
+
+    @Override
+    public List<Product> findByIdIn(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = SELECT_PRODUCTS_BY_IDS + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        return jdbcTemplate.query(sql, PRODUCT_ROW_MAPPER, ids.toArray());
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        Long count = jdbcTemplate.queryForObject(EXISTS_PRODUCT, Long.class, id);
+        return count != null && count > 0;
+    }
+
+    @Override
+    public long count() {
+        Long count = jdbcTemplate.queryForObject(COUNT_PRODUCTS, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public Optional<UUID> findLastId() {
+        return jdbcTemplate.queryForList(SELECT_LAST_ID, UUID.class).stream().findFirst();
+    }
+
+    @Override
+    public List<Product> findOrderedById(UUID afterId, int limit) {
+        return afterId == null
+                ? jdbcTemplate.query(SELECT_PRODUCTS_PAGE, PRODUCT_ROW_MAPPER, limit)
+                : jdbcTemplate.query(SELECT_PRODUCTS_PAGE_AFTER_ID, PRODUCT_ROW_MAPPER, afterId, limit);
+    }
+
+    @Override
+    public List<Product> searchOrderedById(String term, int limit) {
+        String pattern = "%" + escapeLike(term.toLowerCase(Locale.ROOT)) + "%";
+        return jdbcTemplate.query(SEARCH_PRODUCTS, PRODUCT_ROW_MAPPER, pattern, pattern, limit);
+    }
+
+    @Override
+    public List<ProductSuggestion> findSuggestions(String prefix, int limit) {
+        return jdbcTemplate.query(
+                SELECT_SUGGESTIONS,
+                (resultSet, rowNumber) -> new ProductSuggestion(
+                        resultSet.getObject("id", UUID.class),
+                        resultSet.getString("title")
+                ),
+                escapeLike(prefix.toLowerCase(Locale.ROOT)) + "%",
+                limit
+        );
+    }
+
+    @Override
+    public Optional<Long> updateTitleAndDetailsById(UUID id, String title, String details) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int updated = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_PRODUCT, VERSION_COLUMN);
+            ps.setString(1, title);
+            ps.setString(2, details);
+            ps.setObject(3, id);
+            return ps;
+        }, keyHolder);
+        return updated == 0 ? Optional.empty() : Optional.of(keyHolder.getKey().longValue());
+    }
+
+    @Override
+    public int updateTitleAndDetailsByIdAndVersion(UUID id, long version, String title, String details) {
+        return jdbcTemplate.update(UPDATE_PRODUCT_WITH_VERSION, title, details, id, version);
+    }
+
+    @Override
+    public int deleteById(UUID id) {
+        return jdbcTemplate.update(DELETE_PRODUCT, id);
+    }
+
+    @Override
+    public void streamAllOrderedById(UUID afterId, int fetchSize, Consumer<Product> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    afterId == null ? SELECT_PRODUCTS : SELECT_PRODUCTS_AFTER_ID,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+            statement.setFetchSize(fetchSize);
+            if (afterId != null) {
+                statement.setObject(1, afterId);
+            }
+            return statement;
+        }, (RowCallbackHandler) resultSet -> consumer.accept(toProduct(resultSet)));
+    }
+
+    private static Product toProduct(ResultSet resultSet) throws SQLException {
+        Product product = new Product(resultSet.getString("title"), resultSet.getString("details"));
+        product.setId(resultSet.getObject("id", UUID.class));
+        product.setVersion(resultSet.getLong("version"));
+        return product;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void copyUpsert(Connection connection, Map<UUID, Product> products) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_IMPORT_TABLE);
+            StringBuilder csv = new StringBuilder(products.size() * 128);
+            for (Product product : products.values()) {
+                csv.append(product.getId()).append(',');
+                appendCsvField(csv, product.getTitle()).append(',');
+                appendCsvField(csv, product.getDetails()).append('\n');
+            }
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(COPY_INTO_IMPORT_TABLE, new StringReader(csv.toString()));
+            try (ResultSet upserted = statement.executeQuery(UPSERT_FROM_IMPORT_TABLE)) {
+                while (upserted.next()) {
+                    products.get(upserted.getObject("id", UUID.class)).setVersion(upserted.getLong("version"));
+                }
+            }
+            statement.execute(TRUNCATE_IMPORT_TABLE);
+        } catch (IOException e) {
+            throw new SQLException("COPY into products_import failed", e);
+        }
+    }
+
+    private static StringBuilder appendCsvField(StringBuilder csv, String value) {
+        return csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static int[] flatten(int[][] updateCounts) {
+        return updateCounts.length == 0 ? new int[0] : updateCounts[0];
+    }
+}
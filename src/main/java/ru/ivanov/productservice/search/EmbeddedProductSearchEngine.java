@@ -0,0 +1,45 @@
+package ru.ivanov.productservice.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.List;
+
+/**
+ * Search answered by the in-process {@link ProductSearchIndex}, no connection is borrowed from the pool.
+ * Until the index is loaded queries are passed to the fallback engine.
+ */
+public class EmbeddedProductSearchEngine implements ProductSearchEngine {
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductSearchEngine fallback;
+
+    public EmbeddedProductSearchEngine(ProductSearchIndex productSearchIndex, ProductSearchEngine fallback) {
+        this.productSearchIndex = productSearchIndex;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public Slice<Product> search(String query, Pageable pageable) {
+        if (!productSearchIndex.isReady()) {
+            return fallback.search(query, pageable);
+        }
+        List<Product> products = productSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize() + 1)
+                .stream()
+                .map(EmbeddedProductSearchEngine::toProduct)
+                .toList();
+
+        boolean hasNext = products.size() > pageable.getPageSize();
+        List<Product> content = hasNext ? products.subList(0, pageable.getPageSize()) : products;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private static Product toProduct(ProductDto productDto) {
+        Product product = new Product(productDto.title(), productDto.details());
+        product.setId(productDto.id());
+        product.setVersion(productDto.version());
+        return product;
+    }
+}
@@ -0,0 +1,265 @@
+package ru.ivanov.productservice.search;
+
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over product titles and details ranked with BM25, a title word counts as two detail words.
+ * A query word absent from the index is matched against indexed words within one or two edits,
+ * candidates are found through shared bigrams so the vocabulary is never scanned.
+ * Reads share a lock, writes take it exclusively.
+ */
+class InvertedIndex {
+    private static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double FUZZY_WEIGHT = 0.5;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MIN_TWO_EDITS_LENGTH = 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, ProductDto> documents = new HashMap<>();
+    private final Map<UUID, Integer> lengths = new HashMap<>();
+    private final Map<String, Map<UUID, Integer>> postings = new HashMap<>();
+    private final Map<String, Set<String>> termsByBigram = new HashMap<>();
+    private long totalLength;
+
+    public List<ProductDto> search(String query, long offset, int limit) {
+        List<String> queryTerms = tokenize(query);
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty() || queryTerms.isEmpty()) {
+                return List.of();
+            }
+            Map<UUID, Double> scores = new HashMap<>();
+            for (String queryTerm : new HashSet<>(queryTerms)) {
+                Map<UUID, Integer> exact = postings.get(queryTerm);
+                if (exact != null) {
+                    score(exact, 1, scores);
+                } else {
+                    for (String term : similarTerms(queryTerm)) {
+                        score(postings.get(term), FUZZY_WEIGHT, scores);
+                    }
+                }
+            }
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(ProductDto product) {
+        lock.writeLock().lock();
+        try {
+            unindex(documents.get(product.id()));
+            index(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            unindex(documents.remove(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ProductDto> documents() {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(documents.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void index(ProductDto product) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(product.title()).forEach(term -> frequencies.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(product.details()).forEach(term -> frequencies.merge(term, 1, Integer::sum));
+
+        int length = 0;
+        for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+            Map<UUID, Integer> posting = postings.computeIfAbsent(frequency.getKey(), this::newPosting);
+            posting.put(product.id(), frequency.getValue());
+            length += frequency.getValue();
+        }
+        documents.put(product.id(), product);
+        lengths.put(product.id(), length);
+        totalLength += length;
+    }
+
+    private void unindex(ProductDto product) {
+        if (product == null) {
+            return;
+        }
+        Set<String> terms = new HashSet<>(tokenize(product.title()));
+        terms.addAll(tokenize(product.details()));
+        for (String term : terms) {
+            Map<UUID, Integer> posting = postings.get(term);
+            posting.remove(product.id());
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String bigram : bigrams(term)) {
+                    Set<String> bigramTerms = termsByBigram.get(bigram);
+                    bigramTerms.remove(term);
+                    if (bigramTerms.isEmpty()) {
+                        termsByBigram.remove(bigram);
+                    }
+                }
+            }
+        }
+        totalLength -= lengths.remove(product.id());
+    }
+
+    private Map<UUID, Integer> newPosting(String term) {
+        for (String bigram : bigrams(term)) {
+            termsByBigram.computeIfAbsent(bigram, key -> new HashSet<>()).add(term);
+        }
+        return new HashMap<>();
+    }
+
+    private void score(Map<UUID, Integer> posting, double weight, Map<UUID, Double> scores) {
+        int documentCount = lengths.size();
+        double averageLength = (double) totalLength / documentCount;
+        double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+        for (Map.Entry<UUID, Integer> entry : posting.entrySet()) {
+            int frequency = entry.getValue();
+            double norm = K1 * (1 - B + B * lengths.get(entry.getKey()) / averageLength);
+            scores.merge(entry.getKey(), weight * idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+        }
+    }
+
+    // an edit changes at most three padded bigrams, so a term within maxEdits shares all but 3 * maxEdits of them
+    private List<String> similarTerms(String queryTerm) {
+        if (queryTerm.length() < MIN_FUZZY_LENGTH) {
+            return List.of();
+        }
+        int maxEdits = queryTerm.length() < MIN_TWO_EDITS_LENGTH ? 1 : 2;
+        Set<String> queryBigrams = new HashSet<>(bigrams(queryTerm));
+        int minShared = Math.max(1, queryBigrams.size() - 3 * maxEdits);
+
+        Map<String, Integer> shared = new HashMap<>();
+        for (String bigram : queryBigrams) {
+            for (String term : termsByBigram.getOrDefault(bigram, Set.of())) {
+                if (Math.abs(term.length() - queryTerm.length()) <= maxEdits) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+        List<String> similar = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            if (candidate.getValue() >= minShared && editDistance(queryTerm, candidate.getKey()) <= maxEdits) {
+                similar.add(candidate.getKey());
+            }
+        }
+        return similar;
+    }
+
+    private List<ProductDto> topHits(Map<UUID, Double> scores, long offset, int limit) {
+        Comparator<Map.Entry<UUID, Double>> ranking = Map.Entry.<UUID, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        long wanted = offset + limit;
+        // the heap keeps the best offset + limit hits, its head is the worst of them
+        PriorityQueue<Map.Entry<UUID, Double>> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<UUID, Double> score : scores.entrySet()) {
+            best.add(score);
+            if (best.size() > wanted) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<UUID, Double>> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        return ranked.stream()
+                .skip(offset)
+                .map(entry -> documents.get(entry.getKey()))
+                .toList();
+    }
+
+    private static List<String> bigrams(String term) {
+        String padded = "^" + term + "$";
+        List<String> bigrams = new ArrayList<>(padded.length() - 1);
+        for (int i = 0; i < padded.length() - 1; i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    // optimal string alignment distance, a swap of two neighbouring letters is one edit
+    static int editDistance(String first, String second) {
+        int[][] distances = new int[first.length() + 1][second.length() + 1];
+        for (int i = 0; i <= first.length(); i++) {
+            distances[i][0] = i;
+        }
+        for (int j = 0; j <= second.length(); j++) {
+            distances[0][j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            for (int j = 1; j <= second.length(); j++) {
+                int cost = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(
+                        Math.min(distances[i - 1][j] + 1, distances[i][j - 1] + 1),
+                        distances[i - 1][j - 1] + cost
+                );
+                if (i > 1 && j > 1 && first.charAt(i - 1) == second.charAt(j - 2)
+                        && first.charAt(i - 2) == second.charAt(j - 1)) {
+                    distance = Math.min(distance, distances[i - 2][j - 2] + 1);
+                }
+                distances[i][j] = distance;
+            }
+        }
+        return distances[first.length()][second.length()];
+    }
+}
@@ -0,0 +1,30 @@
+package ru.ivanov.productservice.search;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductRepository;
+
+/**
+ * Degraded search for databases without full-text support: substring match on title or details,
+ * ordered by id instead of relevance.
+ */
+public class LikeProductSearchEngine implements ProductSearchEngine {
+    private final ProductRepository productRepository;
+
+    public LikeProductSearchEngine(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public Slice<Product> search(String query, Pageable pageable) {
+        String term = query.trim();
+        return productRepository.findByTitleContainingIgnoreCaseOrDetailsContainingIgnoreCase(
+                term,
+                term,
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("id"))
+        );
+    }
+}
@@ -0,0 +1,56 @@
+package ru.ivanov.productservice.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over the generated {@code search_vector} column, titles weigh more than details.
+ * Only one row past the page is read to tell if a next page exists, matches are never counted.
+ * <p>
+ * Ranking needs the vector of every row it orders, so only the first {@code maxRankedCandidates}
+ * matches the GIN index yields are ranked. A query matching more rows is ranked within that
+ * arbitrary subset and its other matches are never returned, such queries need narrowing, not deeper pages.
+ */
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+    private static final String SEARCH_PRODUCTS = """
+            WITH candidates AS MATERIALIZED (
+                SELECT id, title, details, version, ts_rank_cd(search_vector, query) AS rank
+                FROM products, websearch_to_tsquery('english', ?) query
+                WHERE search_vector @@ query
+                LIMIT ?
+            )
+            SELECT id, title, details, version FROM candidates
+            ORDER BY rank DESC, id
+            LIMIT ? OFFSET ?""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxRankedCandidates;
+
+    public PostgresProductSearchEngine(JdbcTemplate jdbcTemplate, int maxRankedCandidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxRankedCandidates = maxRankedCandidates;
+    }
+
+    // read-only like the derived queries of the like engine, so the search goes to a replica when there is one
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Product> search(String query, Pageable pageable) {
+        List<Product> products = jdbcTemplate.query(SEARCH_PRODUCTS, (resultSet, rowNumber) -> {
+            Product product = new Product(resultSet.getString("title"), resultSet.getString("details"));
+            product.setId(resultSet.getObject("id", UUID.class));
+            product.setVersion(resultSet.getLong("version"));
+            return product;
+        }, query, maxRankedCandidates, pageable.getPageSize() + 1, pageable.getOffset());
+
+        boolean hasNext = products.size() > pageable.getPageSize();
+        List<Product> content = hasNext ? products.subList(0, pageable.getPageSize()) : products;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.ivanov.productservice.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.ivanov.productservice.model.entity.Product;
+
+public interface ProductSearchEngine {
+
+    Slice<Product> search(String query, Pageable pageable);
+}
@@ -0,0 +1,196 @@
+package ru.ivanov.productservice.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.datasource.ReadYourWrites;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-process search index used by the embedded search engine, kept current by product change events.
+ * With an index directory configured it is restored from disk on startup, the products table
+ * is only scanned when no snapshot exists yet.
+ * Products written by anything but this instance are never seen,
+ * so only use it while this instance is the single writer of the products table.
+ */
+@Component
+public class ProductSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int FETCH_SIZE = 1000;
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ProductSearchProperties properties;
+
+    private volatile InvertedIndex index;
+    private SearchIndexStore store;
+    // changes committed while loading, guarded by this
+    private List<ProductChangedEvent> pendingChanges;
+
+    public ProductSearchIndex(
+            ProductJdbcRepository productJdbcRepository,
+            PlatformTransactionManager transactionManager,
+            ProductSearchProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = properties;
+
+        Gauge.builder("product.search.index.documents", this, searchIndex -> searchIndex.size(InvertedIndex::size))
+                .register(meterRegistry);
+        Gauge.builder("product.search.index.terms", this, searchIndex -> searchIndex.size(InvertedIndex::termCount))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tells whether {@link #search} answers from a complete index.
+     */
+    public boolean isReady() {
+        return index != null;
+    }
+
+    public List<ProductDto> search(String query, long offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() throws IOException {
+        if (properties.engine() != SearchEngineType.EMBEDDED) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        if (properties.indexDirectory() != null) {
+            store = new SearchIndexStore(properties.indexDirectory());
+        }
+        InvertedIndex restored = store != null ? restore() : null;
+        InvertedIndex loaded = restored != null ? restored : new InvertedIndex();
+        boolean complete = false;
+        try {
+            if (restored == null) {
+                ReadYourWrites.runOnPrimary(() -> readOnlyTransaction.executeWithoutResult(status ->
+                        productJdbcRepository.streamAllOrderedById(
+                                null,
+                                FETCH_SIZE,
+                                product -> loaded.put(new ProductDto(
+                                        product.getId(),
+                                        product.getTitle(),
+                                        product.getDetails(),
+                                        product.getVersion()
+                                ))
+                        )
+                ));
+            }
+            complete = true;
+        } finally {
+            synchronized (this) {
+                if (complete) {
+                    // the scan or the snapshot may predate these changes, replaying them in commit order wins
+                    pendingChanges.forEach(change -> apply(loaded, change));
+                    index = loaded;
+                }
+                pendingChanges = null;
+            }
+        }
+        log.info("Product search index {} {} products in {} ms",
+                restored != null ? "restored" : "built", loaded.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        snapshot();
+    }
+
+    /**
+     * Writes the whole index to the index directory and drops the journal it covers,
+     * this keeps the journal replayed on the next startup short.
+     */
+    @Scheduled(
+            initialDelayString = "${product.search.snapshot-interval:PT5M}",
+            fixedDelayString = "${product.search.snapshot-interval:PT5M}"
+    )
+    public void snapshot() {
+        InvertedIndex current = index;
+        if (store == null || current == null) {
+            return;
+        }
+        try {
+            List<ProductDto> documents;
+            synchronized (this) {
+                store.rotateJournal();
+                documents = current.documents();
+            }
+            store.writeSnapshot(documents);
+        } catch (IOException e) {
+            log.warn("Failed to write product search index snapshot, the journal is kept", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        snapshot();
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @TransactionalEventListener
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (pendingChanges != null) {
+            pendingChanges.add(event);
+        } else if (index != null) {
+            apply(index, event);
+        }
+    }
+
+    // null when there is no usable snapshot
+    private InvertedIndex restore() {
+        InvertedIndex restored = new InvertedIndex();
+        try {
+            return store.load(restored::put, restored::remove) ? restored : null;
+        } catch (IOException e) {
+            log.warn("Failed to restore product search index, rebuilding it from the database", e);
+            return null;
+        }
+    }
+
+    private void apply(InvertedIndex target, ProductChangedEvent event) {
+        try {
+            if (event.changeType() == ProductChangedEvent.ChangeType.DELETED) {
+                target.remove(event.productId());
+                if (store != null) {
+                    store.appendRemove(event.productId());
+                }
+            } else {
+                target.put(event.product());
+                if (store != null) {
+                    store.appendPut(event.product());
+                }
+            }
+        } catch (IOException e) {
+            // the in-memory index is already current, only a restart before the next snapshot loses the change
+            log.warn("Failed to journal product search index change for product {}", event.productId(), e);
+        }
+    }
+
+    private double size(ToIntFunction<InvertedIndex> metric) {
+        InvertedIndex current = index;
+        return current == null ? 0 : metric.applyAsInt(current);
+    }
+}
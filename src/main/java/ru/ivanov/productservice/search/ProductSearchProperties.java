@@ -0,0 +1,18 @@
+package ru.ivanov.productservice.search;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "product.search")
+public record ProductSearchProperties(
+        @DefaultValue("auto") SearchEngineType engine,
+        // embedded engine only, without a directory the index is rebuilt from the database on every start
+        Path indexDirectory,
+        @DefaultValue("PT5M") Duration snapshotInterval,
+        // postgres engine only, the matches ranked for a query, a larger page window finds no more results
+        @DefaultValue("1000") int maxRankedCandidates
+) {
+}
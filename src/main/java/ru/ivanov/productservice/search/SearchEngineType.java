@@ -0,0 +1,10 @@
+package ru.ivanov.productservice.search;
+
+public enum SearchEngineType {
+    // postgres on PostgreSQL, like on any other database
+    AUTO,
+    POSTGRES,
+    LIKE,
+    // in-process inverted index, never picked by auto
+    EMBEDDED
+}
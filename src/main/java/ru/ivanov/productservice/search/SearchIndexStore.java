@@ -0,0 +1,211 @@
+package ru.ivanov.productservice.search;
+
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps the embedded search index in a local directory as a snapshot of every indexed product
+ * plus a journal of changes made since, so a restart replays both instead of scanning the products table.
+ * Journal writes are flushed but not synced, a crash may lose the last changes, never the snapshot.
+ */
+class SearchIndexStore implements Closeable {
+    private static final int FORMAT_VERSION = 2;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int NULL_STRING = -1;
+    private static final long NULL_VERSION = -1;
+
+    private final Path snapshot;
+    private final Path journal;
+    private final Path rotatedJournal;
+    private DataOutputStream journalOutput;
+
+    SearchIndexStore(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshot = directory.resolve("products.snapshot");
+        this.journal = directory.resolve("products.journal");
+        this.rotatedJournal = directory.resolve("products.journal.old");
+    }
+
+    /**
+     * Replays the snapshot and the journals into the given consumers.
+     *
+     * @return false if there is no snapshot and the index has to be built from the database
+     */
+    synchronized boolean load(Consumer<ProductDto> put, Consumer<UUID> remove) throws IOException {
+        if (!Files.exists(snapshot)) {
+            return false;
+        }
+        try (DataInputStream input = open(snapshot)) {
+            if (input.readInt() != FORMAT_VERSION) {
+                return false;
+            }
+            int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                put.accept(readProduct(input));
+            }
+        }
+        replay(rotatedJournal, put, remove);
+        replay(journal, put, remove);
+        return true;
+    }
+
+    synchronized void appendPut(ProductDto product) throws IOException {
+        DataOutputStream output = journalOutput();
+        output.writeByte(PUT);
+        writeProduct(output, product);
+        output.flush();
+    }
+
+    synchronized void appendRemove(UUID id) throws IOException {
+        DataOutputStream output = journalOutput();
+        output.writeByte(REMOVE);
+        writeId(output, id);
+        output.flush();
+    }
+
+    /**
+     * Moves the current journal aside, the caller must take the snapshot content before any further append.
+     * The moved journal is only dropped by {@link #writeSnapshot} once the snapshot is in place.
+     */
+    synchronized void rotateJournal() throws IOException {
+        closeJournal();
+        if (Files.exists(journal)) {
+            if (Files.exists(rotatedJournal)) {
+                // a previous snapshot failed, keep its changes in front of the newer ones
+                appendTo(rotatedJournal, journal);
+                Files.delete(journal);
+            } else {
+                Files.move(journal, rotatedJournal);
+            }
+        }
+    }
+
+    void writeSnapshot(Collection<ProductDto> products) throws IOException {
+        Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(products.size());
+            for (ProductDto product : products) {
+                writeProduct(output, product);
+            }
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        synchronized (this) {
+            Files.deleteIfExists(rotatedJournal);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeJournal();
+    }
+
+    private DataOutputStream journalOutput() throws IOException {
+        if (journalOutput == null) {
+            journalOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(
+                    journal, StandardOpenOption.CREATE, StandardOpenOption.APPEND
+            )));
+        }
+        return journalOutput;
+    }
+
+    private void closeJournal() throws IOException {
+        if (journalOutput != null) {
+            journalOutput.close();
+            journalOutput = null;
+        }
+    }
+
+    // a record cut short by a crash ends the replay
+    private static void replay(Path file, Consumer<ProductDto> put, Consumer<UUID> remove) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (DataInputStream input = open(file)) {
+            while (true) {
+                int operation = input.read();
+                if (operation == -1) {
+                    return;
+                }
+                if (operation == PUT) {
+                    put.accept(readProduct(input));
+                } else {
+                    remove.accept(readId(input));
+                }
+            }
+        } catch (EOFException e) {
+            // torn tail of the journal
+        }
+    }
+
+    private static void appendTo(Path target, Path source) throws IOException {
+        try (var output = Files.newOutputStream(target, StandardOpenOption.APPEND)) {
+            Files.copy(source, output);
+        }
+    }
+
+    private static DataInputStream open(Path file) throws IOException {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    }
+
+    private static void writeProduct(DataOutputStream output, ProductDto product) throws IOException {
+        writeId(output, product.id());
+        writeString(output, product.title());
+        writeString(output, product.details());
+        output.writeLong(product.version() == null ? NULL_VERSION : product.version());
+    }
+
+    private static ProductDto readProduct(DataInputStream input) throws IOException {
+        UUID id = readId(input);
+        String title = readString(input);
+        String details = readString(input);
+        long version = input.readLong();
+        return new ProductDto(id, title, details, version == NULL_VERSION ? null : version);
+    }
+
+    private static void writeId(DataOutputStream output, UUID id) throws IOException {
+        output.writeLong(id.getMostSignificantBits());
+        output.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readId(DataInputStream input) throws IOException {
+        return new UUID(input.readLong(), input.readLong());
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
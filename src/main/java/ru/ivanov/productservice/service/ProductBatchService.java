@@ -0,0 +1,9 @@
+package ru.ivanov.productservice.service;
+
+import ru.ivanov.productservice.model.dto.request.BatchProductRequest;
+import ru.ivanov.productservice.model.dto.response.BatchProductResponse;
+
+public interface ProductBatchService {
+
+    BatchProductResponse executeBatch(BatchProductRequest request);
+}
@@ -0,0 +1,12 @@
+package ru.ivanov.productservice.service;
+
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+
+public interface ProductExportService {
+
+    void exportProducts(ProductFileFormat format, UUID afterId, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,12 @@
+package ru.ivanov.productservice.service;
+
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.dto.response.ProductImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    ProductImportResponse importProducts(ProductFileFormat format, InputStream inputStream) throws IOException;
+}
@@ -1,11 +1,15 @@
 package ru.ivanov.productservice.service;
 
-import org.springframework.data.domain.Pageable;
 import ru.ivanov.productservice.model.dto.ProductDto;
 import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
 import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
 import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.ProductLookupResponse;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ProductService {
@@ -14,9 +18,21 @@ public interface ProductService {
 
     PagedResponse<ProductDto> getAllProductsPaginated(int pageNumber, int pageSize);
 
+    SlicedResponse<ProductDto> getProductsSlice(int pageNumber, int pageSize);
+
+    CursorPagedResponse<ProductDto> getProductsAfterCursor(String cursor, int pageSize);
+
+    SlicedResponse<ProductDto> searchProducts(String query, int pageNumber, int pageSize);
+
+    List<ProductSuggestion> suggestProducts(String prefix, int limit);
+
     ProductDto getProductById(UUID productId);
 
+    ProductLookupResponse getProductsByIds(List<UUID> productIds);
+
     void updateProduct(UUID productId, UpdateProductRequest request);
 
+    void updateProduct(UUID productId, long expectedVersion, UpdateProductRequest request);
+
     void deleteProduct(UUID productId);
 }
\ No newline at end of file
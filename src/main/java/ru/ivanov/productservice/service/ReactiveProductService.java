@@ -0,0 +1,34 @@
+package ru.ivanov.productservice.service;
+
+import reactor.core.publisher.Mono;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
+import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link ProductService} for the reactive stack, failures are signalled
+ * with the same exceptions.
+ */
+public interface ReactiveProductService {
+
+    Mono<ProductDto> createProduct(CreateProductRequest request);
+
+    Mono<PagedResponse<ProductDto>> getAllProductsPaginated(int pageNumber, int pageSize);
+
+    Mono<SlicedResponse<ProductDto>> getProductsSlice(int pageNumber, int pageSize);
+
+    Mono<CursorPagedResponse<ProductDto>> getProductsAfterCursor(String cursor, int pageSize);
+
+    Mono<ProductDto> getProductById(UUID productId);
+
+    Mono<Void> updateProduct(UUID productId, UpdateProductRequest request);
+
+    Mono<Void> updateProduct(UUID productId, long expectedVersion, UpdateProductRequest request);
+
+    Mono<Void> deleteProduct(UUID productId);
+}
@@ -0,0 +1,10 @@
+package ru.ivanov.productservice.service.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product.batch")
+public record ProductBatchProperties(
+        @DefaultValue("500") int chunkSize
+) {
+}
@@ -0,0 +1,200 @@
+package ru.ivanov.productservice.service.impl;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.request.BatchOperationRequest;
+import ru.ivanov.productservice.model.dto.request.BatchOperationType;
+import ru.ivanov.productservice.model.dto.request.BatchProductRequest;
+import ru.ivanov.productservice.model.dto.response.BatchItemResult;
+import ru.ivanov.productservice.model.dto.response.BatchProductResponse;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.ProductBatchService;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.springframework.http.HttpStatus.*;
+import static ru.ivanov.productservice.util.MessageUtils.ID_MUST_NOT_BE_NULL;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID_TEMPLATE;
+
+/**
+ * Executes operations in request order. Consecutive operations of the same type are sent
+ * to the database as one JDBC batch of at most {@code product.batch.chunk-size} statements.
+ */
+@Service
+public class ProductBatchServiceImpl implements ProductBatchService {
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductMapper productMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdGenerator productIdGenerator;
+    private final int chunkSize;
+
+    public ProductBatchServiceImpl(
+            ProductJdbcRepository productJdbcRepository,
+            ProductMapper productMapper,
+            Validator validator,
+            ApplicationEventPublisher eventPublisher,
+            ProductIdGenerator productIdGenerator,
+            ProductBatchProperties properties
+    ) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productMapper = productMapper;
+        this.validator = validator;
+        this.eventPublisher = eventPublisher;
+        this.productIdGenerator = productIdGenerator;
+        this.chunkSize = Math.max(1, properties.chunkSize());
+    }
+
+    @Override
+    @Transactional
+    public BatchProductResponse executeBatch(BatchProductRequest request) {
+        List<BatchOperationRequest> operations = request.operations();
+        BatchItemResult[] results = new BatchItemResult[operations.size()];
+
+        int start = 0;
+        while (start < operations.size()) {
+            BatchOperationType type = operations.get(start).operation();
+            int end = start + 1;
+            while (end < operations.size() && end - start < chunkSize && operations.get(end).operation() == type) {
+                end++;
+            }
+            switch (type) {
+                case CREATE -> createChunk(operations, start, end, results);
+                case UPDATE -> updateChunk(operations, start, end, results);
+                case DELETE -> deleteChunk(operations, start, end, results);
+            }
+            start = end;
+        }
+        return BatchProductResponse.fromResults(Arrays.asList(results));
+    }
+
+    private void createChunk(List<BatchOperationRequest> operations, int start, int end, BatchItemResult[] results) {
+        List<Product> products = new ArrayList<>(end - start);
+        List<Integer> indexes = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            BatchOperationRequest operation = operations.get(i);
+            String violations = validate(operation.toCreateProductRequest());
+            if (violations != null) {
+                results[i] = failure(i, operation, null, BAD_REQUEST.value(), violations);
+                continue;
+            }
+            Product product = new Product(operation.title(), operation.details());
+            product.setId(productIdGenerator.nextId());
+            products.add(product);
+            indexes.add(i);
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        productJdbcRepository.insertAll(products);
+        for (int j = 0; j < products.size(); j++) {
+            Product product = products.get(j);
+            int index = indexes.get(j);
+            results[index] = success(index, BatchOperationType.CREATE, product.getId(), CREATED.value());
+            eventPublisher.publishEvent(ProductChangedEvent.created(productMapper.toDto(product)));
+        }
+    }
+
+    private void updateChunk(List<BatchOperationRequest> operations, int start, int end, BatchItemResult[] results) {
+        List<Product> products = new ArrayList<>(end - start);
+        List<Integer> indexes = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            BatchOperationRequest operation = operations.get(i);
+            String violations = operation.id() == null
+                    ? "Validation failed: [%s]".formatted(ID_MUST_NOT_BE_NULL)
+                    : validate(operation.toUpdateProductRequest());
+            if (violations != null) {
+                results[i] = failure(i, operation, operation.id(), BAD_REQUEST.value(), violations);
+                continue;
+            }
+            Product product = new Product(operation.title(), operation.details());
+            product.setId(operation.id());
+            products.add(product);
+            indexes.add(i);
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        int[] updateCounts = productJdbcRepository.updateAll(products);
+        for (int j = 0; j < products.size(); j++) {
+            Product product = products.get(j);
+            int index = indexes.get(j);
+            if (updateCounts[j] == 0) {
+                results[index] = notFound(index, operations.get(index));
+                continue;
+            }
+            results[index] = success(index, BatchOperationType.UPDATE, product.getId(), NO_CONTENT.value());
+            eventPublisher.publishEvent(ProductChangedEvent.updated(productMapper.toDto(product)));
+        }
+    }
+
+    private void deleteChunk(List<BatchOperationRequest> operations, int start, int end, BatchItemResult[] results) {
+        List<UUID> productIds = new ArrayList<>(end - start);
+        List<Integer> indexes = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            BatchOperationRequest operation = operations.get(i);
+            if (operation.id() == null) {
+                results[i] = failure(i, operation, null, BAD_REQUEST.value(),
+                        "Validation failed: [%s]".formatted(ID_MUST_NOT_BE_NULL));
+                continue;
+            }
+            productIds.add(operation.id());
+            indexes.add(i);
+        }
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        int[] updateCounts = productJdbcRepository.deleteAll(productIds);
+        for (int j = 0; j < productIds.size(); j++) {
+            UUID productId = productIds.get(j);
+            int index = indexes.get(j);
+            if (updateCounts[j] == 0) {
+                results[index] = notFound(index, operations.get(index));
+                continue;
+            }
+            results[index] = success(index, BatchOperationType.DELETE, productId, NO_CONTENT.value());
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
+        }
+    }
+
+    private String validate(Object request) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        List<String> errors = violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+        return "Validation failed: " + errors;
+    }
+
+    private static BatchItemResult success(int index, BatchOperationType operation, UUID productId, int statusCode) {
+        return new BatchItemResult(index, operation, productId, statusCode, null);
+    }
+
+    private static BatchItemResult notFound(int index, BatchOperationRequest operation) {
+        return failure(index, operation, operation.id(), NOT_FOUND.value(),
+                PRODUCT_NOT_FOUND_WITH_ID_TEMPLATE.format(operation.id()));
+    }
+
+    private static BatchItemResult failure(
+            int index, BatchOperationRequest operation, UUID productId, int statusCode, String message
+    ) {
+        return new BatchItemResult(index, operation.operation(), productId, statusCode, message);
+    }
+}
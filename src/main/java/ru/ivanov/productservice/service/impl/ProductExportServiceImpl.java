@@ -0,0 +1,102 @@
+package ru.ivanov.productservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.ProductExportService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes products ordered by id straight from the JDBC result set to the response, so memory
+ * stays flat regardless of the catalog size. The read-only transaction keeps autocommit off,
+ * which PostgreSQL needs to fetch rows through a server-side cursor.
+ */
+@Service
+public class ProductExportServiceImpl implements ProductExportService {
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,title,details\n";
+
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductMapper productMapper;
+    private final ObjectWriter objectWriter;
+    private final int fetchSize;
+
+    public ProductExportServiceImpl(
+            ProductJdbcRepository productJdbcRepository,
+            ProductMapper productMapper,
+            ObjectMapper objectMapper,
+            ProductExportProperties properties
+    ) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productMapper = productMapper;
+        this.objectWriter = objectMapper.writer();
+        this.fetchSize = properties.fetchSize();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(ProductFileFormat format, UUID afterId, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, UTF_8), WRITE_BUFFER_SIZE);
+        if (format == ProductFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        try {
+            productJdbcRepository.streamAllOrderedById(afterId, fetchSize, product -> {
+                try {
+                    writeProduct(format, product, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeProduct(ProductFileFormat format, Product product, Writer writer) throws IOException {
+        switch (format) {
+            case NDJSON -> {
+                writer.write(objectWriter.writeValueAsString(productMapper.toDto(product)));
+                writer.write('\n');
+            }
+            case CSV -> {
+                writer.write(product.getId().toString());
+                writer.write(',');
+                writeCsvField(product.getTitle(), writer);
+                writer.write(',');
+                writeCsvField(product.getDetails(), writer);
+                writer.write('\n');
+            }
+        }
+    }
+
+    // RFC 4180: quote fields with separators, quotes or line breaks and double the quotes
+    private static void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quoted = value.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r');
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
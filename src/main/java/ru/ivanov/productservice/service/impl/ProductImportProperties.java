@@ -0,0 +1,11 @@
+package ru.ivanov.productservice.service.impl;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "product.import")
+public record ProductImportProperties(
+        @DefaultValue("5000") int chunkSize,
+        @DefaultValue("100") int maxReportedRejections
+) {
+}
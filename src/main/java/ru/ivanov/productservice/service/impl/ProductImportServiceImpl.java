@@ -0,0 +1,233 @@
+package ru.ivanov.productservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.dto.response.ProductImportResponse;
+import ru.ivanov.productservice.model.dto.response.RejectedRow;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.ProductImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static ru.ivanov.productservice.util.MessageUtils.INVALID_PRODUCT_ID;
+import static ru.ivanov.productservice.util.MessageUtils.MALFORMED_IMPORT_ROW;
+
+/**
+ * Reads the upload row by row and writes it in chunks of {@code product.import.chunk-size}, each
+ * chunk in its own transaction, so memory is bounded by one chunk whatever the upload size is.
+ * Rows without an id get a new one, rows with an existing id overwrite the product.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+    private final ProductJdbcRepository productJdbcRepository;
+    private final ProductMapper productMapper;
+    private final ProductCounter productCounter;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdGenerator productIdGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedRejections;
+
+    public ProductImportServiceImpl(
+            ProductJdbcRepository productJdbcRepository,
+            ProductMapper productMapper,
+            ProductCounter productCounter,
+            Validator validator,
+            ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher,
+            ProductIdGenerator productIdGenerator,
+            PlatformTransactionManager transactionManager,
+            ProductImportProperties properties
+    ) {
+        this.productJdbcRepository = productJdbcRepository;
+        this.productMapper = productMapper;
+        this.productCounter = productCounter;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.WRAP_AS_ARRAY, CsvParser.Feature.SKIP_EMPTY_LINES)
+                .build();
+        this.eventPublisher = eventPublisher;
+        this.productIdGenerator = productIdGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, properties.chunkSize());
+        this.maxReportedRejections = properties.maxReportedRejections();
+    }
+
+    @Override
+    public ProductImportResponse importProducts(ProductFileFormat format, InputStream inputStream) throws IOException {
+        long startedAt = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, UTF_8));
+        try {
+            switch (format) {
+                case NDJSON -> readNdjson(reader, progress);
+                case CSV -> readCsv(reader, progress);
+            }
+            flush(progress);
+        } finally {
+            if (progress.imported > 0) {
+                productCounter.resync();
+            }
+        }
+
+        long durationNanos = Math.max(1, System.nanoTime() - startedAt);
+        return new ProductImportResponse(
+                progress.imported,
+                progress.rejected,
+                progress.rejectedRows,
+                durationNanos / 1_000_000,
+                Math.round(progress.imported * 1e10 / durationNanos) / 10.0
+        );
+    }
+
+    private void readNdjson(BufferedReader lines, ImportProgress progress) throws IOException {
+        long rowNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            JsonNode row;
+            try {
+                row = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                progress.reject(rowNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!row.isObject()) {
+                progress.reject(rowNumber, "Invalid JSON: row must be an object");
+                continue;
+            }
+            accept(rowNumber, textOf(row, "id"), textOf(row, "title"), textOf(row, "details"), progress);
+        }
+    }
+
+    private void readCsv(Reader reader, ImportProgress progress) throws IOException {
+        try (MappingIterator<String[]> rows = csvMapper.readerFor(String[].class).readValues(reader)) {
+            if (!rows.hasNext()) {
+                return;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            String[] header = rows.next();
+            for (int i = 0; i < header.length; i++) {
+                columns.put(header[i].trim().toLowerCase(), i);
+            }
+
+            long rowNumber = 0;
+            while (true) {
+                String[] row;
+                try {
+                    if (!rows.hasNext()) {
+                        return;
+                    }
+                    row = rows.next();
+                } catch (RuntimeJsonMappingException e) {
+                    progress.reject(rowNumber + 1, MALFORMED_IMPORT_ROW.formatted(e.getMessage()));
+                    return;
+                }
+                rowNumber++;
+                accept(rowNumber, column(row, columns, "id"), column(row, columns, "title"),
+                        column(row, columns, "details"), progress);
+            }
+        }
+    }
+
+    private void accept(long rowNumber, String id, String title, String details, ImportProgress progress) {
+        UUID productId;
+        try {
+            productId = id == null || id.isBlank() ? productIdGenerator.nextId() : UUID.fromString(id.trim());
+        } catch (IllegalArgumentException e) {
+            progress.reject(rowNumber, INVALID_PRODUCT_ID.formatted(id));
+            return;
+        }
+        Set<ConstraintViolation<CreateProductRequest>> violations =
+                validator.validate(new CreateProductRequest(title, details));
+        if (!violations.isEmpty()) {
+            List<String> errors = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .toList();
+            progress.reject(rowNumber, "Validation failed: " + errors);
+            return;
+        }
+
+        Product product = new Product(title, details);
+        product.setId(productId);
+        progress.chunk.add(product);
+        if (progress.chunk.size() >= chunkSize) {
+            flush(progress);
+        }
+    }
+
+    private void flush(ImportProgress progress) {
+        if (progress.chunk.isEmpty()) {
+            return;
+        }
+        List<Product> chunk = progress.chunk;
+        progress.chunk = new ArrayList<>(chunkSize);
+        transactionTemplate.executeWithoutResult(status -> {
+            productJdbcRepository.upsertAll(chunk);
+            chunk.forEach(product ->
+                    eventPublisher.publishEvent(ProductChangedEvent.imported(productMapper.toDto(product))));
+        });
+        progress.imported += chunk.size();
+    }
+
+    private static String textOf(JsonNode row, String field) {
+        JsonNode value = row.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String column(String[] row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= row.length ? null : row[index];
+    }
+
+    private class ImportProgress {
+        private List<Product> chunk = new ArrayList<>(chunkSize);
+        private final List<RejectedRow> rejectedRows = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private void reject(long rowNumber, String message) {
+            rejected++;
+            if (rejectedRows.size() < maxReportedRejections) {
+                rejectedRows.add(new RejectedRow(rowNumber, message));
+            }
+        }
+    }
+}
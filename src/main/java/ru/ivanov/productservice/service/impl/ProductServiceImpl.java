@@ -1,31 +1,95 @@
 package ru.ivanov.productservice.service.impl;
 
-import org.springframework.data.domain.Page;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.ivanov.productservice.cache.ProductCache;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
 import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.index.ProductIdFilter;
+import ru.ivanov.productservice.index.ProductTitleIndex;
 import ru.ivanov.productservice.mapper.ProductMapper;
 import ru.ivanov.productservice.model.dto.ProductDto;
 import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
 import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
 import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.ProductLookupResponse;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
 import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
 import ru.ivanov.productservice.repository.ProductRepository;
+import ru.ivanov.productservice.search.ProductSearchEngine;
 import ru.ivanov.productservice.service.ProductService;
+import ru.ivanov.productservice.util.CursorUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
-import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+import static ru.ivanov.productservice.util.CursorUtils.MAX_CURSOR_PAGE_SIZE;
+import static ru.ivanov.productservice.util.MessageUtils.PAGE_SIZE_OUT_OF_RANGE;
+import static ru.ivanov.productservice.util.MessageUtils.SEARCH_QUERY_MUST_NOT_BE_BLANK;
+import static ru.ivanov.productservice.util.MessageUtils.SUGGEST_LIMIT_OUT_OF_RANGE;
+import static ru.ivanov.productservice.util.MessageUtils.SUGGEST_PREFIX_MUST_NOT_BE_BLANK;
+import static ru.ivanov.productservice.util.MessageUtils.TOO_MANY_IDS;
 
 @Service
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class ProductServiceImpl implements ProductService {
+    public static final int MAX_LOOKUP_IDS = 1000;
+    public static final int MAX_SEARCH_PAGE_SIZE = 100;
+    public static final int MAX_SUGGEST_LIMIT = 50;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ProductJdbcRepository productJdbcRepository;
     private final ProductMapper productMapper;
+    private final ProductCounter productCounter;
+    private final ProductCache productCache;
+    private final ProductIdFilter productIdFilter;
+    private final ProductSearchEngine productSearchEngine;
+    private final ProductTitleIndex productTitleIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdGenerator productIdGenerator;
 
-    public ProductServiceImpl(ProductRepository productRepository, ProductMapper productMapper) {
+    public ProductServiceImpl(
+            ProductRepository productRepository,
+            ProductJdbcRepository productJdbcRepository,
+            ProductMapper productMapper,
+            ProductCounter productCounter,
+            ProductCache productCache,
+            ProductIdFilter productIdFilter,
+            ProductSearchEngine productSearchEngine,
+            ProductTitleIndex productTitleIndex,
+            ApplicationEventPublisher eventPublisher,
+            ProductIdGenerator productIdGenerator
+    ) {
         this.productRepository = productRepository;
+        this.productJdbcRepository = productJdbcRepository;
         this.productMapper = productMapper;
+        this.productCounter = productCounter;
+        this.productCache = productCache;
+        this.productIdFilter = productIdFilter;
+        this.productSearchEngine = productSearchEngine;
+        this.productTitleIndex = productTitleIndex;
+        this.eventPublisher = eventPublisher;
+        this.productIdGenerator = productIdGenerator;
     }
 
     @Override
@@ -35,45 +99,203 @@ public class ProductServiceImpl implements ProductService {
                 request.title(),
                 request.details()
         );
+        // assigned here, so the configured generator decides, the null version still makes it a persist
+        product.setId(productIdGenerator.nextId());
 
         Product savedProduct = productRepository.save(product);
-        return productMapper.toDto(savedProduct);
+        ProductDto productDto = productMapper.toDto(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(productDto));
+        return productDto;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PagedResponse<ProductDto> getAllProductsPaginated(int pageNumber, int pageSize) {
-        Page<Product> page = productRepository.findAll(PageRequest.of(pageNumber, pageSize));
-        return PagedResponse.fromPage(page.map(productMapper::toDto));
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+        Slice<ProductDto> slice = productRepository.findAllBy(pageable).map(productMapper::toDto);
+        return PagedResponse.fromPage(new PageImpl<>(slice.getContent(), pageable, totalElements(slice, productCounter.get())));
     }
 
     @Override
     @Transactional(readOnly = true)
+    public SlicedResponse<ProductDto> getProductsSlice(int pageNumber, int pageSize) {
+        Slice<Product> slice = productRepository.findAllBy(PageRequest.of(pageNumber, pageSize));
+        return SlicedResponse.fromSlice(slice.map(productMapper::toDto));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<ProductDto> getProductsAfterCursor(String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException(PAGE_SIZE_OUT_OF_RANGE.formatted(MAX_CURSOR_PAGE_SIZE));
+        }
+
+        // one extra row tells whether a next page exists without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<Product> products = cursor == null || cursor.isBlank()
+                ? productRepository.findAllByOrderByIdAsc(limit)
+                : productRepository.findByIdGreaterThanOrderByIdAsc(CursorUtils.decode(cursor), limit);
+
+        boolean hasNext = products.size() > pageSize;
+        List<ProductDto> content = products.stream()
+                .limit(pageSize)
+                .map(productMapper::toDto)
+                .toList();
+        String nextCursor = hasNext ? CursorUtils.encode(content.get(content.size() - 1).id()) : null;
+        return new CursorPagedResponse<>(pageSize, hasNext, nextCursor, content);
+    }
+
+    // not transactional on purpose: the embedded engine must not borrow a connection,
+    // the database engines run their query in its own read-only transaction
+    @Override
+    public SlicedResponse<ProductDto> searchProducts(String query, int pageNumber, int pageSize) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException(SEARCH_QUERY_MUST_NOT_BE_BLANK);
+        }
+        if (pageSize < 1 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestException(PAGE_SIZE_OUT_OF_RANGE.formatted(MAX_SEARCH_PAGE_SIZE));
+        }
+        Slice<Product> slice = productSearchEngine.search(query, PageRequest.of(pageNumber, pageSize));
+        return SlicedResponse.fromSlice(slice.map(productMapper::toDto));
+    }
+
+    // not transactional on purpose: the index answers without a connection,
+    // only a not yet loaded or disabled index falls back to a title prefix query
+    @Override
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException(SUGGEST_PREFIX_MUST_NOT_BE_BLANK);
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new BadRequestException(SUGGEST_LIMIT_OUT_OF_RANGE.formatted(MAX_SUGGEST_LIMIT));
+        }
+        if (productTitleIndex.isReady()) {
+            return productTitleIndex.suggest(prefix, limit);
+        }
+        return productRepository.findByTitleStartingWithIgnoreCaseOrderByTitleAsc(prefix.strip(), Limit.of(limit));
+    }
+
+    // not transactional on purpose: a cache hit must not open a transaction and borrow a connection,
+    // a miss is loaded through the repository's own read-only transaction
+    @Override
     public ProductDto getProductById(UUID productId) {
-        Product product = findById(productId);
-        return productMapper.toDto(product);
+        return productCache.get(productId, id -> productMapper.toDto(findById(id)));
+    }
+
+    @Override
+    public ProductLookupResponse getProductsByIds(List<UUID> productIds) {
+        if (productIds.size() > MAX_LOOKUP_IDS) {
+            throw new BadRequestException(TOO_MANY_IDS.formatted(MAX_LOOKUP_IDS));
+        }
+        Set<UUID> requestedIds = new LinkedHashSet<>(productIds);
+        Map<UUID, ProductDto> foundProducts = productCache.getAll(requestedIds, this::findAllByIds);
+
+        List<ProductDto> content = new ArrayList<>(foundProducts.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID productId : requestedIds) {
+            ProductDto product = foundProducts.get(productId);
+            if (product != null) {
+                content.add(product);
+            } else {
+                notFound.add(productId);
+            }
+        }
+        return new ProductLookupResponse(content, notFound);
     }
 
     @Override
     @Transactional
     public void updateProduct(UUID productId, UpdateProductRequest request) {
-        Product product = findById(productId);
-        product.setTitle(request.title());
-        product.setDetails(request.details());
-        productRepository.save(product);
+        requireMightExist(productId);
+        // the JDBC update reads the new version back in the same statement, JPQL updates only return a count
+        long version = productJdbcRepository.updateTitleAndDetailsById(productId, request.title(), request.details())
+                .orElseThrow(() -> notFound(productId));
+        eventPublisher.publishEvent(
+                ProductChangedEvent.updated(new ProductDto(productId, request.title(), request.details(), version))
+        );
+    }
+
+    // optimistic: the version check is part of the update statement, no row is locked in advance
+    @Override
+    @Transactional
+    public void updateProduct(UUID productId, long expectedVersion, UpdateProductRequest request) {
+        requireMightExist(productId);
+        int updated = productRepository.updateTitleAndDetailsByIdAndVersion(
+                productId,
+                expectedVersion,
+                request.title(),
+                request.details()
+        );
+        if (updated == 0) {
+            // only a failed update pays for telling a stale version from a missing product
+            if (!productRepository.existsById(productId)) {
+                throw notFound(productId);
+            }
+            throw PreconditionFailedException.productVersionMismatch(productId);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.updated(
+                new ProductDto(productId, request.title(), request.details(), expectedVersion + 1)
+        ));
     }
 
     @Override
     @Transactional
     public void deleteProduct(UUID productId) {
-        if (!productRepository.existsById(productId)) {
-            throw new ResourceNotFoundException(PRODUCT_NOT_FOUND_WITH_ID.formatted(productId));
+        requireMightExist(productId);
+        if (productRepository.deleteProductById(productId) == 0) {
+            throw notFound(productId);
         }
-        productRepository.deleteById(productId);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
+    }
+
+    // the slice itself tells the exact total once the last page is reached,
+    // otherwise the maintained counter is used instead of a count query
+    static long totalElements(Slice<?> slice, long countedElements) {
+        long seenElements = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || slice.isFirst())) {
+            return seenElements;
+        }
+        if (!slice.hasContent()) {
+            return Math.min(countedElements, slice.getPageable().getOffset());
+        }
+        return Math.max(countedElements, seenElements + 1);
+    }
+
+    // cache misses are loaded with bounded IN lists, ids absent from the result map are not cached
+    private Map<UUID, ProductDto> findAllByIds(Set<? extends UUID> productIds) {
+        List<UUID> candidateIds = productIds.stream()
+                .filter(productIdFilter::mightContain)
+                .map(UUID.class::cast)
+                .toList();
+
+        Map<UUID, ProductDto> foundProducts = new HashMap<>(candidateIds.size());
+        for (int from = 0; from < candidateIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = candidateIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, candidateIds.size()));
+            productRepository.findByIdIn(chunk)
+                    .forEach(product -> foundProducts.put(product.getId(), productMapper.toDto(product)));
+        }
+        int falsePositives = candidateIds.size() - foundProducts.size();
+        for (int i = 0; i < falsePositives; i++) {
+            productIdFilter.recordFalsePositive();
+        }
+        return foundProducts;
     }
 
     private Product findById(UUID productId) {
+        requireMightExist(productId);
         return productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException(PRODUCT_NOT_FOUND_WITH_ID.formatted(productId)));
+                .orElseThrow(() -> notFound(productId));
+    }
+
+    private void requireMightExist(UUID productId) {
+        if (!productIdFilter.mightContain(productId)) {
+            throw ResourceNotFoundException.product(productId);
+        }
+    }
+
+    // the id passed the filter but has no row
+    private ResourceNotFoundException notFound(UUID productId) {
+        productIdFilter.recordFalsePositive();
+        return ResourceNotFoundException.product(productId);
     }
 }
@@ -0,0 +1,133 @@
+package ru.ivanov.productservice.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
+import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
+import ru.ivanov.productservice.repository.ProductR2dbcRepository;
+import ru.ivanov.productservice.service.ReactiveProductService;
+import ru.ivanov.productservice.util.CursorUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type.REACTIVE;
+import static ru.ivanov.productservice.util.CursorUtils.MAX_CURSOR_PAGE_SIZE;
+import static ru.ivanov.productservice.util.MessageUtils.PAGE_SIZE_OUT_OF_RANGE;
+
+/**
+ * Reads and writes go straight to the database: the in-process cache, counter and id filter
+ * of the servlet stack are kept current by transactional events, which R2DBC statements never publish.
+ */
+@Service
+@ConditionalOnWebApplication(type = REACTIVE)
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+    private final ProductR2dbcRepository productR2dbcRepository;
+    private final ProductMapper productMapper;
+
+    public ReactiveProductServiceImpl(ProductR2dbcRepository productR2dbcRepository, ProductMapper productMapper) {
+        this.productR2dbcRepository = productR2dbcRepository;
+        this.productMapper = productMapper;
+    }
+
+    @Override
+    public Mono<ProductDto> createProduct(CreateProductRequest request) {
+        return productR2dbcRepository.insert(request.title(), request.details())
+                .map(productMapper::toDto);
+    }
+
+    // the page and the count are queried concurrently on two connections
+    @Override
+    public Mono<PagedResponse<ProductDto>> getAllProductsPaginated(int pageNumber, int pageSize) {
+        return Mono.fromCallable(() -> PageRequest.of(pageNumber, pageSize))
+                .flatMap(pageable -> Mono.zip(
+                        findPage(pageable, pageable.getPageSize()),
+                        productR2dbcRepository.count(),
+                        (content, total) -> PagedResponse.fromPage(new PageImpl<>(content, pageable, total))
+                ));
+    }
+
+    @Override
+    public Mono<SlicedResponse<ProductDto>> getProductsSlice(int pageNumber, int pageSize) {
+        return Mono.fromCallable(() -> PageRequest.of(pageNumber, pageSize))
+                // one extra row tells whether a next page exists without a count query
+                .flatMap(pageable -> findPage(pageable, pageable.getPageSize() + 1).map(products -> {
+                    boolean hasNext = products.size() > pageSize;
+                    List<ProductDto> content = hasNext ? products.subList(0, pageSize) : products;
+                    return SlicedResponse.fromSlice(new SliceImpl<>(content, pageable, hasNext));
+                }));
+    }
+
+    @Override
+    public Mono<CursorPagedResponse<ProductDto>> getProductsAfterCursor(String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_CURSOR_PAGE_SIZE) {
+            return Mono.error(new BadRequestException(PAGE_SIZE_OUT_OF_RANGE.formatted(MAX_CURSOR_PAGE_SIZE)));
+        }
+        return Mono.defer(() -> {
+                    UUID afterId = cursor == null || cursor.isBlank() ? null : CursorUtils.decode(cursor);
+                    return productR2dbcRepository.findAfterIdOrderedById(afterId, pageSize + 1)
+                            .map(productMapper::toDto)
+                            .collectList();
+                })
+                .map(products -> {
+                    boolean hasNext = products.size() > pageSize;
+                    List<ProductDto> content = hasNext ? products.subList(0, pageSize) : products;
+                    String nextCursor = hasNext ? CursorUtils.encode(content.get(content.size() - 1).id()) : null;
+                    return new CursorPagedResponse<>(pageSize, hasNext, nextCursor, content);
+                });
+    }
+
+    @Override
+    public Mono<ProductDto> getProductById(UUID productId) {
+        return productR2dbcRepository.findById(productId)
+                .map(productMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> notFound(productId)));
+    }
+
+    @Override
+    public Mono<Void> updateProduct(UUID productId, UpdateProductRequest request) {
+        return productR2dbcRepository.updateTitleAndDetailsById(productId, request.title(), request.details())
+                .flatMap(updated -> updated == 0 ? Mono.error(notFound(productId)) : Mono.empty());
+    }
+
+    // optimistic: the version check is part of the update statement, no row is locked in advance
+    @Override
+    public Mono<Void> updateProduct(UUID productId, long expectedVersion, UpdateProductRequest request) {
+        return productR2dbcRepository
+                .updateTitleAndDetailsByIdAndVersion(productId, expectedVersion, request.title(), request.details())
+                .flatMap(updated -> updated > 0 ? Mono.<Void>empty() : productR2dbcRepository.existsById(productId)
+                        // only a failed update pays for telling a stale version from a missing product
+                        .flatMap(exists -> Mono.error(exists
+                                ? PreconditionFailedException.productVersionMismatch(productId)
+                                : notFound(productId))));
+    }
+
+    @Override
+    public Mono<Void> deleteProduct(UUID productId) {
+        return productR2dbcRepository.deleteById(productId)
+                .flatMap(deleted -> deleted == 0 ? Mono.error(notFound(productId)) : Mono.empty());
+    }
+
+    private Mono<List<ProductDto>> findPage(Pageable pageable, int limit) {
+        return productR2dbcRepository.findAllOrderedById(pageable.getOffset(), limit)
+                .map(productMapper::toDto)
+                .collectList();
+    }
+
+    private static ResourceNotFoundException notFound(UUID productId) {
+        return ResourceNotFoundException.product(productId);
+    }
+}
@@ -0,0 +1,261 @@
+package ru.ivanov.productservice.service.impl;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import ru.ivanov.productservice.cache.ProductCache;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
+import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.ProductLookupResponse;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.service.ProductService;
+import ru.ivanov.productservice.shard.ShardedProductRepository;
+import ru.ivanov.productservice.util.CursorUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static ru.ivanov.productservice.service.impl.ProductServiceImpl.MAX_LOOKUP_IDS;
+import static ru.ivanov.productservice.service.impl.ProductServiceImpl.MAX_SEARCH_PAGE_SIZE;
+import static ru.ivanov.productservice.service.impl.ProductServiceImpl.MAX_SUGGEST_LIMIT;
+import static ru.ivanov.productservice.service.impl.ProductServiceImpl.totalElements;
+import static ru.ivanov.productservice.shard.ShardedProductRepository.MAX_OFFSET_WINDOW;
+import static ru.ivanov.productservice.util.CursorUtils.MAX_CURSOR_PAGE_SIZE;
+import static ru.ivanov.productservice.util.MessageUtils.PAGE_BEYOND_SHARDED_WINDOW;
+import static ru.ivanov.productservice.util.MessageUtils.PAGE_SIZE_OUT_OF_RANGE;
+import static ru.ivanov.productservice.util.MessageUtils.SEARCH_QUERY_MUST_NOT_BE_BLANK;
+import static ru.ivanov.productservice.util.MessageUtils.SUGGEST_LIMIT_OUT_OF_RANGE;
+import static ru.ivanov.productservice.util.MessageUtils.SUGGEST_PREFIX_MUST_NOT_BE_BLANK;
+import static ru.ivanov.productservice.util.MessageUtils.TOO_MANY_IDS;
+
+/**
+ * {@link ProductService} over {@link ShardedProductRepository}. Writes run in a transaction on the shard owning
+ * the product, change events are published inside it so the cache hears of them after that shard commits.
+ * The id filter, the title index and the search engine only know the application database and are not used,
+ * suggestions and search scatter a substring query over the shards instead.
+ */
+@Service
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "true")
+public class ShardedProductServiceImpl implements ProductService {
+    private final ShardedProductRepository productRepository;
+    private final ProductCounter productCounter;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductIdGenerator productIdGenerator;
+
+    public ShardedProductServiceImpl(
+            ShardedProductRepository productRepository,
+            ProductCounter productCounter,
+            ProductMapper productMapper,
+            ProductCache productCache,
+            ApplicationEventPublisher eventPublisher,
+            ProductIdGenerator productIdGenerator
+    ) {
+        this.productRepository = productRepository;
+        this.productCounter = productCounter;
+        this.productMapper = productMapper;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.productIdGenerator = productIdGenerator;
+    }
+
+    @Override
+    public ProductDto createProduct(CreateProductRequest request) {
+        Product product = new Product(request.title(), request.details());
+        product.setId(productIdGenerator.nextId());
+        product.setVersion(0L);
+        return productRepository.inTransaction(product.getId(), status -> {
+            productRepository.insert(product);
+            ProductDto productDto = productMapper.toDto(product);
+            eventPublisher.publishEvent(ProductChangedEvent.created(productDto));
+            return productDto;
+        });
+    }
+
+    // the total comes from the maintained counter, which sums the shards only when it re-synchronizes
+    @Override
+    public PagedResponse<ProductDto> getAllProductsPaginated(int pageNumber, int pageSize) {
+        Pageable pageable = offsetPage(pageNumber, pageSize, pageSize + 1);
+        Slice<ProductDto> slice = slice(productRepository.findOrderedById(pageable.getOffset(), pageSize + 1), pageable);
+        return PagedResponse.fromPage(
+                new PageImpl<>(slice.getContent(), pageable, totalElements(slice, productCounter.get()))
+        );
+    }
+
+    @Override
+    public SlicedResponse<ProductDto> getProductsSlice(int pageNumber, int pageSize) {
+        Pageable pageable = offsetPage(pageNumber, pageSize, pageSize + 1);
+        return toSlice(productRepository.findOrderedById(pageable.getOffset(), pageSize + 1), pageable);
+    }
+
+    @Override
+    public CursorPagedResponse<ProductDto> getProductsAfterCursor(String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException(PAGE_SIZE_OUT_OF_RANGE.formatted(MAX_CURSOR_PAGE_SIZE));
+        }
+
+        UUID afterId = cursor == null || cursor.isBlank() ? null : CursorUtils.decode(cursor);
+        List<Product> products = productRepository.findOrderedById(afterId, pageSize + 1);
+
+        boolean hasNext = products.size() > pageSize;
+        List<ProductDto> content = products.stream()
+                .limit(pageSize)
+                .map(productMapper::toDto)
+                .toList();
+        String nextCursor = hasNext ? CursorUtils.encode(content.get(content.size() - 1).id()) : null;
+        return new CursorPagedResponse<>(pageSize, hasNext, nextCursor, content);
+    }
+
+    @Override
+    public SlicedResponse<ProductDto> searchProducts(String query, int pageNumber, int pageSize) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException(SEARCH_QUERY_MUST_NOT_BE_BLANK);
+        }
+        if (pageSize < 1 || pageSize > MAX_SEARCH_PAGE_SIZE) {
+            throw new BadRequestException(PAGE_SIZE_OUT_OF_RANGE.formatted(MAX_SEARCH_PAGE_SIZE));
+        }
+        Pageable pageable = offsetPage(pageNumber, pageSize, pageSize + 1);
+        return toSlice(
+                productRepository.searchOrderedById(query.trim(), pageable.getOffset(), pageSize + 1),
+                pageable
+        );
+    }
+
+    @Override
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new BadRequestException(SUGGEST_PREFIX_MUST_NOT_BE_BLANK);
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_LIMIT) {
+            throw new BadRequestException(SUGGEST_LIMIT_OUT_OF_RANGE.formatted(MAX_SUGGEST_LIMIT));
+        }
+        return productRepository.findSuggestions(prefix.strip(), limit);
+    }
+
+    @Override
+    public ProductDto getProductById(UUID productId) {
+        return productCache.get(productId, id -> productMapper.toDto(
+                productRepository.findById(id).orElseThrow(() -> ResourceNotFoundException.product(id))
+        ));
+    }
+
+    @Override
+    public ProductLookupResponse getProductsByIds(List<UUID> productIds) {
+        if (productIds.size() > MAX_LOOKUP_IDS) {
+            throw new BadRequestException(TOO_MANY_IDS.formatted(MAX_LOOKUP_IDS));
+        }
+        Set<UUID> requestedIds = new LinkedHashSet<>(productIds);
+        Map<UUID, ProductDto> foundProducts = productCache.getAll(requestedIds, this::findAllByIds);
+
+        List<ProductDto> content = new ArrayList<>(foundProducts.size());
+        List<UUID> notFound = new ArrayList<>();
+        for (UUID productId : requestedIds) {
+            ProductDto product = foundProducts.get(productId);
+            if (product != null) {
+                content.add(product);
+            } else {
+                notFound.add(productId);
+            }
+        }
+        return new ProductLookupResponse(content, notFound);
+    }
+
+    @Override
+    public void updateProduct(UUID productId, UpdateProductRequest request) {
+        productRepository.inTransaction(productId, status -> {
+            long version = productRepository.updateTitleAndDetailsById(productId, request.title(), request.details())
+                    .orElseThrow(() -> ResourceNotFoundException.product(productId));
+            eventPublisher.publishEvent(
+                    ProductChangedEvent.updated(new ProductDto(productId, request.title(), request.details(), version))
+            );
+            return null;
+        });
+    }
+
+    @Override
+    public void updateProduct(UUID productId, long expectedVersion, UpdateProductRequest request) {
+        productRepository.inTransaction(productId, status -> {
+            int updated = productRepository.updateTitleAndDetailsByIdAndVersion(
+                    productId,
+                    expectedVersion,
+                    request.title(),
+                    request.details()
+            );
+            if (updated == 0) {
+                if (!productRepository.existsById(productId)) {
+                    throw ResourceNotFoundException.product(productId);
+                }
+                throw PreconditionFailedException.productVersionMismatch(productId);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.updated(
+                    new ProductDto(productId, request.title(), request.details(), expectedVersion + 1)
+            ));
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteProduct(UUID productId) {
+        productRepository.inTransaction(productId, status -> {
+            if (productRepository.deleteById(productId) == 0) {
+                throw ResourceNotFoundException.product(productId);
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(productId));
+            return null;
+        });
+    }
+
+    // every shard returns offset + fetched rows for the merge, deep pages are refused instead of loading whole shards
+    private static Pageable offsetPage(int pageNumber, int pageSize, int fetched) {
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+        if (pageable.getOffset() + fetched > MAX_OFFSET_WINDOW) {
+            throw new BadRequestException(PAGE_BEYOND_SHARDED_WINDOW.formatted(MAX_OFFSET_WINDOW));
+        }
+        return pageable;
+    }
+
+    // one row past the page tells whether a next slice exists
+    private Slice<ProductDto> slice(List<Product> products, Pageable pageable) {
+        boolean hasNext = products.size() > pageable.getPageSize();
+        List<ProductDto> content = products.stream()
+                .limit(pageable.getPageSize())
+                .map(productMapper::toDto)
+                .toList();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    private SlicedResponse<ProductDto> toSlice(List<Product> products, Pageable pageable) {
+        return SlicedResponse.fromSlice(slice(products, pageable));
+    }
+
+    // ids absent from the result map are not cached, the repository asks each shard once for its part
+    private Map<UUID, ProductDto> findAllByIds(Set<? extends UUID> productIds) {
+        Map<UUID, ProductDto> foundProducts = new HashMap<>(productIds.size());
+        productRepository.findByIdIn(List.copyOf(productIds))
+                .forEach(product -> foundProducts.put(product.getId(), productMapper.toDto(product)));
+        return foundProducts;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.ivanov.productservice.shard;
+
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import javax.sql.DataSource;
+
+/**
+ * One shard: its own pool, a repository bound to it and a transaction template of its own transaction manager.
+ */
+public record ProductShard(
+        int index,
+        DataSource dataSource,
+        ProductJdbcRepository repository,
+        TransactionTemplate transaction
+) {
+}
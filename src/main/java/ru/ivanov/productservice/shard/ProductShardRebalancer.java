@@ -0,0 +1,107 @@
+package ru.ivanov.productservice.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.ivanov.productservice.model.entity.Product;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static ru.ivanov.productservice.shard.ShardedProductRepository.ID_ORDER;
+
+/**
+ * Moves every product stored on a shard other than the one its id hashes to, e.g. after nodes were appended.
+ * A product is copied before it is deleted from its old shard and a copy never overwrites a row already
+ * on the target, so an interrupted run loses nothing and the next run just finishes it. Requests for a product
+ * in flight are answered by its new shard only, run it before the instance takes traffic. Shards are scanned
+ * last first: jump hashing only moves products onto appended shards, which are then already scanned.
+ */
+public class ProductShardRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(ProductShardRebalancer.class);
+
+    private final ShardedProductRepository repository;
+    private final int chunkSize;
+
+    public ProductShardRebalancer(ShardedProductRepository repository, int chunkSize) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+    }
+
+    public Result rebalance() {
+        // each scan stops at the last id its shard held before anything moved, products moved in are not rescanned
+        List<UUID> lastIds = new ArrayList<>(repository.shards().size());
+        for (ProductShard shard : repository.shards()) {
+            lastIds.add(shard.repository().findLastId().orElse(null));
+        }
+        long scanned = 0;
+        long moved = 0;
+        for (ProductShard source : repository.shards().reversed()) {
+            UUID lastId = lastIds.get(source.index());
+            if (lastId == null) {
+                continue;
+            }
+            long movedFromShard = 0;
+            UUID afterId = null;
+            boolean reachedLastId = false;
+            while (!reachedLastId) {
+                List<Product> chunk = source.repository().findOrderedById(afterId, chunkSize);
+                int end = 0;
+                while (end < chunk.size() && ID_ORDER.compare(chunk.get(end).getId(), lastId) <= 0) {
+                    end++;
+                }
+                reachedLastId = end < chunk.size() || chunk.size() < chunkSize;
+                List<Product> bounded = chunk.subList(0, end);
+                scanned += bounded.size();
+                movedFromShard += moveMisplaced(source, bounded);
+                if (!bounded.isEmpty()) {
+                    afterId = bounded.get(bounded.size() - 1).getId();
+                }
+            }
+            log.info("Moved {} products off shard {}", movedFromShard, source.index());
+            moved += movedFromShard;
+        }
+        return new Result(scanned, moved);
+    }
+
+    private long moveMisplaced(ProductShard source, List<Product> chunk) {
+        List<List<Product>> misplacedByTarget = new ArrayList<>(repository.shards().size());
+        for (int i = 0; i < repository.shards().size(); i++) {
+            misplacedByTarget.add(new ArrayList<>());
+        }
+        for (Product product : chunk) {
+            ProductShard target = repository.shardOf(product.getId());
+            if (target.index() != source.index()) {
+                misplacedByTarget.get(target.index()).add(product);
+            }
+        }
+
+        long moved = 0;
+        for (ProductShard target : repository.shards()) {
+            List<Product> products = misplacedByTarget.get(target.index());
+            if (products.isEmpty()) {
+                continue;
+            }
+            List<UUID> ids = products.stream().map(Product::getId).toList();
+            target.transaction().executeWithoutResult(status -> {
+                // rows left on the target by an interrupted run may have been written since, keep them
+                Set<UUID> present = new HashSet<>();
+                target.repository().findByIdIn(ids).forEach(product -> present.add(product.getId()));
+                List<Product> missing = products.stream()
+                        .filter(product -> !present.contains(product.getId()))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    target.repository().insertAllPreservingVersion(missing);
+                }
+            });
+            source.transaction().executeWithoutResult(status -> source.repository().deleteAll(ids));
+            moved += products.size();
+        }
+        return moved;
+    }
+
+    public record Result(long scanned, long moved) {
+    }
+}
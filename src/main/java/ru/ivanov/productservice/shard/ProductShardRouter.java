@@ -0,0 +1,49 @@
+package ru.ivanov.productservice.shard;
+
+import java.util.UUID;
+
+/**
+ * Maps a product id to one of {@code shardCount} shards with jump consistent hashing (Lamping and Veach):
+ * growing from n to n + 1 shards moves only about 1/(n + 1) of the products, all of them to the new shard.
+ * Both halves of the id are mixed first, so time-ordered ids spread as evenly as random ones.
+ */
+public final class ProductShardRouter {
+    private final int shardCount;
+
+    public ProductShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOf(UUID productId) {
+        long key = productId.getMostSignificantBits() ^ Long.rotateLeft(productId.getLeastSignificantBits(), 32);
+        return jumpHash(mix(key), shardCount);
+    }
+
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    // finalizer of MurmurHash3
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,371 @@
+package ru.ivanov.productservice.shard;
+
+import org.springframework.transaction.support.TransactionCallback;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Products spread over several databases by {@link ProductShardRouter}. Calls by id touch only the shard owning the id
+ * and join a transaction the caller opened with {@link #inTransaction}. Batches are split per shard and run on their
+ * shards in parallel, each in a transaction of its own, so a batch is atomic per shard only. Ordered reads ask every
+ * shard in parallel for its first rows and merge them by id. An offset read holds offset + limit rows of every shard
+ * in memory, so it may reach no deeper than {@link #MAX_OFFSET_WINDOW}; cursors by id have no such limit.
+ */
+public class ShardedProductRepository implements ProductJdbcRepository, Closeable {
+    public static final int MAX_OFFSET_WINDOW = 10_000;
+    // unsigned, the order PostgreSQL and H2 sort uuid columns in, unlike UUID.compareTo
+    static final Comparator<UUID> ID_ORDER = (left, right) -> {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    };
+    private static final Comparator<Product> PRODUCT_ID_ORDER = Comparator.comparing(Product::getId, ID_ORDER);
+    private static final Comparator<ProductSuggestion> SUGGESTION_ORDER = Comparator.comparing(ProductSuggestion::title);
+
+    private final List<ProductShard> shards;
+    private final ProductShardRouter router;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardedProductRepository(List<ProductShard> shards) {
+        this.shards = List.copyOf(shards);
+        this.router = new ProductShardRouter(shards.size());
+    }
+
+    public List<ProductShard> shards() {
+        return shards;
+    }
+
+    public ProductShard shardOf(UUID productId) {
+        return shards.get(router.shardOf(productId));
+    }
+
+    public <T> T inTransaction(UUID productId, TransactionCallback<T> action) {
+        return shardOf(productId).transaction().execute(action);
+    }
+
+    public void insert(Product product) {
+        shardOf(product.getId()).repository().insertAll(List.of(product));
+    }
+
+    @Override
+    public void insertAll(List<Product> products) {
+        splitByShard(products, Product::getId, (repository, shardProducts) -> {
+            repository.insertAll(shardProducts);
+            return null;
+        });
+    }
+
+    @Override
+    public void insertAllPreservingVersion(List<Product> products) {
+        splitByShard(products, Product::getId, (repository, shardProducts) -> {
+            repository.insertAllPreservingVersion(shardProducts);
+            return null;
+        });
+    }
+
+    @Override
+    public int[] updateAll(List<Product> products) {
+        return splitByShard(products, Product::getId, ProductJdbcRepository::updateAll);
+    }
+
+    @Override
+    public int[] deleteAll(List<UUID> productIds) {
+        return splitByShard(productIds, Function.identity(), ProductJdbcRepository::deleteAll);
+    }
+
+    // duplicates of an id land on the same shard in their original order, so the last one still wins
+    @Override
+    public void upsertAll(List<Product> products) {
+        splitByShard(products, Product::getId, (repository, shardProducts) -> {
+            repository.upsertAll(shardProducts);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Product> findById(UUID id) {
+        return shardOf(id).repository().findById(id);
+    }
+
+    @Override
+    public List<Product> findByIdIn(Collection<UUID> ids) {
+        List<List<UUID>> idsByShard = groupByShard(List.copyOf(ids), Function.identity());
+        List<Product> products = new ArrayList<>(ids.size());
+        scatter(shard -> {
+            List<UUID> shardIds = idsByShard.get(shard.index());
+            return shardIds.isEmpty() ? List.<Product>of() : shard.repository().findByIdIn(shardIds);
+        }).forEach(products::addAll);
+        return products;
+    }
+
+    @Override
+    public boolean existsById(UUID id) {
+        return shardOf(id).repository().existsById(id);
+    }
+
+    @Override
+    public long count() {
+        return scatter(shard -> shard.repository().count()).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public Optional<UUID> findLastId() {
+        return scatter(shard -> shard.repository().findLastId()).stream()
+                .flatMap(Optional::stream)
+                .max(ID_ORDER);
+    }
+
+    @Override
+    public List<Product> findOrderedById(UUID afterId, int limit) {
+        return merge(scatter(shard -> shard.repository().findOrderedById(afterId, limit)), PRODUCT_ID_ORDER, 0, limit);
+    }
+
+    public List<Product> findOrderedById(long offset, int limit) {
+        int perShardLimit = perShardLimit(offset, limit);
+        return merge(scatter(shard -> shard.repository().findOrderedById(null, perShardLimit)),
+                PRODUCT_ID_ORDER, offset, limit);
+    }
+
+    @Override
+    public List<Product> searchOrderedById(String term, int limit) {
+        return searchOrderedById(term, 0, limit);
+    }
+
+    public List<Product> searchOrderedById(String term, long offset, int limit) {
+        int perShardLimit = perShardLimit(offset, limit);
+        return merge(scatter(shard -> shard.repository().searchOrderedById(term, perShardLimit)),
+                PRODUCT_ID_ORDER, offset, limit);
+    }
+
+    @Override
+    public List<ProductSuggestion> findSuggestions(String prefix, int limit) {
+        return merge(scatter(shard -> shard.repository().findSuggestions(prefix, limit)), SUGGESTION_ORDER, 0, limit);
+    }
+
+    @Override
+    public Optional<Long> updateTitleAndDetailsById(UUID id, String title, String details) {
+        return shardOf(id).repository().updateTitleAndDetailsById(id, title, details);
+    }
+
+    @Override
+    public int updateTitleAndDetailsByIdAndVersion(UUID id, long version, String title, String details) {
+        return shardOf(id).repository().updateTitleAndDetailsByIdAndVersion(id, version, title, details);
+    }
+
+    @Override
+    public int deleteById(UUID id) {
+        return shardOf(id).repository().deleteById(id);
+    }
+
+    /**
+     * Merges the shards page by page instead of holding a cursor open on each of them:
+     * every shard keeps one batch being merged and fetches the following one meanwhile.
+     */
+    @Override
+    public void streamAllOrderedById(UUID afterId, int fetchSize, Consumer<Product> consumer) {
+        PriorityQueue<ShardCursor> heads = new PriorityQueue<>(
+                shards.size(),
+                Comparator.comparing(ShardCursor::head, PRODUCT_ID_ORDER)
+        );
+        List<ShardCursor> cursors = shards.stream()
+                .map(shard -> new ShardCursor(shard, afterId, fetchSize))
+                .toList();
+        for (ShardCursor cursor : cursors) {
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        while (!heads.isEmpty()) {
+            ShardCursor cursor = heads.poll();
+            consumer.accept(cursor.head());
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.close();
+        for (ProductShard shard : shards) {
+            // the pool may sit below the limiter, the statement counter and the observation proxy
+            try {
+                if (shard.dataSource().isWrapperFor(Closeable.class)) {
+                    shard.dataSource().unwrap(Closeable.class).close();
+                }
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
+    static <T> List<T> merge(List<List<T>> sortedLists, Comparator<? super T> order, long offset, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(
+                Math.max(1, sortedLists.size()),
+                (left, right) -> order.compare(
+                        sortedLists.get(left[0]).get(left[1]),
+                        sortedLists.get(right[0]).get(right[1])
+                )
+        );
+        for (int list = 0; list < sortedLists.size(); list++) {
+            if (!sortedLists.get(list).isEmpty()) {
+                heads.add(new int[]{list, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(limit);
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> list = sortedLists.get(head[0]);
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(list.get(head[1]));
+            }
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static int perShardLimit(long offset, int limit) {
+        if (offset < 0 || limit < 0 || offset + limit > MAX_OFFSET_WINDOW) {
+            throw new IllegalArgumentException(
+                    "Offset " + offset + " and limit " + limit + " reach past the first " + MAX_OFFSET_WINDOW + " rows");
+        }
+        return (int) (offset + limit);
+    }
+
+    private <T> List<List<T>> groupByShard(List<T> items, Function<T, UUID> id) {
+        List<List<T>> groups = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            groups.get(router.shardOf(id.apply(item))).add(item);
+        }
+        return groups;
+    }
+
+    // runs a batch per shard in that shard's transaction and puts per-item results back at the items' positions
+    private <T> int[] splitByShard(
+            List<T> items,
+            Function<T, UUID> id,
+            BiFunction<ProductJdbcRepository, List<T>, int[]> batch
+    ) {
+        List<List<Integer>> positionsByShard = groupByShard(
+                IntStream.range(0, items.size()).boxed().toList(),
+                position -> id.apply(items.get(position))
+        );
+        int[] results = new int[items.size()];
+        scatter(shard -> {
+            List<Integer> positions = positionsByShard.get(shard.index());
+            if (positions.isEmpty()) {
+                return null;
+            }
+            List<T> shardItems = positions.stream().map(items::get).toList();
+            int[] shardResults = shard.transaction().execute(status -> batch.apply(shard.repository(), shardItems));
+            if (shardResults != null) {
+                for (int i = 0; i < shardResults.length; i++) {
+                    results[positions.get(i)] = shardResults[i];
+                }
+            }
+            return null;
+        });
+        return results;
+    }
+
+    private <R> List<R> scatter(Function<ProductShard, R> task) {
+        if (shards.size() == 1) {
+            List<R> results = new ArrayList<>(1);
+            results.add(task.apply(shards.get(0)));
+            return results;
+        }
+        List<Future<R>> futures = new ArrayList<>(shards.size());
+        for (ProductShard shard : shards) {
+            futures.add(executor.submit(() -> task.apply(shard)));
+        }
+        List<R> results = new ArrayList<>(shards.size());
+        for (Future<R> future : futures) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private static <R> R await(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private class ShardCursor {
+        private final ProductShard shard;
+        private final int fetchSize;
+        private Future<List<Product>> nextBatch;
+        private List<Product> batch = List.of();
+        private int position;
+        private Product head;
+
+        ShardCursor(ProductShard shard, UUID afterId, int fetchSize) {
+            this.shard = shard;
+            this.fetchSize = fetchSize;
+            this.nextBatch = fetch(afterId);
+        }
+
+        Product head() {
+            return head;
+        }
+
+        boolean advance() {
+            if (position == batch.size()) {
+                if (nextBatch == null) {
+                    return false;
+                }
+                batch = await(nextBatch);
+                position = 0;
+                // a short batch is the last one
+                nextBatch = batch.size() < fetchSize ? null : fetch(batch.get(batch.size() - 1).getId());
+                if (batch.isEmpty()) {
+                    return false;
+                }
+            }
+            head = batch.get(position++);
+            return true;
+        }
+
+        private Future<List<Product>> fetch(UUID afterId) {
+            return executor.submit(() -> shard.repository().findOrderedById(afterId, fetchSize));
+        }
+    }
+}
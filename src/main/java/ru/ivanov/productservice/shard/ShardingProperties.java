@@ -0,0 +1,27 @@
+package ru.ivanov.productservice.shard;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * @param nodes             shard data sources, a product lives on the node its id hashes to,
+ *                          so nodes may only be appended and never reordered
+ * @param rebalanceOnStartup moves every product not stored on its hash shard, run it after appending nodes
+ */
+@ConfigurationProperties(prefix = "product.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Node> nodes,
+        @DefaultValue("false") boolean rebalanceOnStartup,
+        @DefaultValue("1000") int rebalanceChunkSize
+) {
+    public record Node(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize
+    ) {
+    }
+}
@@ -0,0 +1,14 @@
+package ru.ivanov.productservice.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * @param spanFile where {@link JsonLinesSpanExporter} appends finished spans, not written when unset
+ */
+@ConfigurationProperties(prefix = "product.tracing")
+public record ProductTracingProperties(
+        Path spanFile
+) {
+}
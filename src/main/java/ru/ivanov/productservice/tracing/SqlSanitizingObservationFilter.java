@@ -0,0 +1,36 @@
+package ru.ivanov.productservice.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces literals in the SQL text that JDBC observations attach to their spans, so values inlined
+ * into a statement never leave the process. Bind parameters are already {@code ?} and stay untouched.
+ */
+public class SqlSanitizingObservationFilter implements ObservationFilter {
+    private static final String QUERY_KEY_PREFIX = "jdbc.query";
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    @Override
+    public Observation.Context map(Observation.Context context) {
+        List<KeyValue> sanitized = new ArrayList<>();
+        for (KeyValue keyValue : context.getHighCardinalityKeyValues()) {
+            if (keyValue.getKey().startsWith(QUERY_KEY_PREFIX)) {
+                sanitized.add(KeyValue.of(keyValue.getKey(), sanitize(keyValue.getValue())));
+            }
+        }
+        sanitized.forEach(context::addHighCardinalityKeyValue);
+        return context;
+    }
+
+    public static String sanitize(String sql) {
+        String withoutStrings = STRING_LITERAL.matcher(sql).replaceAll("?");
+        return NUMERIC_LITERAL.matcher(withoutStrings).replaceAll("?");
+    }
+}
@@ -0,0 +1,48 @@
+package ru.ivanov.productservice.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Opens a child span of the current one around every intercepted method, named {@code Type.method}.
+ * The tracer is asked for on every call, calls go straight through while there is no tracer but the no-op one.
+ */
+public class TracingInterceptor implements MethodInterceptor {
+    private final Supplier<Tracer> tracer;
+    private final String typeName;
+    private final Map<Method, String> spanNames = new ConcurrentHashMap<>();
+
+    public TracingInterceptor(Supplier<Tracer> tracer, Class<?> type) {
+        this.tracer = tracer;
+        this.typeName = type.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Tracer tracer = this.tracer.get();
+        Method method = invocation.getMethod();
+        if (tracer == Tracer.NOOP || method.getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Span span = tracer.nextSpan()
+                .name(spanNames.computeIfAbsent(method, m -> typeName + "." + m.getName()))
+                .tag("code.namespace", typeName)
+                .tag("code.function", method.getName())
+                .start();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
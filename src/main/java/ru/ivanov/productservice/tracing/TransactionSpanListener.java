@@ -0,0 +1,63 @@
+package ru.ivanov.productservice.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Spans from the begin of a transaction to its commit or rollback, so the statements it runs become
+ * its children and the time spent committing shows up. Transactions suspended by REQUIRES_NEW
+ * nest on a per-thread stack.
+ */
+public class TransactionSpanListener implements TransactionExecutionListener {
+    private final Tracer tracer;
+    private final ThreadLocal<Deque<OpenTransaction>> openTransactions = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public TransactionSpanListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        Span span = tracer.nextSpan()
+                .name("transaction")
+                .tag("transaction.name", String.valueOf(transaction.getTransactionName()))
+                .tag("transaction.read-only", String.valueOf(transaction.isReadOnly()));
+        if (beginFailure != null) {
+            span.start().error(beginFailure).end();
+            return;
+        }
+        span.start();
+        openTransactions.get().push(new OpenTransaction(span, tracer.withSpan(span)));
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        end("commit", commitFailure);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        end("rollback", rollbackFailure);
+    }
+
+    private void end(String outcome, Throwable failure) {
+        OpenTransaction open = openTransactions.get().poll();
+        if (open == null) {
+            return;
+        }
+        open.scope().close();
+        open.span().tag("transaction.outcome", outcome);
+        if (failure != null) {
+            open.span().error(failure);
+        }
+        open.span().end();
+    }
+
+    private record OpenTransaction(Span span, Tracer.SpanInScope scope) {
+    }
+}
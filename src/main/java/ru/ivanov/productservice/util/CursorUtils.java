@@ -0,0 +1,37 @@
+package ru.ivanov.productservice.util;
+
+import ru.ivanov.productservice.exception.BadRequestException;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+import static ru.ivanov.productservice.util.MessageUtils.INVALID_CURSOR;
+
+public class CursorUtils {
+    public final static int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static String encode(UUID lastSeenId) {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        buffer.putLong(lastSeenId.getMostSignificantBits());
+        buffer.putLong(lastSeenId.getLeastSignificantBits());
+        return ENCODER.encodeToString(buffer.array());
+    }
+
+    public static UUID decode(String cursor) {
+        byte[] bytes;
+        try {
+            bytes = DECODER.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException(INVALID_CURSOR.formatted(cursor));
+        }
+        if (bytes.length != 16) {
+            throw new BadRequestException(INVALID_CURSOR.formatted(cursor));
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
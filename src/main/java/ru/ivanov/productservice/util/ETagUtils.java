@@ -0,0 +1,55 @@
+package ru.ivanov.productservice.util;
+
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class ETagUtils {
+    // never written to the version column, so it matches no product
+    public final static long UNKNOWN_VERSION = -1;
+
+    public static String forProduct(ProductDto product) {
+        return "\"" + product.version() + "\"";
+    }
+
+    /**
+     * Fingerprints a page from its metadata and the id and version of every product on it,
+     * equal fingerprints mean equal bodies without serializing the page.
+     */
+    public static String forPage(List<ProductDto> content, Object... metadata) {
+        long hash = 17;
+        for (Object value : metadata) {
+            hash = 31 * hash + Objects.hashCode(value);
+        }
+        for (ProductDto product : content) {
+            hash = 31 * mix(hash) + product.id().getMostSignificantBits();
+            hash = 31 * hash + product.id().getLeastSignificantBits();
+            hash = 31 * hash + Objects.hashCode(product.version());
+        }
+        return "\"p" + Long.toHexString(mix(hash)) + "\"";
+    }
+
+    /**
+     * Reads the version from a strong ETag of a product, anything else gives {@link #UNKNOWN_VERSION}.
+     */
+    public static long parseVersion(String entityTag) {
+        String tag = entityTag.strip();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return UNKNOWN_VERSION;
+        }
+        try {
+            long version = Long.parseLong(tag.substring(1, tag.length() - 1));
+            return version < 0 ? UNKNOWN_VERSION : version;
+        } catch (NumberFormatException ex) {
+            return UNKNOWN_VERSION;
+        }
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        return value;
+    }
+}
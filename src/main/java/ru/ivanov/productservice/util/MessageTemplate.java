@@ -0,0 +1,32 @@
+package ru.ivanov.productservice.util;
+
+/**
+ * A message with a single {@code %s} placeholder, split once so that filling it in is a plain
+ * concatenation instead of parsing the format string with {@link String#formatted} on every call.
+ */
+public final class MessageTemplate {
+    private static final String PLACEHOLDER = "%s";
+
+    private final String prefix;
+    private final String suffix;
+
+    private MessageTemplate(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    public static MessageTemplate of(String template) {
+        int placeholder = template.indexOf(PLACEHOLDER);
+        if (placeholder < 0 || template.indexOf(PLACEHOLDER, placeholder + PLACEHOLDER.length()) >= 0) {
+            throw new IllegalArgumentException("Template must contain exactly one %s: " + template);
+        }
+        return new MessageTemplate(
+                template.substring(0, placeholder),
+                template.substring(placeholder + PLACEHOLDER.length())
+        );
+    }
+
+    public String format(Object argument) {
+        return prefix + argument + suffix;
+    }
+}
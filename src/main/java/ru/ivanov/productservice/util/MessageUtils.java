@@ -2,4 +2,22 @@ package ru.ivanov.productservice.util;
 
 public class MessageUtils {
     public final static String PRODUCT_NOT_FOUND_WITH_ID = "Product not found with id = %s";
+    public final static String INVALID_CURSOR = "Invalid cursor = %s";
+    public final static String PAGE_SIZE_OUT_OF_RANGE = "Page size must be between 1 and %d";
+    public final static String PAGE_BEYOND_SHARDED_WINDOW =
+            "Pages must end within the first %d results while products are sharded, page products by the after cursor";
+    public final static String TOO_MANY_IDS = "Number of ids must not exceed %d";
+    public final static String UNSUPPORTED_EXPORT_FORMAT = "Unsupported export format = %s";
+    public final static String UNSUPPORTED_IMPORT_CONTENT_TYPE = "Unsupported import content type = %s";
+    public final static String INVALID_PRODUCT_ID = "Invalid product id = %s";
+    public final static String MALFORMED_IMPORT_ROW = "Malformed row, import stopped: %s";
+    public final static String SEARCH_QUERY_MUST_NOT_BE_BLANK = "Search query must not be blank";
+    public final static String SUGGEST_PREFIX_MUST_NOT_BE_BLANK = "Suggest prefix must not be blank";
+    public final static String SUGGEST_LIMIT_OUT_OF_RANGE = "Suggest limit must be between 1 and %d";
+    public final static String PRODUCT_VERSION_MISMATCH = "Product with id = %s has been modified, If-Match is not its current ETag";
+    public final static String ID_MUST_NOT_BE_NULL = "id не должно быть null";
+
+    // the messages of the most frequent errors, filled in without String.formatted
+    public final static MessageTemplate PRODUCT_NOT_FOUND_WITH_ID_TEMPLATE = MessageTemplate.of(PRODUCT_NOT_FOUND_WITH_ID);
+    public final static MessageTemplate PRODUCT_VERSION_MISMATCH_TEMPLATE = MessageTemplate.of(PRODUCT_VERSION_MISMATCH);
 }
@@ -0,0 +1,15 @@
+package ru.ivanov.productservice.util;
+
+import org.slf4j.MDC;
+
+public class TraceUtils {
+    // the key Micrometer Tracing puts the current trace id under, the same one the log lines show
+    public final static String TRACE_ID_KEY = "traceId";
+
+    /**
+     * @return the trace id of the span in scope on this thread, null when nothing is traced
+     */
+    public static String currentTraceId() {
+        return MDC.get(TRACE_ID_KEY);
+    }
+}
@@ -0,0 +1,143 @@
+package ru.ivanov.productservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+public class ProductCacheTests {
+    private MeterRegistry meterRegistry;
+    private ProductCache cacheUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheUnderTest = new ProductCache(new ProductCacheProperties(100, Duration.ofMinutes(1)), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should load product once and count hit and miss when getting same product twice")
+    public void givenEmptyCache_whenGetTwice_thenLoadOnceAndRecordHitAndMiss() {
+        //given
+        ProductDto productDto = TestUtils.getProductMilkPersistedDto();
+        AtomicInteger loads = new AtomicInteger();
+
+        //when
+        cacheUnderTest.get(productDto.id(), id -> {
+            loads.incrementAndGet();
+            return productDto;
+        });
+        ProductDto obtainedDto = cacheUnderTest.get(productDto.id(), id -> {
+            loads.incrementAndGet();
+            return productDto;
+        });
+
+        //then
+        assertThat(obtainedDto).isEqualTo(productDto);
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "products").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should invalidate only changed product when product is updated or deleted")
+    public void givenCachedProducts_whenProductUpdatedOrDeleted_thenOnlyThatProductIsInvalidated() {
+        //given
+        ProductDto milkDto = TestUtils.getProductMilkPersistedDto();
+        ProductDto butterDto = TestUtils.getProductButterPersistedDto();
+        ProductDto cottageDto = TestUtils.getProductCottagePersistedDto();
+        cacheUnderTest.get(milkDto.id(), id -> milkDto);
+        cacheUnderTest.get(butterDto.id(), id -> butterDto);
+        cacheUnderTest.get(cottageDto.id(), id -> cottageDto);
+        AtomicInteger loads = new AtomicInteger();
+
+        //when
+        cacheUnderTest.onProductChanged(ProductChangedEvent.updated(milkDto));
+        cacheUnderTest.onProductChanged(ProductChangedEvent.deleted(butterDto.id()));
+        cacheUnderTest.onProductChanged(ProductChangedEvent.created(cottageDto));
+
+        //then
+        cacheUnderTest.get(milkDto.id(), id -> { loads.incrementAndGet(); return milkDto; });
+        cacheUnderTest.get(butterDto.id(), id -> { loads.incrementAndGet(); return butterDto; });
+        cacheUnderTest.get(cottageDto.id(), id -> { loads.incrementAndGet(); return cottageDto; });
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should load only missing products in one call when getting several products")
+    public void givenPartiallyCachedProducts_whenGetAll_thenLoadOnlyMissingProducts() {
+        //given
+        ProductDto milkDto = TestUtils.getProductMilkPersistedDto();
+        ProductDto butterDto = TestUtils.getProductButterPersistedDto();
+        UUID notExistentId = UUID.randomUUID();
+        cacheUnderTest.get(milkDto.id(), id -> milkDto);
+        Set<UUID> loadedIds = new HashSet<>();
+
+        //when
+        Map<UUID, ProductDto> obtainedProducts = cacheUnderTest.getAll(List.of(milkDto.id(), butterDto.id(), notExistentId), ids -> {
+            loadedIds.addAll(ids);
+            return Map.of(butterDto.id(), butterDto);
+        });
+
+        //then
+        assertThat(obtainedProducts).isEqualTo(Map.of(milkDto.id(), milkDto, butterDto.id(), butterDto));
+        assertThat(loadedIds).isEqualTo(Set.of(butterDto.id(), notExistentId));
+    }
+
+    @Test
+    @DisplayName("Should serve updated product after invalidation that runs while several products are loading")
+    public void givenBulkLoadInFlight_whenProductInvalidated_thenNextGetLoadsUpdatedProduct() throws Exception {
+        //given
+        ProductDto staleDto = TestUtils.getProductMilkPersistedDto();
+        ProductDto updatedDto = new ProductDto(staleDto.id(), "Updated milk", staleDto.details(), staleDto.version() + 1);
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        //when
+        Future<Map<UUID, ProductDto>> bulkLoad = executor.submit(() -> cacheUnderTest.getAll(List.of(staleDto.id()), ids -> {
+            loadStarted.countDown();
+            awaitUninterruptibly(invalidated);
+            return Map.of(staleDto.id(), staleDto);
+        }));
+        loadStarted.await();
+        cacheUnderTest.onProductChanged(ProductChangedEvent.updated(updatedDto));
+        invalidated.countDown();
+        Map<UUID, ProductDto> bulkLoaded = bulkLoad.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        ProductDto obtainedDto = cacheUnderTest.get(staleDto.id(), id -> updatedDto);
+
+        //then
+        assertThat(bulkLoaded).isEqualTo(Map.of(staleDto.id(), staleDto));
+        assertThat(obtainedDto).isEqualTo(updatedDto);
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package ru.ivanov.productservice.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.util.TestUtils;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductCounterTests {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @InjectMocks
+    private ProductCounter counterUnderTest;
+
+    @Test
+    @DisplayName("Should take product count from repository when resyncing")
+    public void givenProductsInRepository_whenResync_thenCountIsTakenFromRepository() {
+        //given
+        when(productJdbcRepository.count()).thenReturn(42L);
+
+        //when
+        counterUnderTest.resync();
+
+        //then
+        assertThat(counterUnderTest.get()).isEqualTo(42L);
+        verify(productJdbcRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Should follow created and deleted products without querying repository")
+    public void givenCreatedAndDeletedEvents_whenOnProductChanged_thenCountIsAdjusted() {
+        //given
+        when(productJdbcRepository.count()).thenReturn(1L);
+        counterUnderTest.resync();
+
+        //when
+        counterUnderTest.onProductChanged(ProductChangedEvent.created(TestUtils.getProductMilkPersistedDto()));
+        counterUnderTest.onProductChanged(ProductChangedEvent.created(TestUtils.getProductButterPersistedDto()));
+        counterUnderTest.onProductChanged(ProductChangedEvent.updated(TestUtils.getProductButterPersistedDto()));
+        counterUnderTest.onProductChanged(ProductChangedEvent.deleted(TestUtils.PRODUCT_MILK_ID));
+
+        //then
+        assertThat(counterUnderTest.get()).isEqualTo(2L);
+        verify(productJdbcRepository, times(1)).count();
+    }
+}
@@ -1,14 +1,18 @@
 package ru.ivanov.productservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.CoreMatchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.MDC;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -16,16 +20,37 @@ import org.springframework.data.domain.jaxb.SpringDataJaxb;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
 import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.exception.exceptionHandler.GlobalExceptionHandler;
 import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.BatchOperationRequest;
+import ru.ivanov.productservice.model.dto.request.BatchProductRequest;
 import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.dto.request.ProductLookupRequest;
 import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.BatchItemResult;
+import ru.ivanov.productservice.model.dto.response.BatchProductResponse;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
 import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.ProductImportResponse;
+import ru.ivanov.productservice.model.dto.response.RejectedRow;
+import ru.ivanov.productservice.model.dto.response.ProductLookupResponse;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
 import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.service.ProductBatchService;
+import ru.ivanov.productservice.service.ProductExportService;
+import ru.ivanov.productservice.service.ProductImportService;
 import ru.ivanov.productservice.service.ProductService;
 import ru.ivanov.productservice.util.TestUtils;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
@@ -34,17 +59,28 @@ import static java.lang.Boolean.*;
 import static java.util.Collections.emptyList;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.hasSize;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static ru.ivanov.productservice.model.dto.request.BatchOperationType.CREATE;
+import static ru.ivanov.productservice.model.dto.request.BatchOperationType.DELETE;
 import static org.springframework.http.MediaType.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_VERSION_MISMATCH;
+import static ru.ivanov.productservice.util.TraceUtils.TRACE_ID_KEY;
 
 @WebMvcTest(ProductRestController.class)
 @AutoConfigureMockMvc
+@Import(SimpleMeterRegistry.class)
 @ExtendWith(MockitoExtension.class)
 public class ProductRestControllerTests {
     @Autowired
@@ -53,9 +89,21 @@ public class ProductRestControllerTests {
     @MockitoBean
     private ProductService productService;
 
+    @MockitoBean
+    private ProductBatchService productBatchService;
+
+    @MockitoBean
+    private ProductExportService productExportService;
+
+    @MockitoBean
+    private ProductImportService productImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     @DisplayName("Should return status 201 CREATED and product DTO when creating product with valid request")
     public void givenValidCreatProductRequest_whenCreateProduct_thenReturnStatusCreatedAndCreatedProductDtoAsBody() throws Exception {
@@ -244,6 +292,106 @@ public class ProductRestControllerTests {
         verifyNoMoreInteractions(productService);
     }
 
+    @Test
+    @DisplayName("Should return status 200 OK and sliced response without totals when getting products with withTotal=false")
+    public void givenWithTotalFalse_whenGetAllProducts_thenReturnStatusOkAndSlicedResponse() throws Exception {
+        //given
+        int pageNumber = 0;
+        int pageSize = 1;
+        ProductDto productPersistedDto = TestUtils.getProductMilkPersistedDto();
+        SlicedResponse<ProductDto> slicedResponse = new SlicedResponse<>(pageNumber, pageSize, true, true, List.of(productPersistedDto));
+
+        when(productService.getProductsSlice(pageNumber, pageSize)).thenReturn(slicedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products")
+                .param("withTotal", "false")
+                .param("page", String.valueOf(pageNumber))
+                .param("size", String.valueOf(pageSize))
+                .accept(APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.pageNumber", is(pageNumber)),
+                jsonPath("$.pageSize", is(pageSize)),
+                jsonPath("$.first", is(TRUE)),
+                jsonPath("$.hasNext", is(TRUE)),
+                jsonPath("$.totalElements").doesNotExist(),
+                jsonPath("$.totalPages").doesNotExist(),
+                jsonPath("$.content.size()", is(1)),
+                jsonPath("$.content[0].id", is(productPersistedDto.id().toString()))
+        );
+
+        verify(productService, times(1)).getProductsSlice(pageNumber, pageSize);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 200 OK and cursor paged response when getting products by cursor")
+    public void givenCursor_whenGetProductsByCursor_thenReturnStatusOkAndCursorPagedResponse() throws Exception {
+        //given
+        String cursor = "m2PHfY6RT0CtsWgXuSCBqw";
+        int pageSize = 1;
+        ProductDto productPersistedDto = TestUtils.getProductMilkPersistedDto();
+        String nextCursor = "UsbVtrc6QVq89KTlnVIAFQ";
+        CursorPagedResponse<ProductDto> cursorPagedResponse = new CursorPagedResponse<>(pageSize, true, nextCursor, List.of(productPersistedDto));
+
+        when(productService.getProductsAfterCursor(cursor, pageSize)).thenReturn(cursorPagedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products")
+                .param("after", cursor)
+                .param("size", String.valueOf(pageSize))
+                .accept(APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.pageSize", is(pageSize)),
+                jsonPath("$.hasNext", is(TRUE)),
+                jsonPath("$.nextCursor", is(nextCursor)),
+                jsonPath("$.content.size()", is(1)),
+                jsonPath("$.content[0].id", is(productPersistedDto.id().toString()))
+        );
+
+        verify(productService, times(1)).getProductsAfterCursor(cursor, pageSize);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 400 BAD REQUEST and error response when getting products by invalid cursor")
+    public void givenInvalidCursor_whenGetProductsByCursor_thenReturnStatusBadRequestAndErrorResponseAsBody() throws Exception {
+        //given
+        String invalidCursor = "not-a-cursor";
+        String expectedExceptionMessage = "Invalid cursor = " + invalidCursor;
+        when(productService.getProductsAfterCursor(invalidCursor, 10))
+                .thenThrow(new BadRequestException(expectedExceptionMessage));
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products")
+                .param("after", invalidCursor)
+                .accept(APPLICATION_JSON)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isBadRequest(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.path").value("/api/v1/products"),
+                jsonPath("$.message").value(expectedExceptionMessage),
+                jsonPath("$.statusCode").value(BAD_REQUEST.value()),
+                jsonPath("$.timestamp", notNullValue())
+        );
+
+        verify(productService, times(1)).getProductsAfterCursor(invalidCursor, 10);
+        verifyNoMoreInteractions(productService);
+    }
+
     @Test
     @DisplayName("Should return status 200 OK and product DTO when getting product with existent id")
     public void givenExistentProductId_whenGetProduct_thenReturnStatusOKAndProductDtoAsBody() throws Exception {
@@ -298,6 +446,59 @@ public class ProductRestControllerTests {
         verifyNoMoreInteractions(productService);
     }
 
+    @Test
+    @DisplayName("Should count the error per exception handler when getting product with not existent id")
+    public void givenNotExistentProductId_whenGetProduct_thenIncrementResourceNotFoundErrorCounter() throws Exception {
+        //given
+        UUID notExistentProductId = UUID.randomUUID();
+        when(productService.getProductById(any(UUID.class)))
+                .thenThrow(new ResourceNotFoundException(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentProductId)));
+        double countBefore = meterRegistry.get(GlobalExceptionHandler.ERRORS_METRIC_NAME)
+                .tag("handler", "resource_not_found")
+                .counter()
+                .count();
+
+        //when
+        mockMvc.perform(get("/api/v1/products/{productId}", notExistentProductId)
+                .accept(APPLICATION_JSON)
+        ).andExpect(status().isNotFound());
+
+        //then
+        assertThat(meterRegistry.get(GlobalExceptionHandler.ERRORS_METRIC_NAME)
+                .tag("handler", "resource_not_found")
+                .tag("status", "404")
+                .counter()
+                .count()
+        ).isEqualTo(countBefore + 1);
+    }
+
+    @Test
+    @DisplayName("Should put trace id of the current span into error response")
+    public void givenTracedRequest_whenGetProductWithNotExistentId_thenErrorResponseHasTraceId() throws Exception {
+        //given
+        UUID notExistentProductId = UUID.randomUUID();
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        when(productService.getProductById(any(UUID.class)))
+                .thenThrow(new ResourceNotFoundException(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentProductId)));
+
+        //when
+        ResultActions result;
+        MDC.put(TRACE_ID_KEY, traceId);
+        try {
+            result = mockMvc.perform(get("/api/v1/products/{productId}", notExistentProductId)
+                    .accept(APPLICATION_JSON)
+            );
+        } finally {
+            MDC.remove(TRACE_ID_KEY);
+        }
+
+        //then
+        result.andExpectAll(
+                status().isNotFound(),
+                jsonPath("$.traceId").value(traceId)
+        );
+    }
+
     @Test
     @DisplayName("Should return status 204 NO CONTENT when updating product with existent id and valid request")
     public void givenExistentProductIdAndValidUpdateProductRequest_whenUpdateProduct_thenReturnNoContentStatus() throws Exception {
@@ -452,4 +653,409 @@ public class ProductRestControllerTests {
         verify(productService, times(1)).deleteProduct(notExistentProductId);
         verifyNoMoreInteractions(productService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return status 200 OK and per-operation results when executing valid batch")
+    public void givenValidBatchRequest_whenExecuteBatch_thenReturnStatusOkAndPerOperationResults() throws Exception {
+        //given
+        UUID nonExistentId = UUID.randomUUID();
+        BatchProductRequest request = new BatchProductRequest(List.of(
+                new BatchOperationRequest(CREATE, null, "Milk", "Best milk in the world"),
+                new BatchOperationRequest(DELETE, nonExistentId, null, null)
+        ));
+        BatchProductResponse expectedResponse = BatchProductResponse.fromResults(List.of(
+                new BatchItemResult(0, CREATE, TestUtils.PRODUCT_MILK_ID, 201, null),
+                new BatchItemResult(1, DELETE, nonExistentId, 404, PRODUCT_NOT_FOUND_WITH_ID.formatted(nonExistentId))
+        ));
+        when(productBatchService.executeBatch(request)).thenReturn(expectedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/batch")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.succeeded").value(1),
+                jsonPath("$.failed").value(1),
+                jsonPath("$.results", hasSize(2)),
+                jsonPath("$.results[0].id").value(TestUtils.PRODUCT_MILK_ID.toString()),
+                jsonPath("$.results[0].statusCode").value(201),
+                jsonPath("$.results[1].operation").value("DELETE"),
+                jsonPath("$.results[1].statusCode").value(NOT_FOUND.value()),
+                jsonPath("$.results[1].message").value(PRODUCT_NOT_FOUND_WITH_ID.formatted(nonExistentId))
+        );
+
+        verify(productBatchService, times(1)).executeBatch(request);
+        verifyNoMoreInteractions(productBatchService);
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 400 BAD REQUEST when batch has no operations")
+    public void givenEmptyBatchRequest_whenExecuteBatch_thenReturnStatusBadRequest() throws Exception {
+        //given
+        BatchProductRequest request = new BatchProductRequest(emptyList());
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/batch")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpectAll(
+                status().isBadRequest(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.path").value("/api/v1/products/batch"),
+                jsonPath("$.message", containsString("operations не должно быть пустым")),
+                jsonPath("$.statusCode").value(BAD_REQUEST.value()),
+                jsonPath("$.timestamp", notNullValue())
+        );
+
+        verifyNoInteractions(productBatchService);
+    }
+
+    @Test
+    @DisplayName("Should return status 200 OK with found products and not found ids when getting products by ids")
+    public void givenIdsQueryParameter_whenGetProductsByIds_thenReturnStatusOkAndLookupResponseAsBody() throws Exception {
+        //given
+        UUID notExistentId = UUID.randomUUID();
+        List<UUID> requestedIds = List.of(TestUtils.PRODUCT_MILK_ID, notExistentId);
+        ProductLookupResponse expectedResponse = new ProductLookupResponse(
+                List.of(TestUtils.getProductMilkPersistedDto()), List.of(notExistentId)
+        );
+        when(productService.getProductsByIds(requestedIds)).thenReturn(expectedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products")
+                .param("ids", TestUtils.PRODUCT_MILK_ID + "," + notExistentId)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.content", hasSize(1)),
+                jsonPath("$.content[0].id").value(TestUtils.PRODUCT_MILK_ID.toString()),
+                jsonPath("$.notFound", hasSize(1)),
+                jsonPath("$.notFound[0]").value(notExistentId.toString())
+        );
+
+        verify(productService, times(1)).getProductsByIds(requestedIds);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 200 OK with found products when looking up products by ids in request body")
+    public void givenLookupRequest_whenLookupProducts_thenReturnStatusOkAndLookupResponseAsBody() throws Exception {
+        //given
+        ProductLookupRequest request = new ProductLookupRequest(List.of(TestUtils.PRODUCT_MILK_ID, TestUtils.PRODUCT_BUTTER_ID));
+        ProductLookupResponse expectedResponse = new ProductLookupResponse(
+                List.of(TestUtils.getProductMilkPersistedDto(), TestUtils.getProductButterPersistedDto()), emptyList()
+        );
+        when(productService.getProductsByIds(request.ids())).thenReturn(expectedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/lookup")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.content", hasSize(2)),
+                jsonPath("$.content[1].id").value(TestUtils.PRODUCT_BUTTER_ID.toString()),
+                jsonPath("$.notFound", hasSize(0))
+        );
+
+        verify(productService, times(1)).getProductsByIds(request.ids());
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 400 BAD REQUEST when looking up products with empty ids")
+    public void givenEmptyLookupRequest_whenLookupProducts_thenReturnStatusBadRequest() throws Exception {
+        //given
+        ProductLookupRequest request = new ProductLookupRequest(emptyList());
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/lookup")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpectAll(
+                status().isBadRequest(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.path").value("/api/v1/products/lookup"),
+                jsonPath("$.message", containsString("ids не должно быть пустым")),
+                jsonPath("$.statusCode").value(BAD_REQUEST.value())
+        );
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should stream products as CSV attachment when exporting products in csv format")
+    public void givenCsvFormat_whenExportProducts_thenStreamCsvAttachment() throws Exception {
+        //given
+        UUID afterId = TestUtils.PRODUCT_BUTTER_ID;
+        String csv = "id,title,details\n%s,Milk,Best milk in the world\n".formatted(TestUtils.PRODUCT_MILK_ID);
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write(csv.getBytes(UTF_8));
+            return null;
+        }).when(productExportService).exportProducts(eq(ProductFileFormat.CSV), eq(afterId), any(OutputStream.class));
+
+        //when
+        MvcResult asyncResult = mockMvc.perform(get("/api/v1/products/export")
+                        .param("format", "csv")
+                        .param("after", afterId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions result = mockMvc.perform(asyncDispatch(asyncResult));
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType("text/csv;charset=UTF-8"),
+                header().string("Content-Disposition", "attachment; filename=\"products.csv\""),
+                content().string(csv)
+        );
+
+        verify(productExportService, times(1)).exportProducts(eq(ProductFileFormat.CSV), eq(afterId), any(OutputStream.class));
+        verifyNoMoreInteractions(productExportService);
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 400 BAD REQUEST when exporting products in unsupported format")
+    public void givenUnsupportedFormat_whenExportProducts_thenReturnStatusBadRequest() throws Exception {
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/export").param("format", "xml"));
+
+        //then
+        result.andExpectAll(
+                status().isBadRequest(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.path").value("/api/v1/products/export"),
+                jsonPath("$.message").value("Unsupported export format = xml"),
+                jsonPath("$.statusCode").value(BAD_REQUEST.value())
+        );
+
+        verifyNoInteractions(productExportService);
+    }
+
+    @Test
+    @DisplayName("Should return status 200 OK and import summary when importing products from CSV upload")
+    public void givenCsvUpload_whenImportProducts_thenReturnStatusOkAndImportSummary() throws Exception {
+        //given
+        String csv = "id,title,details\n,Milk,Best milk in the world\n";
+        ProductImportResponse expectedResponse = new ProductImportResponse(
+                1, 1, List.of(new RejectedRow(2, "Invalid product id = x")), 15, 66.7
+        );
+        when(productImportService.importProducts(eq(ProductFileFormat.CSV), any(InputStream.class))).thenReturn(expectedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv;charset=UTF-8")
+                .content(csv)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.imported").value(1),
+                jsonPath("$.rejected").value(1),
+                jsonPath("$.rejectedRows[0].row").value(2),
+                jsonPath("$.rejectedRows[0].message").value("Invalid product id = x"),
+                jsonPath("$.rowsPerSecond").value(66.7)
+        );
+
+        verify(productImportService, times(1)).importProducts(eq(ProductFileFormat.CSV), any(InputStream.class));
+        verifyNoMoreInteractions(productImportService);
+    }
+
+    @Test
+    @DisplayName("Should return status 400 BAD REQUEST when importing products with unsupported content type")
+    public void givenUnsupportedContentType_whenImportProducts_thenReturnStatusBadRequest() throws Exception {
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/import")
+                .contentType(APPLICATION_XML)
+                .content("<products/>")
+        );
+
+        //then
+        result.andExpectAll(
+                status().isBadRequest(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.path").value("/api/v1/products/import"),
+                jsonPath("$.message", CoreMatchers.startsWith("Unsupported import content type = application/xml")),
+                jsonPath("$.statusCode").value(BAD_REQUEST.value())
+        );
+
+        verifyNoInteractions(productImportService);
+    }
+
+    @Test
+    @DisplayName("Should return status 200 OK and sliced response when searching products")
+    public void givenQuery_whenSearchProducts_thenReturnStatusOkAndSlicedResponseAsBody() throws Exception {
+        //given
+        SlicedResponse<ProductDto> expectedResponse = new SlicedResponse<>(
+                0, 10, true, false, List.of(TestUtils.getProductMilkPersistedDto())
+        );
+        when(productService.searchProducts("milk", 0, 10)).thenReturn(expectedResponse);
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/search").param("q", "milk"));
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.pageNumber").value(0),
+                jsonPath("$.hasNext").value(false),
+                jsonPath("$.content", hasSize(1)),
+                jsonPath("$.content[0].title").value("Milk")
+        );
+
+        verify(productService, times(1)).searchProducts("milk", 0, 10);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 200 OK and list of suggestions when suggesting products")
+    public void givenPrefix_whenSuggestProducts_thenReturnStatusOkAndSuggestionsAsBody() throws Exception {
+        //given
+        when(productService.suggestProducts("mi", 10))
+                .thenReturn(List.of(new ProductSuggestion(TestUtils.PRODUCT_MILK_ID, "Milk")));
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "mi"));
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$", hasSize(1)),
+                jsonPath("$[0].id").value(TestUtils.PRODUCT_MILK_ID.toString()),
+                jsonPath("$[0].title").value("Milk")
+        );
+
+        verify(productService, times(1)).suggestProducts("mi", 10);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return product version as ETag when getting product")
+    public void givenExistentProductId_whenGetProduct_thenReturnVersionAsETag() throws Exception {
+        //given
+        ProductDto expectedDto = TestUtils.getProductMilkPersistedDto();
+        when(productService.getProductById(TestUtils.PRODUCT_MILK_ID)).thenReturn(expectedDto);
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/{productId}", TestUtils.PRODUCT_MILK_ID));
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                header().string(ETAG, "\"0\""),
+                jsonPath("$.version").doesNotExist()
+        );
+    }
+
+    @Test
+    @DisplayName("Should return status 304 NOT MODIFIED without body when If-None-Match matches product ETag")
+    public void givenMatchingIfNoneMatch_whenGetProduct_thenReturnStatusNotModified() throws Exception {
+        //given
+        when(productService.getProductById(TestUtils.PRODUCT_MILK_ID)).thenReturn(TestUtils.getProductMilkPersistedDto());
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/{productId}", TestUtils.PRODUCT_MILK_ID)
+                .header(IF_NONE_MATCH, "\"0\"")
+        );
+
+        //then
+        result.andExpectAll(
+                status().isNotModified(),
+                header().string(ETAG, "\"0\""),
+                content().string("")
+        );
+    }
+
+    @Test
+    @DisplayName("Should return status 304 NOT MODIFIED when If-None-Match matches ETag of an unchanged page")
+    public void givenETagOfUnchangedPage_whenGetProductsByCursor_thenReturnStatusNotModified() throws Exception {
+        //given
+        CursorPagedResponse<ProductDto> page = new CursorPagedResponse<>(1, false, null, List.of(TestUtils.getProductMilkPersistedDto()));
+        when(productService.getProductsAfterCursor("", 1)).thenReturn(page);
+        String eTag = mockMvc.perform(get("/api/v1/products").param("after", "").param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(ETAG);
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products")
+                .param("after", "")
+                .param("size", "1")
+                .header(IF_NONE_MATCH, eTag)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isNotModified(),
+                content().string("")
+        );
+    }
+
+    @Test
+    @DisplayName("Should update product conditionally on version from If-Match")
+    public void givenIfMatch_whenUpdateProduct_thenUpdateProductWithExpectedVersion() throws Exception {
+        //given
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+
+        //when
+        ResultActions result = mockMvc.perform(put("/api/v1/products/{productId}", TestUtils.PRODUCT_MILK_ID)
+                .header(IF_MATCH, "\"3\"")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpect(status().isNoContent());
+
+        verify(productService, times(1)).updateProduct(TestUtils.PRODUCT_MILK_ID, 3L, request);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 412 PRECONDITION FAILED when If-Match does not match current product version")
+    public void givenStaleIfMatch_whenUpdateProduct_thenReturnStatusPreconditionFailed() throws Exception {
+        //given
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        String expectedExceptionMessage = PRODUCT_VERSION_MISMATCH.formatted(TestUtils.PRODUCT_MILK_ID);
+        doThrow(new PreconditionFailedException(expectedExceptionMessage))
+                .when(productService).updateProduct(TestUtils.PRODUCT_MILK_ID, 2L, request);
+
+        //when
+        ResultActions result = mockMvc.perform(put("/api/v1/products/{productId}", TestUtils.PRODUCT_MILK_ID)
+                .header(IF_MATCH, "\"2\"")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpectAll(
+                status().isPreconditionFailed(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.message").value(expectedExceptionMessage),
+                jsonPath("$.statusCode").value(PRECONDITION_FAILED.value())
+        );
+    }
+}
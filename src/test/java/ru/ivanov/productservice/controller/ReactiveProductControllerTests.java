@@ -0,0 +1,180 @@
+package ru.ivanov.productservice.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.service.ReactiveProductService;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.util.UUID;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.mockito.Mockito.*;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+import static org.springframework.http.HttpHeaders.LOCATION;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_VERSION_MISMATCH;
+
+@WebFluxTest(ReactiveProductController.class)
+public class ReactiveProductControllerTests {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private ReactiveProductService productService;
+
+    @Test
+    @DisplayName("Should return status 201 CREATED with location and product DTO when creating product with valid request")
+    public void givenValidCreateProductRequest_whenCreateProduct_thenReturnStatusCreatedAndCreatedProductDtoAsBody() {
+        //given
+        CreateProductRequest request = TestUtils.getCreateProductMilkRequest();
+        ProductDto expectedDto = TestUtils.getProductMilkPersistedDto();
+        when(productService.createProduct(request)).thenReturn(Mono.just(expectedDto));
+
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post().uri("/api/v1/products")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange();
+
+        //then
+        result.expectStatus().isCreated()
+                .expectHeader().value(LOCATION, containsString("api/v1/products/" + expectedDto.id()))
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(expectedDto.id().toString())
+                .jsonPath("$.title").isEqualTo(expectedDto.title())
+                .jsonPath("$.details").isEqualTo(expectedDto.details());
+
+        verify(productService, times(1)).createProduct(request);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 400 BAD REQUEST and error response when creating product with invalid request")
+    public void givenInvalidCreateProductRequest_whenCreateProduct_thenReturnStatusBadRequestAndErrorResponseAsBody() {
+        //given
+        CreateProductRequest invalidRequest = new CreateProductRequest("Title", "");
+
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.post().uri("/api/v1/products")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(invalidRequest)
+                .exchange();
+
+        //then
+        result.expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.path").isEqualTo("/api/v1/products")
+                .jsonPath("$.message").value(startsWith("Validation failed"))
+                .jsonPath("$.message").value(containsString("details не должно быть пустым"))
+                .jsonPath("$.statusCode").isEqualTo(BAD_REQUEST.value());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return product with its version as ETag and 304 NOT MODIFIED for matching If-None-Match")
+    public void givenExistingProduct_whenGetProduct_thenReturnETagAndNotModifiedOnRevalidation() {
+        //given
+        ProductDto productDto = TestUtils.getProductMilkPersistedDto();
+        when(productService.getProductById(productDto.id())).thenReturn(Mono.just(productDto));
+
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/v1/products/{productId}", productDto.id())
+                .exchange();
+        WebTestClient.ResponseSpec revalidated = webTestClient.get().uri("/api/v1/products/{productId}", productDto.id())
+                .header(IF_NONE_MATCH, "\"0\"")
+                .exchange();
+
+        //then
+        result.expectStatus().isOk()
+                .expectHeader().valueEquals(ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(productDto.id().toString())
+                .jsonPath("$.version").doesNotExist();
+        revalidated.expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Should return status 404 NOT FOUND and error response when getting product with not existent ID")
+    public void givenNotExistentProductId_whenGetProduct_thenReturnStatusNotFoundAndErrorResponse() {
+        //given
+        UUID productId = UUID.randomUUID();
+        String expectedMessage = PRODUCT_NOT_FOUND_WITH_ID.formatted(productId);
+        when(productService.getProductById(productId)).thenReturn(Mono.error(new ResourceNotFoundException(expectedMessage)));
+
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.get().uri("/api/v1/products/{productId}", productId)
+                .exchange();
+
+        //then
+        result.expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.path").isEqualTo("/api/v1/products/" + productId)
+                .jsonPath("$.message").isEqualTo(expectedMessage)
+                .jsonPath("$.statusCode").isEqualTo(NOT_FOUND.value())
+                .jsonPath("$.timestamp").exists();
+    }
+
+    @Test
+    @DisplayName("Should return status 412 PRECONDITION FAILED when updating product with stale If-Match")
+    public void givenStaleIfMatch_whenUpdateProduct_thenReturnStatusPreconditionFailed() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        String expectedMessage = PRODUCT_VERSION_MISMATCH.formatted(productId);
+        when(productService.updateProduct(productId, 3L, request))
+                .thenReturn(Mono.error(new PreconditionFailedException(expectedMessage)));
+
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.put().uri("/api/v1/products/{productId}", productId)
+                .header(IF_MATCH, "\"3\"")
+                .contentType(APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange();
+
+        //then
+        result.expectStatus().isEqualTo(PRECONDITION_FAILED)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo(expectedMessage)
+                .jsonPath("$.statusCode").isEqualTo(PRECONDITION_FAILED.value());
+
+        verify(productService, times(1)).updateProduct(productId, 3L, request);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should return status 204 NO CONTENT when deleting existing product")
+    public void givenExistingProductId_whenDeleteProduct_thenReturnStatusNoContent() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        when(productService.deleteProduct(productId)).thenReturn(Mono.empty());
+
+        //when
+        WebTestClient.ResponseSpec result = webTestClient.delete().uri("/api/v1/products/{productId}", productId)
+                .exchange();
+
+        //then
+        result.expectStatus().isNoContent()
+                .expectBody().isEmpty();
+
+        verify(productService, times(1)).deleteProduct(productId);
+        verifyNoMoreInteractions(productService);
+    }
+}
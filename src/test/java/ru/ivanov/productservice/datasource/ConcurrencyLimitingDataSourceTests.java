@@ -0,0 +1,81 @@
+package ru.ivanov.productservice.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConcurrencyLimitingDataSourceTests {
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection targetConnection;
+
+    private ConcurrencyLimitingDataSource dataSourceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        dataSourceUnderTest = new ConcurrencyLimitingDataSource(targetDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Should hold a permit while connection is open and return it once on close")
+    public void givenOpenedConnection_whenClosedTwice_thenPermitIsReturnedOnce() throws SQLException {
+        //given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        Connection connection = dataSourceUnderTest.getConnection();
+        int inFlightWhileOpen = dataSourceUnderTest.inFlight();
+
+        //when
+        connection.close();
+        connection.close();
+
+        //then
+        assertThat(inFlightWhileOpen).isEqualTo(1);
+        assertThat(dataSourceUnderTest.inFlight()).isEqualTo(0);
+        assertThat(((ConnectionProxy) connection).getTargetConnection()).isSameAs(targetConnection);
+        verify(targetConnection, times(2)).close();
+    }
+
+    @Test
+    @DisplayName("Should fail with transient exception when no permit becomes available in time")
+    public void givenAllPermitsTaken_whenGetConnection_thenTimesOut() throws SQLException {
+        //given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        dataSourceUnderTest.getConnection();
+
+        //when
+        //then
+        assertThatThrownBy(() -> dataSourceUnderTest.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    @DisplayName("Should return permit when target data source fails to open a connection")
+    public void givenFailingTargetDataSource_whenGetConnection_thenPermitIsReturned() throws SQLException {
+        //given
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+        //when
+        //then
+        assertThatThrownBy(() -> dataSourceUnderTest.getConnection())
+                .isInstanceOf(SQLException.class)
+                .hasMessage("pool exhausted");
+        assertThat(dataSourceUnderTest.inFlight()).isEqualTo(0);
+    }
+}
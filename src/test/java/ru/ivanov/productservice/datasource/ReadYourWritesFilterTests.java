@@ -0,0 +1,81 @@
+package ru.ivanov.productservice.datasource;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTests {
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+    private static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(1_000_000), ZoneOffset.UTC);
+
+    private final ReadYourWritesFilter filterUnderTest = new ReadYourWritesFilter(WINDOW, CLOCK);
+
+    @Test
+    @DisplayName("Should pin reads to primary when cookie ends within one window")
+    public void givenCookieWithinWindow_whenGet_thenReadIsPinnedToPrimary() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE, String.valueOf(CLOCK.millis() + 1_000)));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        //when
+        filterUnderTest.doFilter(request, new MockHttpServletResponse(), recordingPin(pinned));
+
+        //then
+        assertThat(pinned).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not pin reads to primary when cookie ends further ahead than one window")
+    public void givenFarFutureCookie_whenGet_thenReadIsNotPinnedToPrimary() throws Exception {
+        //given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE, String.valueOf(Long.MAX_VALUE)));
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        //when
+        filterUnderTest.doFilter(request, new MockHttpServletResponse(), recordingPin(pinned));
+
+        //then
+        assertThat(pinned).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should open window on create but not on lookup by ids")
+    public void givenCreateAndLookup_whenFilter_thenOnlyCreateSetsCookie() throws Exception {
+        //given
+        MockHttpServletResponse createResponse = new MockHttpServletResponse();
+        MockHttpServletResponse lookupResponse = new MockHttpServletResponse();
+
+        //when
+        filterUnderTest.doFilter(new MockHttpServletRequest("POST", "/api/v1/products"), createResponse, new MockFilterChain());
+        filterUnderTest.doFilter(new MockHttpServletRequest("POST", "/api/v1/products/lookup"), lookupResponse, new MockFilterChain());
+
+        //then
+        assertThat(createResponse.getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE).getValue())
+                .isEqualTo(String.valueOf(CLOCK.millis() + WINDOW.toMillis()));
+        assertThat(lookupResponse.getCookie(ReadYourWritesFilter.PRIMARY_UNTIL_COOKIE)).isNull();
+    }
+
+    private static MockFilterChain recordingPin(AtomicBoolean pinned) {
+        return new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                pinned.set(ReadYourWrites.isPinnedToPrimary());
+            }
+        };
+    }
+}
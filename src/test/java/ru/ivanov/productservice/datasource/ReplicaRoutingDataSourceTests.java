@@ -0,0 +1,171 @@
+package ru.ivanov.productservice.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.cache.ProductCache;
+import ru.ivanov.productservice.cache.ProductCacheProperties;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.index.ProductIdFilter;
+import ru.ivanov.productservice.index.ProductIdFilterProperties;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.repository.ProductRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ReplicaRoutingDataSourceTests {
+    private static final String NODE_QUERY = "SELECT name FROM node";
+
+    private static final String PRODUCT_IDS_QUERY = "SELECT id FROM product_id";
+
+    private DataSource primary;
+    private ReplicaRoutingDataSource routingDataSource;
+    private ReplicaPoolDataSource replicaPool;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        primary = node("primary");
+        replicaPool = new ReplicaPoolDataSource(
+                primary,
+                List.of(node("replica-0"), node("replica-1")),
+                ReplicaBalancing.LEAST_CONNECTIONS
+        );
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicaPool);
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routingDataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    @DisplayName("Should read from a replica in read-only transactions and from the primary otherwise")
+    public void givenPrimaryAndReplicas_whenReadOnlyAndReadWriteTransactions_thenRoutedByReadOnlyFlag() {
+        //when
+        String readOnlyNode = readOnlyTransaction.execute(status -> currentNode());
+        String readWriteNode = readWriteTransaction.execute(status -> currentNode());
+
+        //then
+        assertThat(readOnlyNode).startsWith("replica-");
+        assertThat(readWriteNode).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should keep read-only transactions on the primary while the thread is pinned after a write")
+    public void givenPinnedThread_whenReadOnlyTransaction_thenReadsFromPrimary() {
+        //given
+        ReadYourWrites.pinToPrimary();
+
+        //when
+        String node = readOnlyTransaction.execute(status -> currentNode());
+
+        //then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Should pick the replica with fewer borrowed connections and release it on close")
+    public void givenBorrowedReplicaConnection_whenNextConnection_thenOtherReplicaIsPicked() throws SQLException {
+        //given
+        try (Connection first = replicaPool.getConnection()) {
+            int busyReplica = replicaPool.borrowed(0) == 1 ? 0 : 1;
+
+            //when
+            try (Connection second = replicaPool.getConnection()) {
+
+                //then
+                assertThat(replicaPool.borrowed(busyReplica)).isEqualTo(1);
+                assertThat(replicaPool.borrowed(1 - busyReplica)).isEqualTo(1);
+            }
+        }
+        assertThat(replicaPool.borrowed(0)).isZero();
+        assertThat(replicaPool.borrowed(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should load cache misses from the primary while the replicas lag behind")
+    public void givenLaggingReplicas_whenCacheMiss_thenLoadedFromPrimary() {
+        //given
+        ProductCache productCache = new ProductCache(
+                new ProductCacheProperties(100, Duration.ofMinutes(10)),
+                new SimpleMeterRegistry()
+        );
+        UUID productId = UUID.randomUUID();
+
+        //when
+        ProductDto loaded = productCache.get(productId, id -> new ProductDto(
+                id, readOnlyTransaction.execute(status -> currentNode()), "details", 0L
+        ));
+        String uncachedNode = readOnlyTransaction.execute(status -> currentNode());
+
+        //then
+        assertThat(loaded.title()).isEqualTo("primary");
+        assertThat(uncachedNode).startsWith("replica-");
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the id filter from the primary while the replicas lag behind")
+    public void givenIdNotYetReplicated_whenRebuildIdFilter_thenFilterContainsId() {
+        //given
+        UUID productId = UUID.randomUUID();
+        new JdbcTemplate(primary).update("INSERT INTO product_id (id) VALUES (?)", productId);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.streamAllIds())
+                .thenAnswer(invocation -> jdbcTemplate.queryForList(PRODUCT_IDS_QUERY, UUID.class).stream());
+        ProductIdFilter productIdFilter = new ProductIdFilter(
+                productRepository,
+                mock(ProductCounter.class),
+                new DataSourceTransactionManager(routingDataSource),
+                new ProductIdFilterProperties(true, 0.01, Duration.ofMinutes(10)),
+                new SimpleMeterRegistry()
+        );
+
+        //when
+        productIdFilter.rebuild();
+
+        //then
+        assertThat(productIdFilter.mightContain(productId)).isTrue();
+        List<UUID> replicatedIds = readOnlyTransaction.execute(
+                status -> jdbcTemplate.queryForList(PRODUCT_IDS_QUERY, UUID.class)
+        );
+        assertThat(replicatedIds).isEmpty();
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject(NODE_QUERY, String.class);
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""
+        );
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32))");
+        jdbcTemplate.execute("CREATE TABLE product_id (id UUID)");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,73 @@
+package ru.ivanov.productservice.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StatementCountingDataSourceTests {
+    @Mock
+    private DataSource targetDataSource;
+    @Mock
+    private Connection targetConnection;
+    @Mock
+    private PreparedStatement targetStatement;
+
+    private StatementCountingDataSource dataSourceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        dataSourceUnderTest = new StatementCountingDataSource(targetDataSource);
+        QueryStats.current().reset();
+    }
+
+    @Test
+    @DisplayName("Should count executions, a whole batch once, and ignore parameter binding")
+    public void givenPreparedStatement_whenExecutedAndBatched_thenEachExecuteCountsOnce() throws SQLException {
+        //given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        when(targetConnection.prepareStatement("SELECT 1")).thenReturn(targetStatement);
+        Connection connection = dataSourceUnderTest.getConnection();
+
+        //when
+        PreparedStatement statement = connection.prepareStatement("SELECT 1");
+        statement.setInt(1, 42);
+        statement.executeQuery();
+        statement.addBatch();
+        statement.addBatch();
+        statement.executeBatch();
+
+        //then
+        assertThat(QueryStats.current().count()).isEqualTo(2);
+        assertThat(statement.getConnection()).isSameAs(connection);
+        verify(targetStatement, times(1)).executeQuery();
+        verify(targetStatement, times(1)).executeBatch();
+    }
+
+    @Test
+    @DisplayName("Should start counting from zero after reset")
+    public void givenCountedStatements_whenReset_thenCountIsZero() throws SQLException {
+        //given
+        when(targetDataSource.getConnection()).thenReturn(targetConnection);
+        when(targetConnection.prepareStatement("DELETE FROM products")).thenReturn(targetStatement);
+        dataSourceUnderTest.getConnection().prepareStatement("DELETE FROM products").executeUpdate();
+
+        //when
+        QueryStats.current().reset();
+
+        //then
+        assertThat(QueryStats.current().count()).isZero();
+        assertThat(QueryStats.current().nanos()).isZero();
+    }
+}
@@ -0,0 +1,243 @@
+package ru.ivanov.productservice.groupcommit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.id.UuidV7Generator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductCreatePipelineTests {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+    private ProductCreatePipeline pipelineUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(productMapper.toDto(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return new ProductDto(product.getId(), product.getTitle(), product.getDetails(), product.getVersion());
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        callers.shutdownNow();
+        if (pipelineUnderTest != null) {
+            pipelineUnderTest.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Should insert concurrent creates in one batch and answer every caller with its own product")
+    @SuppressWarnings("unchecked")
+    public void givenConcurrentCreates_whenCreate_thenInsertThemInOneBatch() throws Exception {
+        //given
+        pipelineUnderTest = pipeline(3, Duration.ofSeconds(5), 10, Duration.ofSeconds(1));
+
+        //when
+        Future<ProductDto> milk = callers.submit(() -> pipelineUnderTest.create(request("Milk")));
+        Future<ProductDto> butter = callers.submit(() -> pipelineUnderTest.create(request("Butter")));
+        Future<ProductDto> cottage = callers.submit(() -> pipelineUnderTest.create(request("Cottage")));
+
+        //then
+        assertThat(milk.get(5, TimeUnit.SECONDS).title()).isEqualTo("Milk");
+        assertThat(butter.get(5, TimeUnit.SECONDS).title()).isEqualTo("Butter");
+        assertThat(cottage.get(5, TimeUnit.SECONDS).title()).isEqualTo("Cottage");
+        assertThat(milk.get().id()).isNotNull().isNotEqualTo(butter.get().id());
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productJdbcRepository).insertAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Product::getTitle)
+                .containsExactlyInAnyOrder("Milk", "Butter", "Cottage");
+        verify(eventPublisher, times(3)).publishEvent(any(ProductChangedEvent.class));
+        verify(transactionManager).commit(any());
+        assertThat(meterRegistry.get("product.group.commit.batch.size").summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should fail only the create that broke its batch")
+    public void givenBatchWithFailingCreate_whenCreate_thenOnlyFailingCallerGetsError() throws Exception {
+        //given
+        pipelineUnderTest = pipeline(2, Duration.ofSeconds(5), 10, Duration.ofSeconds(1));
+        lenient().doThrow(new DataIntegrityViolationException("value too long"))
+                .when(productJdbcRepository)
+                .insertAll(argThat(products -> products.stream().anyMatch(p -> p.getTitle().equals("Broken"))));
+
+        //when
+        Future<ProductDto> milk = callers.submit(() -> pipelineUnderTest.create(request("Milk")));
+        Future<ProductDto> broken = callers.submit(() -> pipelineUnderTest.create(request("Broken")));
+
+        //then
+        assertThat(milk.get(5, TimeUnit.SECONDS).title()).isEqualTo("Milk");
+        assertThatThrownBy(() -> broken.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(productJdbcRepository, times(3)).insertAll(anyList());
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the ids of a partly committed batch and not insert its stored products again")
+    public void givenPartlyCommittedBatch_whenRetried_thenStoredProductsAreNotInsertedAgain() throws Exception {
+        //given
+        pipelineUnderTest = pipeline(2, Duration.ofSeconds(5), 10, Duration.ofSeconds(1));
+        Set<UUID> committed = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+            List<Product> products = invocation.getArgument(0);
+            if (products.size() > 1) {
+                // one shard committed its part before another shard failed
+                products.stream()
+                        .filter(product -> product.getTitle().equals("Milk"))
+                        .forEach(product -> committed.add(product.getId()));
+                throw new CannotGetJdbcConnectionException("shard is down");
+            }
+            return null;
+        }).when(productJdbcRepository).insertAll(anyList());
+        when(productJdbcRepository.existsById(any(UUID.class)))
+                .thenAnswer(invocation -> committed.contains(invocation.<UUID>getArgument(0)));
+
+        //when
+        Future<ProductDto> milk = callers.submit(() -> pipelineUnderTest.create(request("Milk")));
+        Future<ProductDto> butter = callers.submit(() -> pipelineUnderTest.create(request("Butter")));
+
+        //then
+        assertThat(milk.get(5, TimeUnit.SECONDS).id()).isIn(committed);
+        assertThat(butter.get(5, TimeUnit.SECONDS).title()).isEqualTo("Butter");
+        verify(productJdbcRepository, times(2)).insertAll(anyList());
+        verify(productJdbcRepository).insertAll(argThat(products ->
+                products.size() == 1 && products.get(0).getTitle().equals("Butter")));
+        verify(eventPublisher, times(2)).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a create when the queue stays full")
+    public void givenFullQueue_whenCreate_thenRejectCreate() throws Exception {
+        //given
+        pipelineUnderTest = pipeline(1, Duration.ZERO, 1, Duration.ofMillis(50));
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            flushing.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(productJdbcRepository).insertAll(anyList());
+        Future<ProductDto> inFlight = callers.submit(() -> pipelineUnderTest.create(request("Milk")));
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ProductDto> queued = callers.submit(() -> pipelineUnderTest.create(request("Butter")));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pipelineUnderTest.queued() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        //when
+        assertThatThrownBy(() -> pipelineUnderTest.create(request("Cottage")))
+                .isInstanceOf(CannotCreateTransactionException.class);
+        release.countDown();
+
+        //then
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).title()).isEqualTo("Milk");
+        assertThat(queued.get(5, TimeUnit.SECONDS).title()).isEqualTo("Butter");
+    }
+
+    private ProductCreatePipeline pipeline(int maxBatchSize, Duration maxWait, int queueCapacity, Duration timeout) {
+        return pipeline(maxBatchSize, maxWait, queueCapacity, timeout, Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should fail only the batch the flusher broke down on and keep flushing later creates")
+    public void givenErrorWhileFlushing_whenCreate_thenBatchFailsAndFlusherSurvives() {
+        //given
+        pipelineUnderTest = pipeline(1, Duration.ZERO, 10, Duration.ofSeconds(1));
+        doThrow(new StackOverflowError())
+                .doNothing()
+                .when(productJdbcRepository).insertAll(anyList());
+
+        //when
+        assertThatThrownBy(() -> pipelineUnderTest.create(request("Milk")))
+                .isInstanceOf(CannotCreateTransactionException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        ProductDto butter = pipelineUnderTest.create(request("Butter"));
+
+        //then
+        assertThat(butter.title()).isEqualTo("Butter");
+        verify(productJdbcRepository, times(2)).insertAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should stop waiting for a batch that does not commit within the commit timeout")
+    public void givenStuckCommit_whenCreate_thenTimesOut() {
+        //given
+        pipelineUnderTest = pipeline(1, Duration.ZERO, 10, Duration.ofSeconds(1), Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(productJdbcRepository).insertAll(anyList());
+
+        //when
+        Throwable thrown = catchThrowable(() -> pipelineUnderTest.create(request("Milk")));
+        release.countDown();
+
+        //then
+        assertThat(thrown)
+                .isInstanceOf(CannotCreateTransactionException.class)
+                .hasMessageContaining("Timed out");
+    }
+
+    private ProductCreatePipeline pipeline(
+            int maxBatchSize,
+            Duration maxWait,
+            int queueCapacity,
+            Duration enqueueTimeout,
+            Duration commitTimeout
+    ) {
+        GroupCommitProperties properties =
+                new GroupCommitProperties(true, maxBatchSize, maxWait, queueCapacity, enqueueTimeout, commitTimeout);
+        return new ProductCreatePipeline(
+                productJdbcRepository, productMapper, UuidV7Generator.shared(), eventPublisher, transactionManager,
+                properties, meterRegistry
+        );
+    }
+
+    private static CreateProductRequest request(String title) {
+        return new CreateProductRequest(title, "Best " + title.toLowerCase() + " in the world");
+    }
+}
@@ -0,0 +1,77 @@
+package ru.ivanov.productservice.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidV7GeneratorTests {
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    @DisplayName("Should set version 7, the RFC variant and the Unix milliseconds in the leading 48 bits")
+    public void givenClock_whenNextId_thenIdCarriesVersionVariantAndTimestamp() {
+        //given
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+
+        //when
+        UUID id = generator.nextId();
+
+        //then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(NOW);
+    }
+
+    @Test
+    @DisplayName("Should increase strictly within a millisecond, past counter overflow and when the clock steps back")
+    public void givenStalledAndReversedClock_whenNextId_thenIdsStrictlyIncrease() {
+        //given
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7Generator generator = new UuidV7Generator(clock::get);
+        List<UUID> ids = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+        clock.set(NOW - 1_000);
+        ids.add(generator.nextId());
+
+        //then
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i).getMostSignificantBits()).isGreaterThan(ids.get(i - 1).getMostSignificantBits());
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand out unique ids to concurrent callers")
+    public void givenConcurrentCallers_whenNextId_thenIdsAreUnique() throws Exception {
+        //given
+        UuidV7Generator generator = new UuidV7Generator(() -> NOW);
+        Set<Long> timestampsAndCounters = ConcurrentHashMap.newKeySet();
+
+        //when
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int task = 0; task < 8; task++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        timestampsAndCounters.add(generator.nextId().getMostSignificantBits());
+                    }
+                });
+            }
+        }
+
+        //then
+        assertThat(timestampsAndCounters).hasSize(80_000);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.ivanov.productservice.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.repository.ProductRepository;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductIdFilterTests {
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductCounter productCounter;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private ProductIdFilter filterUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filterUnderTest = new ProductIdFilter(
+                productRepository,
+                productCounter,
+                transactionManager,
+                new ProductIdFilterProperties(true, 0.01, Duration.ofMinutes(10)),
+                meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("Should treat every id as possibly existing until filter is built")
+    public void givenFilterNotBuilt_whenMightContain_thenReturnTrue() {
+        //when and then
+        assertThat(filterUnderTest.mightContain(UUID.randomUUID())).isTrue();
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should rule out unknown ids and count definite misses after rebuild")
+    public void givenRebuiltFilter_whenMightContain_thenRuleOutUnknownIds() {
+        //given
+        when(productCounter.get()).thenReturn(1L);
+        when(productRepository.streamAllIds()).thenReturn(Stream.of(TestUtils.PRODUCT_MILK_ID));
+
+        //when
+        filterUnderTest.rebuild();
+
+        //then
+        assertThat(filterUnderTest.mightContain(TestUtils.PRODUCT_MILK_ID)).isTrue();
+        assertThat(filterUnderTest.mightContain(TestUtils.PRODUCT_BUTTER_ID)).isFalse();
+        assertThat(meterRegistry.get("product.id.filter.lookups").tag("result", "definite_miss").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should let through created product ids after rebuild")
+    public void givenRebuiltFilter_whenProductCreated_thenCreatedIdMightBeContained() {
+        //given
+        when(productRepository.streamAllIds()).thenReturn(Stream.empty());
+        filterUnderTest.rebuild();
+
+        //when
+        filterUnderTest.onProductChanged(ProductChangedEvent.created(TestUtils.getProductButterPersistedDto()));
+
+        //then
+        assertThat(filterUnderTest.mightContain(TestUtils.PRODUCT_BUTTER_ID)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not build filter when it is disabled")
+    public void givenDisabledFilter_whenRebuild_thenRepositoryIsNotScanned() {
+        //given
+        ProductIdFilter disabledFilter = new ProductIdFilter(
+                productRepository,
+                productCounter,
+                transactionManager,
+                new ProductIdFilterProperties(false, 0.01, Duration.ofMinutes(10)),
+                meterRegistry
+        );
+
+        //when
+        disabledFilter.rebuild();
+
+        //then
+        assertThat(disabledFilter.mightContain(UUID.randomUUID())).isTrue();
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.ivanov.productservice.index;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.repository.ProductRepository;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductTitleIndexTests {
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private ProductTitleIndex indexUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        indexUnderTest = new ProductTitleIndex(
+                productRepository,
+                transactionManager,
+                new ProductTitleIndexProperties(true),
+                meterRegistry
+        );
+    }
+
+    @Test
+    @DisplayName("Should load titles from repository and report index size")
+    public void givenStoredProducts_whenLoad_thenIndexIsReadyAndSizeIsReported() {
+        //given
+        when(productRepository.streamAllTitles()).thenReturn(Stream.of(
+                new ProductSuggestion(TestUtils.PRODUCT_MILK_ID, "Milk"),
+                new ProductSuggestion(TestUtils.PRODUCT_BUTTER_ID, "Butter")
+        ));
+
+        //when
+        indexUnderTest.load();
+
+        //then
+        assertThat(indexUnderTest.isReady()).isTrue();
+        assertThat(indexUnderTest.suggest("mi", 10))
+                .containsExactly(new ProductSuggestion(TestUtils.PRODUCT_MILK_ID, "Milk"));
+        assertThat(meterRegistry.get("product.title.index.titles").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("product.title.index.size").gauge().value()).isPositive();
+
+        verify(productRepository, times(1)).streamAllTitles();
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should follow created, updated and deleted products after load")
+    public void givenLoadedIndex_whenProductsChange_thenSuggestionsFollowChanges() {
+        //given
+        when(productRepository.streamAllTitles()).thenReturn(Stream.empty());
+        indexUnderTest.load();
+        ProductDto milk = TestUtils.getProductMilkPersistedDto();
+
+        //when
+        indexUnderTest.onProductChanged(ProductChangedEvent.created(milk));
+        indexUnderTest.onProductChanged(ProductChangedEvent.created(TestUtils.getProductButterPersistedDto()));
+        indexUnderTest.onProductChanged(ProductChangedEvent.updated(new ProductDto(milk.id(), "Oat milk", milk.details(), null)));
+        indexUnderTest.onProductChanged(ProductChangedEvent.deleted(TestUtils.PRODUCT_BUTTER_ID));
+
+        //then
+        assertThat(indexUnderTest.suggest("oat", 10))
+                .containsExactly(new ProductSuggestion(milk.id(), "Oat milk"));
+        assertThat(indexUnderTest.suggest("butt", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not load index when it is disabled")
+    public void givenDisabledIndex_whenLoad_thenRepositoryIsNotScanned() {
+        //given
+        ProductTitleIndex disabledIndex = new ProductTitleIndex(
+                productRepository,
+                transactionManager,
+                new ProductTitleIndexProperties(false),
+                meterRegistry
+        );
+
+        //when
+        disabledIndex.load();
+
+        //then
+        assertThat(disabledIndex.isReady()).isFalse();
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.ivanov.productservice.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TitlePrefixIndexTests {
+    private static final UUID BOTTLE_ID = UUID.randomUUID();
+    private static final UUID GLASS_ID = UUID.randomUUID();
+    private static final UUID BOTTLE_OPENER_ID = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should match prefix against start of title ignoring case and extra whitespace")
+    public void givenIndexedTitles_whenSuggest_thenMatchTitleStartsInAlphabeticalOrder() {
+        //given
+        TitlePrefixIndex indexUnderTest = new TitlePrefixIndex();
+        indexUnderTest.put(BOTTLE_ID, "Water Bottle");
+        indexUnderTest.put(GLASS_ID, "Glass of water");
+        indexUnderTest.put(BOTTLE_OPENER_ID, "Bottle opener");
+
+        //when
+        List<ProductSuggestion> waterSuggestions = indexUnderTest.suggest("  WAT", 10);
+        List<ProductSuggestion> bottleSuggestions = indexUnderTest.suggest("bottle   op", 10);
+        List<ProductSuggestion> titleStartSuggestions = indexUnderTest.suggest("b", 10);
+
+        //then
+        assertThat(waterSuggestions).containsExactly(new ProductSuggestion(BOTTLE_ID, "Water Bottle"));
+        assertThat(bottleSuggestions).containsExactly(new ProductSuggestion(BOTTLE_OPENER_ID, "Bottle opener"));
+        assertThat(titleStartSuggestions).containsExactly(new ProductSuggestion(BOTTLE_OPENER_ID, "Bottle opener"));
+    }
+
+    @Test
+    @DisplayName("Should return products with equal titles and at most limit suggestions")
+    public void givenEqualAndMatchingTitles_whenSuggest_thenReturnEveryProductUpToLimit() {
+        //given
+        TitlePrefixIndex indexUnderTest = new TitlePrefixIndex();
+        indexUnderTest.put(BOTTLE_ID, "Bottle");
+        indexUnderTest.put(GLASS_ID, "Bottle");
+        indexUnderTest.put(BOTTLE_OPENER_ID, "Bottle opener");
+
+        //when
+        List<ProductSuggestion> allSuggestions = indexUnderTest.suggest("bott", 10);
+        List<ProductSuggestion> limitedSuggestions = indexUnderTest.suggest("bott", 2);
+
+        //then
+        assertThat(allSuggestions).extracting(ProductSuggestion::id)
+                .containsExactlyInAnyOrder(BOTTLE_ID, BOTTLE_OPENER_ID, GLASS_ID);
+        assertThat(limitedSuggestions).extracting(ProductSuggestion::title).containsExactly("Bottle", "Bottle");
+    }
+
+    @Test
+    @DisplayName("Should forget old titles when title is replaced or product is removed")
+    public void givenReplacedAndRemovedTitles_whenSuggest_thenOnlyCurrentTitlesMatch() {
+        //given
+        TitlePrefixIndex indexUnderTest = new TitlePrefixIndex();
+        indexUnderTest.put(BOTTLE_ID, "Water bottle");
+        indexUnderTest.put(GLASS_ID, "Water glass");
+
+        //when
+        indexUnderTest.put(BOTTLE_ID, "Thermos");
+        indexUnderTest.remove(GLASS_ID);
+
+        //then
+        assertThat(indexUnderTest.suggest("wat", 10)).isEmpty();
+        assertThat(indexUnderTest.suggest("therm", 10)).containsExactly(new ProductSuggestion(BOTTLE_ID, "Thermos"));
+        assertThat(indexUnderTest.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should keep writes made during load over scanned titles and not bring back removed products")
+    public void givenWritesDuringLoad_whenScannedTitlesArrive_thenScannedTitlesDoNotOverrideWrites() {
+        //given
+        TitlePrefixIndex indexUnderTest = new TitlePrefixIndex();
+        indexUnderTest.startLoad();
+        indexUnderTest.put(BOTTLE_ID, "Thermos");
+        indexUnderTest.remove(GLASS_ID);
+
+        //when
+        indexUnderTest.putIfAbsent(BOTTLE_ID, "Water bottle");
+        indexUnderTest.putIfAbsent(GLASS_ID, "Water glass");
+        indexUnderTest.putIfAbsent(BOTTLE_OPENER_ID, "Bottle opener");
+        indexUnderTest.finishLoad();
+
+        //then
+        assertThat(indexUnderTest.suggest("wat", 10)).isEmpty();
+        assertThat(indexUnderTest.suggest("therm", 10)).containsExactly(new ProductSuggestion(BOTTLE_ID, "Thermos"));
+        assertThat(indexUnderTest.suggest("bot", 10))
+                .containsExactly(new ProductSuggestion(BOTTLE_OPENER_ID, "Bottle opener"));
+        assertThat(indexUnderTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report estimated memory growing with indexed titles")
+    public void givenIndexedTitles_whenEstimatedSizeInBytes_thenSizeGrowsWithTitles() {
+        //given
+        TitlePrefixIndex indexUnderTest = new TitlePrefixIndex();
+        long emptySize = indexUnderTest.estimatedSizeInBytes();
+
+        //when
+        indexUnderTest.put(BOTTLE_ID, "Water bottle");
+
+        //then
+        assertThat(emptySize).isZero();
+        assertThat(indexUnderTest.estimatedSizeInBytes()).isGreaterThan(emptySize);
+        assertThat(indexUnderTest.size()).isEqualTo(1);
+    }
+}
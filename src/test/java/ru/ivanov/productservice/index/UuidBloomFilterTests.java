@@ -0,0 +1,45 @@
+package ru.ivanov.productservice.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+
+public class UuidBloomFilterTests {
+
+    @Test
+    @DisplayName("Should never report put id as absent")
+    public void givenPutIds_whenMightContain_thenAlwaysTrue() {
+        //given
+        UuidBloomFilter filterUnderTest = new UuidBloomFilter(10_000, 0.01);
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(10_000).toList();
+
+        //when
+        ids.forEach(filterUnderTest::put);
+
+        //then
+        assertThat(ids.stream().allMatch(filterUnderTest::mightContain)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep false positive rate close to configured one when filled up to expected insertions")
+    public void givenFilledFilter_whenMightContainUnknownIds_thenFalsePositiveRateIsBounded() {
+        //given
+        double falsePositiveRate = 0.01;
+        UuidBloomFilter filterUnderTest = new UuidBloomFilter(10_000, falsePositiveRate);
+        Stream.generate(UUID::randomUUID).limit(10_000).forEach(filterUnderTest::put);
+
+        //when
+        long falsePositives = Stream.generate(UUID::randomUUID).limit(100_000)
+                .filter(filterUnderTest::mightContain)
+                .count();
+
+        //then
+        assertThat(falsePositives / 100_000.0).isLessThan(falsePositiveRate * 2);
+        assertThat(filterUnderTest.expectedFalsePositiveRate()).isLessThan(falsePositiveRate * 2);
+    }
+}
@@ -8,20 +8,27 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.ivanov.productservice.model.dto.request.BatchOperationRequest;
+import ru.ivanov.productservice.model.dto.request.BatchProductRequest;
 import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
 import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
 import ru.ivanov.productservice.model.entity.Product;
 import ru.ivanov.productservice.repository.ProductRepository;
 import ru.ivanov.productservice.util.TestUtils;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.hamcrest.CoreMatchers.*;
@@ -31,7 +38,9 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static ru.ivanov.productservice.model.dto.request.BatchOperationType.*;
 import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+import static ru.ivanov.productservice.util.QueryCountMatchers.queryCount;
 
 @ActiveProfiles("test")
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -230,6 +239,51 @@ public class ItProductRestControllerTests extends AbstractRestControllerBaseTest
         );
     }
 
+    @Test
+    @DisplayName("Should return status 200 OK and walk all products page by page when getting products by cursor")
+    public void givenThreeProductsExisted_whenGetProductsByCursor_thenReturnAllProductsPageByPage() throws Exception {
+        //given
+        Product productMilkPersisted = productRepository.save(TestUtils.getProductMilkTransient());
+        Product productButterPersisted = productRepository.save(TestUtils.getProductButterTransient());
+        Product productCottagePersisted = productRepository.save(TestUtils.getProductCottageTransient());
+
+        //when
+        ResultActions firstPageResult = mockMvc.perform(get("/api/v1/products")
+                .param("after", "")
+                .param("size", "2")
+                .accept(APPLICATION_JSON)
+        );
+
+        //then
+        firstPageResult.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.pageSize", is(2)),
+                jsonPath("$.hasNext", is(TRUE)),
+                jsonPath("$.nextCursor", notNullValue()),
+                jsonPath("$.content.size()", is(2))
+        );
+
+        String nextCursor = objectMapper.readTree(firstPageResult.andReturn().getResponse().getContentAsString())
+                .get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/products")
+                        .param("after", nextCursor)
+                        .param("size", "2")
+                        .accept(APPLICATION_JSON))
+                .andExpectAll(
+                        status().isOk(),
+                        jsonPath("$.hasNext", is(FALSE)),
+                        jsonPath("$.nextCursor", nullValue()),
+                        jsonPath("$.content.size()", is(1)),
+                        jsonPath("$.content[0].id", anyOf(
+                                is(productMilkPersisted.getId().toString()),
+                                is(productButterPersisted.getId().toString()),
+                                is(productCottagePersisted.getId().toString())
+                        ))
+                );
+    }
+
     @Test
     @DisplayName("Should return status 200 OK and product DTO when getting product with existent id")
     public void givenExistentProductId_whenGetProduct_thenReturnStatusOKAndProductDtoAsBody() throws Exception {
@@ -446,4 +500,260 @@ public class ItProductRestControllerTests extends AbstractRestControllerBaseTest
                 jsonPath("$.timestamp", notNullValue())
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should create, update and delete products in one batch and report per-operation results")
+    public void givenMixedBatchRequest_whenExecuteBatch_thenApplyOperationsAndReturnPerOperationResults() throws Exception {
+        //given
+        Product milk = productRepository.save(TestUtils.getProductMilkTransient());
+        Product butter = productRepository.save(TestUtils.getProductButterTransient());
+        UUID notExistentProductId = UUID.randomUUID();
+        BatchProductRequest request = new BatchProductRequest(List.of(
+                new BatchOperationRequest(CREATE, null, "Water", "Best water in the world"),
+                new BatchOperationRequest(UPDATE, milk.getId(), "Milk", "Ordinary milk"),
+                new BatchOperationRequest(DELETE, butter.getId(), null, null),
+                new BatchOperationRequest(DELETE, notExistentProductId, null, null),
+                new BatchOperationRequest(CREATE, null, "", "Invalid product")
+        ));
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/batch")
+                .contentType(APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.succeeded").value(3),
+                jsonPath("$.failed").value(2),
+                jsonPath("$.results[0].statusCode").value(201),
+                jsonPath("$.results[0].id", notNullValue()),
+                jsonPath("$.results[1].statusCode").value(204),
+                jsonPath("$.results[2].statusCode").value(204),
+                jsonPath("$.results[3].statusCode").value(NOT_FOUND.value()),
+                jsonPath("$.results[3].message").value(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentProductId)),
+                jsonPath("$.results[4].statusCode").value(BAD_REQUEST.value())
+        );
+
+        assertThat(productRepository.count()).isEqualTo(2);
+        assertThat(productRepository.existsById(butter.getId())).isFalse();
+        assertThat(productRepository.findById(milk.getId()).map(Product::getDetails)).contains("Ordinary milk");
+    }
+
+    @Test
+    @DisplayName("Should return products in requested order and not found ids when getting products by ids")
+    public void givenExistentAndNotExistentIds_whenGetProductsByIds_thenReturnProductsInRequestedOrder() throws Exception {
+        //given
+        Product milk = productRepository.save(TestUtils.getProductMilkTransient());
+        Product butter = productRepository.save(TestUtils.getProductButterTransient());
+        UUID notExistentProductId = UUID.randomUUID();
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products")
+                .param("ids", butter.getId() + "," + notExistentProductId + "," + milk.getId())
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.content[0].id").value(butter.getId().toString()),
+                jsonPath("$.content[1].id").value(milk.getId().toString()),
+                jsonPath("$.notFound[0]").value(notExistentProductId.toString())
+        );
+    }
+
+    @Test
+    @DisplayName("Should stream all products ordered by id and resume after given id when exporting products")
+    public void givenThreeProducts_whenExportProducts_thenStreamAllProductsAndResumeAfterGivenId() throws Exception {
+        //given
+        List<Product> products = productRepository.saveAll(List.of(
+                TestUtils.getProductMilkTransient(),
+                TestUtils.getProductButterTransient(),
+                TestUtils.getProductCottageTransient()
+        )).stream().sorted(Comparator.comparing(product -> product.getId().toString())).toList();
+
+        //when
+        MvcResult fullExport = mockMvc.perform(get("/api/v1/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult resumedExport = mockMvc.perform(get("/api/v1/products/export")
+                        .param("format", "csv")
+                        .param("after", products.get(0).getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        String ndjson = mockMvc.perform(asyncDispatch(fullExport))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        List<String> lines = ndjson.lines().toList();
+        assertThat(lines.size()).isEqualTo(3);
+        for (int i = 0; i < products.size(); i++) {
+            assertThat(lines.get(i)).contains("\"id\":\"%s\"".formatted(products.get(i).getId()));
+        }
+
+        String csv = mockMvc.perform(asyncDispatch(resumedExport))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(csv.lines().toList()).isEqualTo(List.of(
+                "id,title,details",
+                "%s,%s,%s".formatted(products.get(1).getId(), products.get(1).getTitle(), products.get(1).getDetails()),
+                "%s,%s,%s".formatted(products.get(2).getId(), products.get(2).getTitle(), products.get(2).getDetails())
+        ));
+    }
+
+    @Test
+    @DisplayName("Should create and overwrite products and report rejected rows when importing products from CSV")
+    public void givenCsvUpload_whenImportProducts_thenCreateAndOverwriteProducts() throws Exception {
+        //given
+        Product milk = productRepository.save(TestUtils.getProductMilkTransient());
+        String csv = """
+                id,title,details
+                %s,Milk,Ordinary milk
+                ,Water,Best water in the world
+                ,,Missing title
+                """.formatted(milk.getId());
+
+        //when
+        ResultActions result = mockMvc.perform(post("/api/v1/products/import")
+                .contentType("text/csv")
+                .content(csv)
+        );
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.imported").value(2),
+                jsonPath("$.rejected").value(1),
+                jsonPath("$.rejectedRows[0].row").value(3)
+        );
+
+        assertThat(productRepository.count()).isEqualTo(2);
+        assertThat(productRepository.findById(milk.getId()).map(Product::getDetails)).contains("Ordinary milk");
+    }
+
+    @Test
+    @DisplayName("Should return matching products when searching products")
+    public void givenThreeProducts_whenSearchProducts_thenReturnMatchingProducts() throws Exception {
+        //given
+        Product milk = productRepository.save(TestUtils.getProductMilkTransient());
+        productRepository.save(TestUtils.getProductButterTransient());
+        productRepository.save(TestUtils.getProductCottageTransient());
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/search").param("q", "milk"));
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.hasNext").value(FALSE),
+                jsonPath("$.content.length()").value(1),
+                jsonPath("$.content[0].id").value(milk.getId().toString())
+        );
+    }
+
+    @Test
+    @DisplayName("Should suggest products by title prefix and follow product changes")
+    public void givenProductsCreatedThroughApi_whenSuggestProducts_thenReturnCurrentMatches() throws Exception {
+        //given
+        String plushId = createProduct("Quokka plush toy");
+        String slippersId = createProduct("Plush quokka slippers");
+        mockMvc.perform(delete("/api/v1/products/{id}", slippersId))
+                .andExpect(status().isNoContent());
+
+        //when
+        ResultActions result = mockMvc.perform(get("/api/v1/products/suggest").param("prefix", "QUOK"));
+
+        //then
+        result.andExpectAll(
+                status().isOk(),
+                content().contentType(APPLICATION_JSON),
+                jsonPath("$.length()").value(1),
+                jsonPath("$[0].id").value(plushId),
+                jsonPath("$[0].title").value("Quokka plush toy")
+        );
+    }
+
+    private String createProduct(String title) throws Exception {
+        String body = mockMvc.perform(post("/api/v1/products")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CreateProductRequest(title, "Soft and cosy"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asText();
+    }
+
+    @Test
+    @DisplayName("Should serve product ETag, answer If-None-Match with 304 and reject stale If-Match with 412")
+    public void givenProduct_whenConditionalRequests_thenFollowProductVersion() throws Exception {
+        //given
+        Product productMilkPersisted = productRepository.save(TestUtils.getProductMilkTransient());
+        UUID productId = productMilkPersisted.getId();
+        String eTag = mockMvc.perform(get("/api/v1/products/{productId}", productId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String updateBody = objectMapper.writeValueAsString(new UpdateProductRequest("Milk", "Ordinary milk"));
+
+        //when
+        ResultActions notModified = mockMvc.perform(get("/api/v1/products/{productId}", productId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+        ResultActions updated = mockMvc.perform(put("/api/v1/products/{productId}", productId)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(APPLICATION_JSON)
+                .content(updateBody));
+        ResultActions rejected = mockMvc.perform(put("/api/v1/products/{productId}", productId)
+                .header(HttpHeaders.IF_MATCH, eTag)
+                .contentType(APPLICATION_JSON)
+                .content(updateBody));
+        ResultActions modified = mockMvc.perform(get("/api/v1/products/{productId}", productId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag));
+
+        //then
+        notModified.andExpect(status().isNotModified());
+        updated.andExpect(status().isNoContent());
+        rejected.andExpect(status().isPreconditionFailed());
+        modified.andExpectAll(
+                status().isOk(),
+                header().string(HttpHeaders.ETAG, not(eTag)),
+                jsonPath("$.details").value("Ordinary milk")
+        );
+    }
+
+    @Test
+    @DisplayName("Should stay within the SQL statement budget of every single product endpoint")
+    public void givenProduct_whenSingleProductRequests_thenRunBudgetedStatementCount() throws Exception {
+        //given
+        Product productMilkPersisted = productRepository.save(TestUtils.getProductMilkTransient());
+        UUID productId = productMilkPersisted.getId();
+        String createBody = objectMapper.writeValueAsString(TestUtils.getCreateProductMilkRequest());
+        String updateBody = objectMapper.writeValueAsString(new UpdateProductRequest("Milk", "Ordinary milk"));
+
+        //when
+        ResultActions created = mockMvc.perform(post("/api/v1/products")
+                .contentType(APPLICATION_JSON)
+                .content(createBody));
+        ResultActions loaded = mockMvc.perform(get("/api/v1/products/{productId}", productId));
+        ResultActions cached = mockMvc.perform(get("/api/v1/products/{productId}", productId));
+        ResultActions paged = mockMvc.perform(get("/api/v1/products?page=0&size=10"));
+        ResultActions updated = mockMvc.perform(put("/api/v1/products/{productId}", productId)
+                .contentType(APPLICATION_JSON)
+                .content(updateBody));
+        ResultActions deleted = mockMvc.perform(delete("/api/v1/products/{productId}", productId));
+        ResultActions missing = mockMvc.perform(delete("/api/v1/products/{productId}", productId));
+
+        //then
+        created.andExpectAll(status().isCreated(), queryCount(1));
+        loaded.andExpectAll(status().isOk(), queryCount(1));
+        cached.andExpectAll(status().isOk(), queryCount(0));
+        paged.andExpectAll(status().isOk(), queryCount(1));
+        updated.andExpectAll(status().isNoContent(), queryCount(1));
+        deleted.andExpectAll(status().isNoContent(), queryCount(1));
+        missing.andExpectAll(status().isNotFound(), queryCount(1));
+    }
+}
@@ -0,0 +1,146 @@
+package ru.ivanov.productservice.it;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.ivanov.productservice.ProductServiceApplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application once on the servlet stack and once on the reactive stack against the same
+ * PostgreSQL data and drives both with the same burst of slice requests, each one a database query.
+ * Run with {@code mvn test -Dtest=ServletVsReactiveBenchmarkTests -Dbenchmark=true}.
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ServletVsReactiveBenchmarkTests extends AbstractRestControllerBaseTest {
+    private static final int PRODUCTS = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int CONCURRENCY = 1_000;
+
+    @Test
+    @DisplayName("Should report throughput and latency of servlet and reactive stacks under the same load")
+    public void givenSameData_whenLoadingServletAndReactiveStacks_thenReportBoth() {
+        //given
+        try (ConfigurableApplicationContext servlet = start(WebApplicationType.SERVLET);
+             ConfigurableApplicationContext reactive = start(WebApplicationType.REACTIVE)) {
+            seed(servlet.getBean(JdbcTemplate.class));
+
+            //when
+            Result servletResult = load("servlet", servlet);
+            Result reactiveResult = load("reactive", reactive);
+
+            //then
+            System.out.println(servletResult);
+            System.out.println(reactiveResult);
+            assertThat(servletResult.failures()).isZero();
+            assertThat(reactiveResult.failures()).isZero();
+        }
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type) {
+        String r2dbcUrl = "r2dbc:postgresql://%s:%d/%s".formatted(
+                POSTGRE_SQL_CONTAINER.getHost(),
+                POSTGRE_SQL_CONTAINER.getFirstMappedPort(),
+                POSTGRE_SQL_CONTAINER.getDatabaseName()
+        );
+        return new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(type)
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=" + POSTGRE_SQL_CONTAINER.getJdbcUrl(),
+                        "spring.datasource.username=" + POSTGRE_SQL_CONTAINER.getUsername(),
+                        "spring.datasource.password=" + POSTGRE_SQL_CONTAINER.getPassword(),
+                        "spring.r2dbc.url=" + r2dbcUrl,
+                        "spring.r2dbc.username=" + POSTGRE_SQL_CONTAINER.getUsername(),
+                        "spring.r2dbc.password=" + POSTGRE_SQL_CONTAINER.getPassword()
+                )
+                .run();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM products");
+        List<Object[]> rows = IntStream.range(0, PRODUCTS)
+                .mapToObj(i -> new Object[]{UUID.randomUUID(), "Product " + i, "Details of product " + i})
+                .toList();
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, title, details) VALUES (?, ?, ?)", rows);
+    }
+
+    private static Result load(String stack, ConfigurableApplicationContext context) {
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        ConnectionProvider connections = ConnectionProvider.builder(stack)
+                .maxConnections(CONCURRENCY)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try {
+            WebClient client = WebClient.builder()
+                    .baseUrl("http://localhost:" + port + "/api/v1/products")
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .build();
+            burst(client, WARMUP_REQUESTS);
+
+            long startedAt = System.nanoTime();
+            List<Long> latencies = burst(client, REQUESTS);
+            long elapsed = System.nanoTime() - startedAt;
+
+            List<Long> succeeded = latencies.stream().filter(latency -> latency >= 0).sorted().toList();
+            return new Result(
+                    stack,
+                    REQUESTS * 1e9 / elapsed,
+                    succeeded.get(succeeded.size() / 2) / 1_000_000,
+                    succeeded.get(succeeded.size() * 99 / 100) / 1_000_000,
+                    REQUESTS - succeeded.size()
+            );
+        } finally {
+            connections.dispose();
+        }
+    }
+
+    // latency in nanoseconds of every request, -1 for a failed one
+    private static List<Long> burst(WebClient client, int requests) {
+        return Flux.range(0, requests)
+                .flatMap(i -> {
+                    long startedAt = System.nanoTime();
+                    int page = ThreadLocalRandom.current().nextInt(PRODUCTS / PAGE_SIZE);
+                    return client.get()
+                            .uri(uri -> uri.queryParam("withTotal", false)
+                                    .queryParam("page", page)
+                                    .queryParam("size", PAGE_SIZE)
+                                    .build())
+                            .retrieve()
+                            .toBodilessEntity()
+                            .map(response -> System.nanoTime() - startedAt)
+                            .onErrorReturn(-1L);
+                }, CONCURRENCY)
+                .collect(ArrayList<Long>::new, List::add)
+                .block();
+    }
+
+    private record Result(String stack, double throughput, long p50Millis, long p99Millis, int failures) {
+        @Override
+        public String toString() {
+            return "%-8s %,10.0f requests/s, p50 %,6d ms, p99 %,6d ms, %d failed"
+                    .formatted(stack, throughput, p50Millis, p99Millis, failures);
+        }
+    }
+}
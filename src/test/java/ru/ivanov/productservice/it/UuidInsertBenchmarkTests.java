@@ -0,0 +1,100 @@
+package ru.ivanov.productservice.it;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.id.RandomUuidGenerator;
+import ru.ivanov.productservice.id.UuidV7Generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts the same number of products once with random version 4 ids and once with time-ordered version 7 ids,
+ * each into a fresh copy of the products table, and reports the insert rate of every tenth of the run next to
+ * the final size of the primary key index. Random ids split leaves all over the index and evict its pages
+ * from the buffer cache once it outgrows it, so the v4 rate falls as the table grows.
+ * Run with {@code mvn test -Dtest=UuidInsertBenchmarkTests -Dbenchmark=true}, {@code -Dbenchmark.rows} overrides
+ * the default of ten million rows per run.
+ */
+@Testcontainers
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class UuidInsertBenchmarkTests extends AbstractRestControllerBaseTest {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000_000);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int SEGMENTS = 10;
+
+    @Test
+    @DisplayName("Should report insert rates and primary key index sizes of random and time-ordered ids")
+    public void givenEmptyTables_whenInsertingV4AndV7Ids_thenReportRatesAndIndexSizes() {
+        //given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                POSTGRE_SQL_CONTAINER.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                POSTGRE_SQL_CONTAINER.getUsername(),
+                POSTGRE_SQL_CONTAINER.getPassword()
+        ));
+
+        //when
+        Result v4 = insert("v4", new RandomUuidGenerator(), jdbcTemplate);
+        Result v7 = insert("v7", UuidV7Generator.shared(), jdbcTemplate);
+
+        //then
+        System.out.println(v4);
+        System.out.println(v7);
+        assertThat(v7.indexBytes()).isLessThan(v4.indexBytes());
+    }
+
+    private static Result insert(String name, ProductIdGenerator generator, JdbcTemplate jdbcTemplate) {
+        String table = "products_" + name;
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        // the columns of the products table, see create-products-table-changelog.xml
+        jdbcTemplate.execute("CREATE TABLE " + table + """
+                 (
+                    id uuid PRIMARY KEY,
+                    title varchar NOT NULL,
+                    details varchar NOT NULL,
+                    version bigint NOT NULL DEFAULT 0
+                )""");
+        String sql = "INSERT INTO " + table + " (id, title, details) VALUES (?, ?, ?)";
+
+        int rowsPerSegment = ROWS / SEGMENTS;
+        double[] rowsPerSecond = new double[SEGMENTS];
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            long startedAt = System.nanoTime();
+            for (int row = 0; row < rowsPerSegment; row++) {
+                batch.add(new Object[]{generator.nextId(), "Product " + row, "Details of product " + row});
+                if (batch.size() == BATCH_SIZE || row == rowsPerSegment - 1) {
+                    jdbcTemplate.batchUpdate(sql, batch);
+                    batch.clear();
+                }
+            }
+            rowsPerSecond[segment] = rowsPerSegment * 1e9 / (System.nanoTime() - startedAt);
+        }
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "SELECT pg_relation_size(indexrelid) FROM pg_index WHERE indrelid = ?::regclass AND indisprimary",
+                Long.class,
+                table
+        );
+        jdbcTemplate.execute("DROP TABLE " + table);
+        return new Result(name, rowsPerSecond, indexBytes == null ? 0 : indexBytes);
+    }
+
+    private record Result(String name, double[] rowsPerSecond, long indexBytes) {
+        @Override
+        public String toString() {
+            StringBuilder rates = new StringBuilder();
+            for (double rate : rowsPerSecond) {
+                rates.append("%,9.0f".formatted(rate));
+            }
+            return "%s rows/s per tenth:%s, primary key index %,d MB"
+                    .formatted(name, rates, indexBytes / (1024 * 1024));
+        }
+    }
+}
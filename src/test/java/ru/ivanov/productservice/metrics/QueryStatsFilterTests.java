@@ -0,0 +1,68 @@
+package ru.ivanov.productservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryStatsFilterTests {
+    private static final String ROUTE = "/api/v1/products/{productId}";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryStatsFilter filterUnderTest = new QueryStatsFilter(meterRegistry);
+
+    @Test
+    @DisplayName("Should add query headers and record requests per method, route and status")
+    public void givenRequestsToOneRoute_whenFilter_thenHeadersAreAddedAndMetricsAreTaggedByStatus() throws Exception {
+        //given
+        MockHttpServletResponse firstFound = new MockHttpServletResponse();
+
+        //when
+        filterUnderTest.doFilter(request(), firstFound, respondingWith(200));
+        filterUnderTest.doFilter(request(), new MockHttpServletResponse(), respondingWith(200));
+        filterUnderTest.doFilter(request(), new MockHttpServletResponse(), respondingWith(404));
+
+        //then
+        assertThat(firstFound.getHeader(QueryStatsFilter.QUERY_COUNT_HEADER)).isEqualTo("0");
+        assertThat(firstFound.getHeader(QueryStatsFilter.QUERY_TIME_HEADER)).isEqualTo("0");
+        assertThat(meterRegistry.get(QueryStatsFilter.QUERY_COUNT_METRIC_NAME)
+                .tags("method", "GET", "uri", ROUTE, "status", "200")
+                .summary()
+                .count()
+        ).isEqualTo(2);
+        assertThat(meterRegistry.get(QueryStatsFilter.QUERY_COUNT_METRIC_NAME)
+                .tags("method", "GET", "uri", ROUTE, "status", "404")
+                .summary()
+                .count()
+        ).isEqualTo(1);
+        assertThat(meterRegistry.get(QueryStatsFilter.QUERY_TIME_METRIC_NAME)
+                .tags("method", "GET", "uri", ROUTE, "status", "200")
+                .timer()
+                .count()
+        ).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+        return request;
+    }
+
+    private static MockFilterChain respondingWith(int status) {
+        return new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                response.setStatus(status);
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package ru.ivanov.productservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.service.ProductService;
+import ru.ivanov.productservice.util.TestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TimingInterceptorTests {
+    @Mock
+    private ProductService productService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should register a timer per service method with the first call")
+    public void givenTimedService_whenFirstCall_thenTimerIsRegisteredPerMethod() {
+        //given
+        ProductService timedService = timed(productService);
+
+        //when
+        timedService.getProductById(TestUtils.PRODUCT_MILK_ID);
+
+        //then
+        assertThat(meterRegistry.get(TimingInterceptor.METRIC_NAME).tag("method", "getProductById").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get(TimingInterceptor.METRIC_NAME).tag("method", "deleteProduct").timer().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Should delegate to the service and time successful and failed calls")
+    public void givenWrappedService_whenCallsSucceedAndFail_thenBothAreTimed() {
+        //given
+        ProductService timedService = timed(productService);
+        when(productService.getProductById(TestUtils.PRODUCT_MILK_ID))
+                .thenReturn(TestUtils.getProductMilkPersistedDto());
+        when(productService.getProductById(TestUtils.PRODUCT_BUTTER_ID))
+                .thenThrow(new ResourceNotFoundException("not found"));
+
+        //when
+        assertThat(timedService.getProductById(TestUtils.PRODUCT_MILK_ID))
+                .isEqualTo(TestUtils.getProductMilkPersistedDto());
+        assertThatThrownBy(() -> timedService.getProductById(TestUtils.PRODUCT_BUTTER_ID))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        //then
+        assertThat(meterRegistry.get(TimingInterceptor.METRIC_NAME)
+                .tag("service", "ProductService")
+                .tag("method", "getProductById")
+                .timer()
+                .count()
+        ).isEqualTo(2);
+        verify(productService, times(2)).getProductById(any());
+    }
+
+    private ProductService timed(ProductService target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(ProductService.class);
+        proxyFactory.addAdvice(new TimingInterceptor(ProductService.class, () -> meterRegistry));
+        return (ProductService) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,145 @@
+package ru.ivanov.productservice.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.impl.ProductJdbcRepositoryImpl;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import(ProductJdbcRepositoryImpl.class)
+public class ProductJdbcRepositoryImplTests {
+    @Autowired
+    private ProductJdbcRepository repositoryUnderTest;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should insert all products with given ids in one batch")
+    public void givenProductsWithIds_whenInsertAll_thenPersistAllProducts() {
+        //given
+        Product milk = TestUtils.getProductMilkPersisted();
+        Product butter = TestUtils.getProductButterPersisted();
+
+        //when
+        repositoryUnderTest.insertAll(List.of(milk, butter));
+
+        //then
+        assertThat(productRepository.count()).isEqualTo(2);
+        Product obtainedMilk = productRepository.findById(milk.getId()).orElse(null);
+        assertThat(obtainedMilk).isNotNull();
+        assertThat(obtainedMilk).usingRecursiveComparison().isEqualTo(milk);
+    }
+
+    @Test
+    @DisplayName("Should return per-statement update counts when updating and deleting products")
+    public void givenExistentAndNonExistentIds_whenUpdateAllAndDeleteAll_thenReturnUpdateCounts() {
+        //given
+        Product milk = TestUtils.getProductMilkPersisted();
+        repositoryUnderTest.insertAll(List.of(milk));
+        Product updatedMilk = TestUtils.getUpdatedProductMilk();
+        Product nonExistent = new Product("Water", "The best water");
+        nonExistent.setId(UUID.randomUUID());
+
+        //when
+        int[] updateCounts = repositoryUnderTest.updateAll(List.of(updatedMilk, nonExistent));
+        Product obtainedMilk = productRepository.findById(milk.getId()).orElse(null);
+        int[] deleteCounts = repositoryUnderTest.deleteAll(List.of(nonExistent.getId(), milk.getId()));
+
+        //then
+        assertThat(updateCounts).containsExactly(1, 0);
+        assertThat(updatedMilk.getVersion()).isEqualTo(1L);
+        assertThat(nonExistent.getVersion()).isNull();
+        assertThat(obtainedMilk).isNotNull();
+        assertThat(obtainedMilk.getVersion()).isEqualTo(1L);
+        assertThat(obtainedMilk.getTitle()).isEqualTo(updatedMilk.getTitle());
+        assertThat(obtainedMilk.getDetails()).isEqualTo(updatedMilk.getDetails());
+        assertThat(deleteCounts).containsExactly(0, 1);
+        assertThat(productRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stream products ordered by id and start after given id when streaming all products")
+    public void givenThreeProducts_whenStreamAllOrderedById_thenStreamProductsInIdOrderAfterGivenId() {
+        //given
+        List<Product> products = new ArrayList<>(List.of(
+                TestUtils.getProductMilkPersisted(),
+                TestUtils.getProductButterPersisted(),
+                TestUtils.getProductCottagePersisted()
+        ));
+        repositoryUnderTest.insertAll(products);
+        products.sort(Comparator.comparing(product -> product.getId().toString()));
+        List<Product> allStreamed = new ArrayList<>();
+        List<Product> streamedAfterFirst = new ArrayList<>();
+
+        //when
+        repositoryUnderTest.streamAllOrderedById(null, 2, allStreamed::add);
+        repositoryUnderTest.streamAllOrderedById(products.get(0).getId(), 2, streamedAfterFirst::add);
+
+        //then
+        assertThat(allStreamed).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(products);
+        assertThat(streamedAfterFirst).usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(products.subList(1, 3));
+    }
+
+    @Test
+    @DisplayName("Should insert new products and overwrite existing ones when upserting products")
+    public void givenExistentAndNewProducts_whenUpsertAll_thenInsertNewAndOverwriteExisting() {
+        //given
+        repositoryUnderTest.insertAll(List.of(TestUtils.getProductMilkPersisted()));
+        Product updatedMilk = TestUtils.getUpdatedProductMilk();
+        Product butter = TestUtils.getProductButterPersisted();
+        Product butterDuplicate = TestUtils.getProductButterPersisted();
+        butterDuplicate.setDetails("Last duplicate wins");
+
+        //when
+        repositoryUnderTest.upsertAll(List.of(updatedMilk, butter, butterDuplicate));
+
+        //then
+        assertThat(productRepository.count()).isEqualTo(2);
+        assertThat(productRepository.findById(updatedMilk.getId()).map(Product::getDetails)).contains("Ordinary milk");
+        assertThat(productRepository.findById(butter.getId()).map(Product::getDetails)).contains("Last duplicate wins");
+        assertThat(updatedMilk.getVersion()).isEqualTo(1L);
+        assertThat(butter.getVersion()).isZero();
+        assertThat(butterDuplicate.getVersion()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should return the new version when updating an existent product and empty when it does not exist")
+    public void givenExistentAndNonExistentIds_whenUpdateTitleAndDetailsById_thenReturnNewVersionOrEmpty() {
+        //given
+        Product milk = TestUtils.getProductMilkPersisted();
+        repositoryUnderTest.insertAll(List.of(milk));
+
+        //when
+        Optional<Long> firstVersion = repositoryUnderTest.updateTitleAndDetailsById(milk.getId(), "Milk", "Ordinary milk");
+        Optional<Long> secondVersion = repositoryUnderTest.updateTitleAndDetailsById(milk.getId(), "Milk", "Fresh milk");
+        Optional<Long> nonExistentVersion =
+                repositoryUnderTest.updateTitleAndDetailsById(UUID.randomUUID(), "Water", "The best water");
+
+        //then
+        assertThat(firstVersion).contains(1L);
+        assertThat(secondVersion).contains(2L);
+        assertThat(nonExistentVersion).isEmpty();
+        assertThat(productRepository.findById(milk.getId()).map(Product::getVersion)).contains(2L);
+    }
+}
@@ -5,15 +5,21 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
 import ru.ivanov.productservice.model.entity.Product;
 import ru.ivanov.productservice.util.TestUtils;
 
+import java.util.Comparator;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
@@ -29,7 +35,7 @@ public class ProductRepositoryTests {
     }
 
     @Test
-    @DisplayName("Should save product and generate id when saving product")
+    @DisplayName("Should save product and generate time-ordered id when saving product")
     public void givenProduct_whenSave_thenSaveProduct() {
         //given
         Product productTransient = TestUtils.getProductMilkTransient();
@@ -41,6 +47,7 @@ public class ProductRepositoryTests {
         assertThat(productPersisted).isNotNull();
         assertThat(productPersisted.getId()).isNotNull();
         assertThat(productPersisted.getId()).isInstanceOf(UUID.class);
+        assertThat(productPersisted.getId().version()).isEqualTo(7);
         assertThat(productPersisted.getTitle()).isEqualTo(productTransient.getTitle());
         assertThat(productPersisted.getDetails()).isEqualTo(productTransient.getDetails());
 
@@ -49,6 +56,23 @@ public class ProductRepositoryTests {
         assertThat(obtainedProduct).usingRecursiveComparison().isEqualTo(productPersisted);
     }
 
+    @Test
+    @DisplayName("Should keep an assigned random id when saving product with id")
+    public void givenProductWithAssignedRandomId_whenSave_thenKeepId() {
+        //given
+        Product productTransient = TestUtils.getProductMilkTransient();
+        productTransient.setId(TestUtils.PRODUCT_MILK_ID);
+
+        //when
+        repositoryUnderTest.save(productTransient);
+
+        //then
+        Product obtainedProduct = repositoryUnderTest.findById(TestUtils.PRODUCT_MILK_ID).orElse(null);
+        assertThat(obtainedProduct).isNotNull();
+        assertThat(obtainedProduct.getId().version()).isEqualTo(4);
+        assertThat(obtainedProduct.getTitle()).isEqualTo(productTransient.getTitle());
+    }
+
     @Test
     @DisplayName("Should return Optional with product when existing product id is provided")
     public void givenExistentProductId_whenFindById_thenReturnProduct() {
@@ -168,6 +192,52 @@ public class ProductRepositoryTests {
         assertThat(productCottagePersisted).isIn(obtainedPage.getContent());
     }
 
+    @Test
+    @DisplayName("Should return slice with next page flag when finding all products by slice")
+    public void givenThreeProductsAreExisted_whenFindAllBySlice_thenReturnSliceWithNextPage() {
+        //given
+        Pageable pageable = PageRequest.of(0, 2);
+
+        repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+        repositoryUnderTest.save(TestUtils.getProductButterTransient());
+        repositoryUnderTest.save(TestUtils.getProductCottageTransient());
+
+        //when
+        Slice<Product> obtainedSlice = repositoryUnderTest.findAllBy(pageable);
+
+        //then
+        assertThat(obtainedSlice).isNotNull();
+        assertThat(obtainedSlice)
+                .returns(2, Slice::getNumberOfElements)
+                .returns(true, Slice::isFirst)
+                .returns(true, Slice::hasNext);
+    }
+
+    @Test
+    @DisplayName("Should return products ordered by id and seek after given id when finding products by keyset")
+    public void givenThreeProductsAreExisted_whenFindByIdGreaterThan_thenReturnProductsAfterGivenIdInIdOrder() {
+        //given
+        Product productMilkPersisted = repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+        Product productButterPersisted = repositoryUnderTest.save(TestUtils.getProductButterTransient());
+        Product productCottagePersisted = repositoryUnderTest.save(TestUtils.getProductCottageTransient());
+
+        List<Product> firstPage = repositoryUnderTest.findAllByOrderByIdAsc(Limit.of(2));
+        assertThat(firstPage.size()).isEqualTo(2);
+        UUID lastSeenId = firstPage.get(1).getId();
+
+        //when
+        List<Product> secondPage = repositoryUnderTest.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(2));
+
+        //then
+        List<UUID> expectedIdsInOrder = Stream.of(productMilkPersisted, productButterPersisted, productCottagePersisted)
+                .map(Product::getId)
+                .sorted(Comparator.comparing(UUID::toString))
+                .toList();
+        assertThat(secondPage.size()).isEqualTo(1);
+        assertThat(List.of(firstPage.get(0).getId(), firstPage.get(1).getId(), secondPage.get(0).getId()))
+                .isEqualTo(expectedIdsInOrder);
+    }
+
     @Test
     @DisplayName("Should update product when updating product")
     public void givenExistingProduct_whenSave_thenProductIsUpdated() {
@@ -246,4 +316,128 @@ public class ProductRepositoryTests {
         assertThat(obtainedProductOptional).isNotPresent();
         assertThat(isProductExists).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should return only existing products when finding products by list of ids")
+    public void givenExistentAndNotExistentIds_whenFindByIdIn_thenReturnOnlyExistingProducts() {
+        //given
+        Product productMilkPersisted = repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+        Product productButterPersisted = repositoryUnderTest.save(TestUtils.getProductButterTransient());
+        repositoryUnderTest.save(TestUtils.getProductCottageTransient());
+
+        //when
+        List<Product> obtainedProducts = repositoryUnderTest.findByIdIn(
+                List.of(productMilkPersisted.getId(), UUID.randomUUID(), productButterPersisted.getId())
+        );
+
+        //then
+        assertThat(obtainedProducts.size()).isEqualTo(2);
+        assertThat(obtainedProducts.stream().map(Product::getId).sorted().toList())
+                .isEqualTo(Stream.of(productMilkPersisted.getId(), productButterPersisted.getId()).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("Should update product only when version matches and increment version")
+    public void givenCurrentAndStaleVersions_whenUpdateTitleAndDetailsByIdAndVersion_thenOnlyCurrentVersionUpdates() {
+        //given
+        Product productMilkPersisted = repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+        long version = productMilkPersisted.getVersion();
+
+        //when
+        int updatedCurrent = repositoryUnderTest.updateTitleAndDetailsByIdAndVersion(
+                productMilkPersisted.getId(), version, "Milk", "Ordinary milk"
+        );
+        int updatedStale = repositoryUnderTest.updateTitleAndDetailsByIdAndVersion(
+                productMilkPersisted.getId(), version, "Milk", "Stale milk"
+        );
+
+        //then
+        assertThat(updatedCurrent).isEqualTo(1);
+        assertThat(updatedStale).isEqualTo(0);
+        Product obtainedProduct = repositoryUnderTest.findById(productMilkPersisted.getId()).orElseThrow();
+        assertThat(obtainedProduct.getDetails()).isEqualTo("Ordinary milk");
+        assertThat(obtainedProduct.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @DisplayName("Should delete product in one statement and return affected rows count")
+    public void givenExistentAndNotExistentIds_whenDeleteProductById_thenReturnAffectedRowsCount() {
+        //given
+        Product productMilkPersisted = repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+
+        //when
+        int deletedExistent = repositoryUnderTest.deleteProductById(productMilkPersisted.getId());
+        int deletedNotExistent = repositoryUnderTest.deleteProductById(UUID.randomUUID());
+
+        //then
+        assertThat(deletedExistent).isEqualTo(1);
+        assertThat(deletedNotExistent).isEqualTo(0);
+        assertThat(repositoryUnderTest.existsById(productMilkPersisted.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should find products by case-insensitive substring of title or details")
+    public void givenThreeProducts_whenFindByTitleOrDetailsContaining_thenReturnMatchingProducts() {
+        //given
+        Product productMilkPersisted = repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+        Product productButterPersisted = repositoryUnderTest.save(TestUtils.getProductButterTransient());
+        repositoryUnderTest.save(TestUtils.getProductCottageTransient());
+
+        //when
+        Slice<Product> byTitle = repositoryUnderTest.findByTitleContainingIgnoreCaseOrDetailsContainingIgnoreCase(
+                "MILK", "MILK", PageRequest.of(0, 10)
+        );
+        Slice<Product> byDetails = repositoryUnderTest.findByTitleContainingIgnoreCaseOrDetailsContainingIgnoreCase(
+                "best butter", "best butter", PageRequest.of(0, 10)
+        );
+
+        //then
+        assertThat(byTitle.getContent().size()).isEqualTo(1);
+        assertThat(byTitle.getContent().get(0).getId()).isEqualTo(productMilkPersisted.getId());
+        assertThat(byDetails.getContent().size()).isEqualTo(1);
+        assertThat(byDetails.getContent().get(0).getId()).isEqualTo(productButterPersisted.getId());
+        assertThat(byDetails.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should find title suggestions by case-insensitive title prefix ordered by title")
+    public void givenThreeProducts_whenFindByTitleStartingWith_thenReturnSuggestionsOrderedByTitle() {
+        //given
+        Product productMilkPersisted = repositoryUnderTest.save(TestUtils.getProductMilkTransient());
+        repositoryUnderTest.save(TestUtils.getProductButterTransient());
+        repositoryUnderTest.save(TestUtils.getProductCottageTransient());
+
+        //when
+        List<ProductSuggestion> suggestions = repositoryUnderTest.findByTitleStartingWithIgnoreCaseOrderByTitleAsc(
+                "mI", Limit.of(10)
+        );
+
+        //then
+        assertThat(suggestions).isEqualTo(List.of(
+                new ProductSuggestion(productMilkPersisted.getId(), productMilkPersisted.getTitle())
+        ));
+    }
+
+    @Test
+    @DisplayName("Should stream id and title of every product")
+    public void givenThreeProducts_whenStreamAllTitles_thenReturnIdAndTitleOfEveryProduct() {
+        //given
+        List<Product> persistedProducts = repositoryUnderTest.saveAll(List.of(
+                TestUtils.getProductMilkTransient(),
+                TestUtils.getProductButterTransient(),
+                TestUtils.getProductCottageTransient()
+        ));
+
+        //when
+        List<ProductSuggestion> titles;
+        try (Stream<ProductSuggestion> stream = repositoryUnderTest.streamAllTitles()) {
+            titles = stream.sorted(Comparator.comparing(ProductSuggestion::title)).toList();
+        }
+
+        //then
+        assertThat(titles).isEqualTo(persistedProducts.stream()
+                .map(product -> new ProductSuggestion(product.getId(), product.getTitle()))
+                .sorted(Comparator.comparing(ProductSuggestion::title))
+                .toList());
+    }
+}
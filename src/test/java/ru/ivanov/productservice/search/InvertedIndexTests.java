@@ -0,0 +1,106 @@
+package ru.ivanov.productservice.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.ivanov.productservice.model.dto.ProductDto;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InvertedIndexTests {
+    private static final ProductDto BOTTLE = new ProductDto(UUID.randomUUID(), "Water bottle", "Steel bottle for cold water", 0L);
+    private static final ProductDto GLASS = new ProductDto(UUID.randomUUID(), "Glass", "Holds water or juice", 0L);
+    private static final ProductDto OPENER = new ProductDto(UUID.randomUUID(), "Bottle opener", null, 0L);
+
+    @Test
+    @DisplayName("Should rank products by relevance with title words weighing more than details")
+    public void givenIndexedProducts_whenSearch_thenReturnMatchesByRelevance() {
+        //given
+        InvertedIndex indexUnderTest = new InvertedIndex();
+        indexUnderTest.put(BOTTLE);
+        indexUnderTest.put(GLASS);
+        indexUnderTest.put(OPENER);
+
+        //when
+        List<ProductDto> waterProducts = indexUnderTest.search("WATER", 0, 10);
+        List<ProductDto> juiceProducts = indexUnderTest.search("juice", 0, 10);
+
+        //then
+        assertThat(waterProducts).containsExactly(BOTTLE, GLASS);
+        assertThat(juiceProducts).containsExactly(GLASS);
+    }
+
+    @Test
+    @DisplayName("Should match misspelled words within edit distance")
+    public void givenMisspelledQuery_whenSearch_thenReturnProductsWithSimilarWords() {
+        //given
+        InvertedIndex indexUnderTest = new InvertedIndex();
+        indexUnderTest.put(BOTTLE);
+        indexUnderTest.put(GLASS);
+        indexUnderTest.put(OPENER);
+
+        //when
+        List<ProductDto> transposed = indexUnderTest.search("bottel", 0, 10);
+        List<ProductDto> substituted = indexUnderTest.search("opemer", 0, 10);
+        List<ProductDto> missingLetter = indexUnderTest.search("glas", 0, 10);
+        List<ProductDto> tooShort = indexUnderTest.search("cld", 0, 10);
+        List<ProductDto> tooFar = indexUnderTest.search("juicyyy", 0, 10);
+
+        //then
+        assertThat(transposed).containsExactlyInAnyOrder(BOTTLE, OPENER);
+        assertThat(substituted).containsExactly(OPENER);
+        assertThat(missingLetter).containsExactly(GLASS);
+        assertThat(tooShort).isEmpty();
+        assertThat(tooFar).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should page through hits ranked by score")
+    public void givenIndexedProducts_whenSearchWithOffset_thenReturnRequestedPage() {
+        //given
+        InvertedIndex indexUnderTest = new InvertedIndex();
+        indexUnderTest.put(BOTTLE);
+        indexUnderTest.put(GLASS);
+        indexUnderTest.put(OPENER);
+        List<ProductDto> allHits = indexUnderTest.search("water bottle", 0, 10);
+
+        //when
+        List<ProductDto> secondPage = indexUnderTest.search("water bottle", 1, 1);
+
+        //then
+        assertThat(allHits).hasSize(3);
+        assertThat(secondPage).containsExactly(allHits.get(1));
+    }
+
+    @Test
+    @DisplayName("Should forget old words when product is replaced or removed")
+    public void givenReplacedAndRemovedProducts_whenSearch_thenOnlyCurrentWordsMatch() {
+        //given
+        InvertedIndex indexUnderTest = new InvertedIndex();
+        indexUnderTest.put(BOTTLE);
+        indexUnderTest.put(GLASS);
+
+        //when
+        ProductDto thermos = new ProductDto(BOTTLE.id(), "Thermos", "Keeps tea hot", 1L);
+        indexUnderTest.put(thermos);
+        indexUnderTest.remove(GLASS.id());
+
+        //then
+        assertThat(indexUnderTest.search("water", 0, 10)).isEmpty();
+        assertThat(indexUnderTest.search("thermos", 0, 10)).containsExactly(thermos);
+        assertThat(indexUnderTest.size()).isEqualTo(1);
+        assertThat(indexUnderTest.termCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should count a swap of neighbouring letters as one edit")
+    public void givenWordPairs_whenEditDistance_thenReturnOptimalAlignmentDistance() {
+        //when and then
+        assertThat(InvertedIndex.editDistance("milk", "mlik")).isEqualTo(1);
+        assertThat(InvertedIndex.editDistance("milk", "silk")).isEqualTo(1);
+        assertThat(InvertedIndex.editDistance("milk", "mil")).isEqualTo(1);
+        assertThat(InvertedIndex.editDistance("milk", "butter")).isEqualTo(6);
+    }
+}
@@ -0,0 +1,124 @@
+package ru.ivanov.productservice.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchIndexTests {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    private Path indexDirectory;
+
+    @Test
+    @DisplayName("Should build index from database when there is no snapshot")
+    public void givenNoSnapshot_whenLoad_thenBuildIndexFromDatabase() throws Exception {
+        //given
+        givenStoredProducts(TestUtils.getProductMilkPersisted(), TestUtils.getProductButterPersisted());
+        ProductSearchIndex indexUnderTest = newIndex(SearchEngineType.EMBEDDED);
+
+        //when
+        indexUnderTest.load();
+
+        //then
+        assertThat(indexUnderTest.isReady()).isTrue();
+        assertThat(indexUnderTest.search("milk", 0, 10)).containsExactly(TestUtils.getProductMilkPersistedDto());
+        verify(productJdbcRepository, times(1)).streamAllOrderedById(isNull(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should restore index with journaled changes from disk without scanning database")
+    public void givenSnapshotAndJournal_whenLoadAfterRestart_thenRestoreIndexWithoutDatabase() throws Exception {
+        //given
+        givenStoredProducts(TestUtils.getProductMilkPersisted(), TestUtils.getProductButterPersisted());
+        ProductSearchIndex firstRun = newIndex(SearchEngineType.EMBEDDED);
+        firstRun.load();
+        ProductDto oatMilk = new ProductDto(TestUtils.PRODUCT_MILK_ID, "Oat milk", "Plant based", 1L);
+        firstRun.onProductChanged(ProductChangedEvent.updated(oatMilk));
+        firstRun.onProductChanged(ProductChangedEvent.deleted(TestUtils.PRODUCT_BUTTER_ID));
+        firstRun.onProductChanged(ProductChangedEvent.created(TestUtils.getProductCottagePersistedDto()));
+        reset(productJdbcRepository);
+
+        //when
+        ProductSearchIndex secondRun = newIndex(SearchEngineType.EMBEDDED);
+        secondRun.load();
+
+        //then
+        assertThat(secondRun.search("oat", 0, 10)).containsExactly(oatMilk);
+        assertThat(secondRun.search("butter", 0, 10)).isEmpty();
+        assertThat(secondRun.search("cottage", 0, 10)).containsExactly(TestUtils.getProductCottagePersistedDto());
+        verifyNoInteractions(productJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should apply changes committed while loading over scanned products")
+    public void givenChangeDuringLoad_whenLoad_thenChangeWinsOverScannedProduct() throws Exception {
+        //given
+        ProductSearchIndex indexUnderTest = newIndex(SearchEngineType.EMBEDDED);
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(2);
+            indexUnderTest.onProductChanged(ProductChangedEvent.deleted(TestUtils.PRODUCT_MILK_ID));
+            consumer.accept(TestUtils.getProductMilkPersisted());
+            return null;
+        }).when(productJdbcRepository).streamAllOrderedById(isNull(), anyInt(), any());
+
+        //when
+        indexUnderTest.load();
+
+        //then
+        assertThat(indexUnderTest.search("milk", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should not load index when another search engine is configured")
+    public void givenOtherEngine_whenLoad_thenIndexIsNotLoaded() throws Exception {
+        //given
+        ProductSearchIndex indexUnderTest = newIndex(SearchEngineType.AUTO);
+
+        //when
+        indexUnderTest.load();
+
+        //then
+        assertThat(indexUnderTest.isReady()).isFalse();
+        verifyNoInteractions(productJdbcRepository);
+    }
+
+    private ProductSearchIndex newIndex(SearchEngineType engine) {
+        return new ProductSearchIndex(
+                productJdbcRepository,
+                transactionManager,
+                new ProductSearchProperties(engine, indexDirectory, Duration.ofMinutes(5), 1000),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    private void givenStoredProducts(Product... products) {
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(2);
+            for (Product product : products) {
+                consumer.accept(product);
+            }
+            return null;
+        }).when(productJdbcRepository).streamAllOrderedById(isNull(), anyInt(), any());
+    }
+}
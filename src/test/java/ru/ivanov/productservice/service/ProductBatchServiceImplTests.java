@@ -0,0 +1,149 @@
+package ru.ivanov.productservice.service;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.id.UuidV7Generator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.BatchOperationRequest;
+import ru.ivanov.productservice.model.dto.request.BatchProductRequest;
+import ru.ivanov.productservice.model.dto.response.BatchItemResult;
+import ru.ivanov.productservice.model.dto.response.BatchProductResponse;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.impl.ProductBatchProperties;
+import ru.ivanov.productservice.service.impl.ProductBatchServiceImpl;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static ru.ivanov.productservice.model.dto.request.BatchOperationType.*;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductBatchServiceImplTests {
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ProductBatchServiceImpl serviceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        serviceUnderTest = new ProductBatchServiceImpl(
+                productJdbcRepository, productMapper, VALIDATOR, eventPublisher, UuidV7Generator.shared(),
+                new ProductBatchProperties(2)
+        );
+    }
+
+    @Test
+    @DisplayName("Should split consecutive operations of the same type into chunks and keep request order")
+    @SuppressWarnings("unchecked")
+    public void givenMixedOperations_whenExecuteBatch_thenExecuteChunksInRequestOrder() {
+        //given
+        UUID butterId = TestUtils.PRODUCT_BUTTER_ID;
+        BatchProductRequest request = new BatchProductRequest(List.of(
+                new BatchOperationRequest(CREATE, null, "Milk", "The best milk"),
+                new BatchOperationRequest(CREATE, null, "Water", "The best water"),
+                new BatchOperationRequest(CREATE, null, "Bread", "The best bread"),
+                new BatchOperationRequest(DELETE, butterId, null, null)
+        ));
+        when(productMapper.toDto(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return new ProductDto(product.getId(), product.getTitle(), product.getDetails(), product.getVersion());
+        });
+        when(productJdbcRepository.deleteAll(List.of(butterId))).thenReturn(new int[]{1});
+
+        //when
+        BatchProductResponse response = serviceUnderTest.executeBatch(request);
+
+        //then
+        assertThat(response.succeeded()).isEqualTo(4);
+        assertThat(response.failed()).isZero();
+        assertThat(response.results()).extracting(BatchItemResult::index).containsExactly(0, 1, 2, 3);
+        assertThat(response.results()).extracting(BatchItemResult::statusCode).containsExactly(201, 201, 201, 204);
+        assertThat(response.results().get(3).id()).isEqualTo(butterId);
+
+        ArgumentCaptor<List<Product>> insertCaptor = ArgumentCaptor.forClass(List.class);
+        var inOrder = inOrder(productJdbcRepository);
+        inOrder.verify(productJdbcRepository, times(2)).insertAll(insertCaptor.capture());
+        inOrder.verify(productJdbcRepository, times(1)).deleteAll(List.of(butterId));
+        assertThat(insertCaptor.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(insertCaptor.getAllValues().get(0).get(0).getId()).isEqualTo(response.results().get(0).id());
+
+        verify(eventPublisher, times(4)).publishEvent(any(ProductChangedEvent.class));
+        verifyNoMoreInteractions(productJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should report 404 for update and delete operations that affected no rows")
+    public void givenNonExistentProductIds_whenExecuteBatch_thenReportNotFoundPerOperation() {
+        //given
+        UUID milkId = TestUtils.PRODUCT_MILK_ID;
+        UUID nonExistentId = UUID.randomUUID();
+        BatchProductRequest request = new BatchProductRequest(List.of(
+                new BatchOperationRequest(UPDATE, milkId, "Milk", "Updated milk"),
+                new BatchOperationRequest(UPDATE, nonExistentId, "Water", "Updated water"),
+                new BatchOperationRequest(DELETE, nonExistentId, null, null)
+        ));
+        when(productMapper.toDto(any(Product.class))).thenReturn(TestUtils.getProductMilkPersistedDto());
+        when(productJdbcRepository.updateAll(anyList())).thenReturn(new int[]{1, 0});
+        when(productJdbcRepository.deleteAll(List.of(nonExistentId))).thenReturn(new int[]{0});
+
+        //when
+        BatchProductResponse response = serviceUnderTest.executeBatch(request);
+
+        //then
+        assertThat(response.succeeded()).isEqualTo(1);
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.results()).extracting(BatchItemResult::statusCode).containsExactly(204, 404, 404);
+        assertThat(response.results().get(1).message()).isEqualTo(PRODUCT_NOT_FOUND_WITH_ID.formatted(nonExistentId));
+        assertThat(response.results().get(2).message()).isEqualTo(PRODUCT_NOT_FOUND_WITH_ID.formatted(nonExistentId));
+
+        verify(productJdbcRepository, times(1)).updateAll(anyList());
+        verify(productJdbcRepository, times(1)).deleteAll(List.of(nonExistentId));
+        verify(eventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
+        verifyNoMoreInteractions(productJdbcRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should report 400 for invalid operations and not send them to the database")
+    public void givenInvalidOperations_whenExecuteBatch_thenReportBadRequestWithoutDatabaseCalls() {
+        //given
+        BatchProductRequest request = new BatchProductRequest(List.of(
+                new BatchOperationRequest(CREATE, null, " ", "The best milk"),
+                new BatchOperationRequest(UPDATE, null, "Milk", "Updated milk"),
+                new BatchOperationRequest(DELETE, null, null, null)
+        ));
+
+        //when
+        BatchProductResponse response = serviceUnderTest.executeBatch(request);
+
+        //then
+        assertThat(response.succeeded()).isZero();
+        assertThat(response.failed()).isEqualTo(3);
+        assertThat(response.results()).extracting(BatchItemResult::statusCode).containsExactly(400, 400, 400);
+        assertThat(response.results().get(0).message()).contains("title не должно быть пустым");
+        assertThat(response.results().get(1).message()).contains("id не должно быть null");
+        assertThat(response.results().get(2).message()).contains("id не должно быть null");
+
+        verifyNoInteractions(productJdbcRepository, eventPublisher);
+    }
+}
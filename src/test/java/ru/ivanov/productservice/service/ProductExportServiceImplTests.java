@@ -0,0 +1,121 @@
+package ru.ivanov.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.impl.ProductExportProperties;
+import ru.ivanov.productservice.service.impl.ProductExportServiceImpl;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductExportServiceImplTests {
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @Mock
+    private ProductMapper productMapper;
+
+    private ProductExportServiceImpl serviceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        serviceUnderTest = new ProductExportServiceImpl(
+                productJdbcRepository, productMapper, new ObjectMapper(), new ProductExportProperties(50)
+        );
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line when exporting products as NDJSON")
+    public void givenProducts_whenExportAsNdjson_thenWriteOneJsonObjectPerLine() throws IOException {
+        //given
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        Product productButterPersisted = TestUtils.getProductButterPersisted();
+        givenStreamedProducts(null, productMilkPersisted, productButterPersisted);
+        when(productMapper.toDto(productMilkPersisted)).thenReturn(TestUtils.getProductMilkPersistedDto());
+        when(productMapper.toDto(productButterPersisted)).thenReturn(TestUtils.getProductButterPersistedDto());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        serviceUnderTest.exportProducts(ProductFileFormat.NDJSON, null, outputStream);
+
+        //then
+        assertThat(outputStream.toString(UTF_8)).isEqualTo(
+                "{\"id\":\"%s\",\"title\":\"Milk\",\"details\":\"Best milk in the world\"}\n".formatted(TestUtils.PRODUCT_MILK_ID) +
+                "{\"id\":\"%s\",\"title\":\"Butter\",\"details\":\"Best butter in the world\"}\n".formatted(TestUtils.PRODUCT_BUTTER_ID)
+        );
+
+        verify(productJdbcRepository, times(1)).streamAllOrderedById(eq(null), eq(50), any());
+        verifyNoMoreInteractions(productJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should write header and escape separators and quotes when exporting products as CSV")
+    public void givenProductsWithSpecialCharacters_whenExportAsCsv_thenWriteEscapedCsv() throws IOException {
+        //given
+        UUID afterId = TestUtils.PRODUCT_BUTTER_ID;
+        Product product = new Product("Milk, 3.2%", "The \"best\" milk\nin the world");
+        product.setId(TestUtils.PRODUCT_MILK_ID);
+        givenStreamedProducts(afterId, product);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        //when
+        serviceUnderTest.exportProducts(ProductFileFormat.CSV, afterId, outputStream);
+
+        //then
+        assertThat(outputStream.toString(UTF_8)).isEqualTo(
+                "id,title,details\n" +
+                "%s,\"Milk, 3.2%%\",\"The \"\"best\"\" milk\nin the world\"\n".formatted(TestUtils.PRODUCT_MILK_ID)
+        );
+
+        verify(productJdbcRepository, times(1)).streamAllOrderedById(eq(afterId), eq(50), any());
+        verifyNoInteractions(productMapper);
+    }
+
+    @Test
+    @DisplayName("Should rethrow IOException of the output stream when client goes away during export")
+    public void givenFailingOutputStream_whenExportProducts_thenRethrowIOException() {
+        //given
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        givenStreamedProducts(null, productMilkPersisted);
+        OutputStream failingOutputStream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        //when & then
+        assertThatThrownBy(() -> serviceUnderTest.exportProducts(ProductFileFormat.CSV, null, failingOutputStream))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenStreamedProducts(UUID afterId, Product... products) {
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(2, Consumer.class);
+            for (Product product : products) {
+                consumer.accept(product);
+            }
+            return null;
+        }).when(productJdbcRepository).streamAllOrderedById(eq(afterId), anyInt(), any());
+    }
+}
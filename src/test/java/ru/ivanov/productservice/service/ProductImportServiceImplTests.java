@@ -0,0 +1,150 @@
+package ru.ivanov.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.id.UuidV7Generator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.ProductFileFormat;
+import ru.ivanov.productservice.model.dto.response.ProductImportResponse;
+import ru.ivanov.productservice.model.dto.response.RejectedRow;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
+import ru.ivanov.productservice.service.impl.ProductImportProperties;
+import ru.ivanov.productservice.service.impl.ProductImportServiceImpl;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductImportServiceImplTests {
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private ProductCounter productCounter;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductImportServiceImpl serviceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        serviceUnderTest = new ProductImportServiceImpl(
+                productJdbcRepository, productMapper, productCounter, VALIDATOR, new ObjectMapper(), eventPublisher,
+                UuidV7Generator.shared(), transactionManager, new ProductImportProperties(2, 1)
+        );
+        lenient().when(productMapper.toDto(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return new ProductDto(product.getId(), product.getTitle(), product.getDetails(), product.getVersion());
+        });
+    }
+
+    @Test
+    @DisplayName("Should write valid CSV rows in chunks and generate ids for rows without id")
+    @SuppressWarnings("unchecked")
+    public void givenCsvUpload_whenImportProducts_thenWriteValidRowsInChunks() throws IOException {
+        //given
+        String csv = """
+                id,title,details
+                %s,Milk,"Best milk, in the world"
+                ,Butter,Best butter in the world
+
+                ,Cottage,"Best ""cottage""
+                in the world"
+                """.formatted(TestUtils.PRODUCT_MILK_ID);
+
+        //when
+        ProductImportResponse response = serviceUnderTest.importProducts(ProductFileFormat.CSV, toInputStream(csv));
+
+        //then
+        assertThat(response.imported()).isEqualTo(3);
+        assertThat(response.rejected()).isZero();
+        assertThat(response.rejectedRows()).isEmpty();
+
+        ArgumentCaptor<List<Product>> chunkCaptor = ArgumentCaptor.forClass(List.class);
+        verify(productJdbcRepository, times(2)).upsertAll(chunkCaptor.capture());
+        List<Product> imported = chunkCaptor.getAllValues().stream().flatMap(List::stream).toList();
+        assertThat(imported).extracting(Product::getTitle).containsExactly("Milk", "Butter", "Cottage");
+        assertThat(imported.get(0).getId()).isEqualTo(TestUtils.PRODUCT_MILK_ID);
+        assertThat(imported.get(0).getDetails()).isEqualTo("Best milk, in the world");
+        assertThat(imported.get(1).getId()).isNotNull();
+        assertThat(imported.get(2).getDetails()).isEqualTo("Best \"cottage\"\nin the world");
+
+        verify(eventPublisher, times(3)).publishEvent(any(ProductChangedEvent.class));
+        verify(productCounter, times(1)).resync();
+        verifyNoMoreInteractions(productJdbcRepository, productCounter);
+    }
+
+    @Test
+    @DisplayName("Should skip and report invalid NDJSON rows and write the valid ones")
+    public void givenNdjsonUploadWithInvalidRows_whenImportProducts_thenRejectInvalidRows() throws IOException {
+        //given
+        String ndjson = """
+                {"title":"Milk","details":"Best milk in the world"}
+                {"id":"not-a-uuid","title":"Butter","details":"Best butter in the world"}
+                {"title":"","details":"Empty title"}
+                not json
+                """;
+
+        //when
+        ProductImportResponse response = serviceUnderTest.importProducts(ProductFileFormat.NDJSON, toInputStream(ndjson));
+
+        //then
+        assertThat(response.imported()).isEqualTo(1);
+        assertThat(response.rejected()).isEqualTo(3);
+        assertThat(response.rejectedRows()).containsExactly(new RejectedRow(2, "Invalid product id = not-a-uuid"));
+
+        verify(productJdbcRepository, times(1)).upsertAll(argThat(products -> products.size() == 1));
+        verify(productCounter, times(1)).resync();
+        verifyNoMoreInteractions(productJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should not touch database when upload has no valid rows")
+    public void givenUploadWithoutValidRows_whenImportProducts_thenDoNotTouchDatabase() throws IOException {
+        //given
+        String csv = """
+                id,title,details
+                ,,Missing title
+                """;
+
+        //when
+        ProductImportResponse response = serviceUnderTest.importProducts(ProductFileFormat.CSV, toInputStream(csv));
+
+        //then
+        assertThat(response.imported()).isZero();
+        assertThat(response.rejected()).isEqualTo(1);
+        assertThat(response.rejectedRows().get(0).message()).contains("title не должно быть пустым");
+
+        verifyNoInteractions(productJdbcRepository, productCounter, eventPublisher, transactionManager);
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(UTF_8));
+    }
+}
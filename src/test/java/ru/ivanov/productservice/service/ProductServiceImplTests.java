@@ -1,45 +1,93 @@
 package ru.ivanov.productservice.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.ivanov.productservice.cache.ProductCache;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
 import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.index.ProductIdFilter;
+import ru.ivanov.productservice.index.ProductTitleIndex;
 import ru.ivanov.productservice.mapper.ProductMapper;
 import ru.ivanov.productservice.model.dto.ProductDto;
 import ru.ivanov.productservice.model.dto.request.CreateProductRequest;
 import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
 import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.dto.response.ProductLookupResponse;
+import ru.ivanov.productservice.model.dto.response.ProductSuggestion;
+import ru.ivanov.productservice.model.dto.response.SlicedResponse;
 import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductJdbcRepository;
 import ru.ivanov.productservice.repository.ProductRepository;
+import ru.ivanov.productservice.search.ProductSearchEngine;
 import ru.ivanov.productservice.service.impl.ProductServiceImpl;
+import ru.ivanov.productservice.util.CursorUtils;
 import ru.ivanov.productservice.util.TestUtils;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static java.util.Collections.emptyList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_VERSION_MISMATCH;
+import static ru.ivanov.productservice.util.MessageUtils.SEARCH_QUERY_MUST_NOT_BE_BLANK;
+import static ru.ivanov.productservice.util.MessageUtils.SUGGEST_LIMIT_OUT_OF_RANGE;
+import static ru.ivanov.productservice.util.MessageUtils.TOO_MANY_IDS;
 
 @ExtendWith(MockitoExtension.class)
 public class ProductServiceImplTests {
     @Mock
     private ProductRepository productRepository;
     @Mock
+    private ProductJdbcRepository productJdbcRepository;
+    @Mock
     private ProductMapper productMapper;
+    @Mock
+    private ProductCounter productCounter;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private ProductIdFilter productIdFilter;
+    @Mock
+    private ProductSearchEngine productSearchEngine;
+    @Mock
+    private ProductTitleIndex productTitleIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ProductIdGenerator productIdGenerator;
     @InjectMocks
     private ProductServiceImpl serviceUnderTest;
 
+    @BeforeEach
+    public void setUp() {
+        lenient().when(productIdFilter.mightContain(any(UUID.class))).thenReturn(true);
+    }
+
     @Test
     @DisplayName("Should save and return product DTO when valid create request is provided")
     public void givenCreateProductRequest_whenCreateProduct_thenSaveAndReturnProductDto() {
@@ -48,6 +96,7 @@ public class ProductServiceImplTests {
         Product persistedProduct = TestUtils.getProductMilkPersisted();
         ProductDto expectedDto = TestUtils.getProductMilkPersistedDto();
 
+        when(productIdGenerator.nextId()).thenReturn(TestUtils.PRODUCT_MILK_ID);
         when(productRepository.save(any(Product.class))).thenReturn(persistedProduct);
         when(productMapper.toDto(persistedProduct)).thenReturn(expectedDto);
 
@@ -58,9 +107,10 @@ public class ProductServiceImplTests {
         assertThat(obtainedDto).isNotNull();
         assertThat(obtainedDto).usingRecursiveComparison().isEqualTo(expectedDto);
 
-        verify(productRepository, times(1)).save(any(Product.class));
+        verify(productRepository, times(1)).save(argThat(product -> TestUtils.PRODUCT_MILK_ID.equals(product.getId())));
         verify(productMapper, times(1)).toDto(persistedProduct);
-        verifyNoMoreInteractions(productRepository, productMapper);
+        verify(eventPublisher, times(1)).publishEvent(ProductChangedEvent.created(expectedDto));
+        verifyNoMoreInteractions(productRepository, productMapper, eventPublisher);
     }
 
 
@@ -72,6 +122,7 @@ public class ProductServiceImplTests {
         Product persistedProduct = TestUtils.getProductMilkPersisted();
         ProductDto expectedDto = TestUtils.getProductMilkPersistedDto();
 
+        givenProductCacheMiss(existentProductId);
         when(productRepository.findById(existentProductId)).thenReturn(Optional.of(persistedProduct));
         when(productMapper.toDto(persistedProduct)).thenReturn(expectedDto);
 
@@ -87,12 +138,32 @@ public class ProductServiceImplTests {
         verifyNoMoreInteractions(productRepository, productMapper);
     }
 
+    @Test
+    @DisplayName("Should return cached product DTO without touching repository when product is cached")
+    public void givenCachedProductId_whenGetProductById_thenReturnCachedProductDto() {
+        //given
+        UUID cachedProductId = TestUtils.PRODUCT_MILK_ID;
+        ProductDto cachedDto = TestUtils.getProductMilkPersistedDto();
+
+        when(productCache.get(eq(cachedProductId), any())).thenReturn(cachedDto);
+
+        //when
+        ProductDto obtainedProductDto = serviceUnderTest.getProductById(cachedProductId);
+
+        //then
+        assertThat(obtainedProductDto).isEqualTo(cachedDto);
+
+        verify(productCache, times(1)).get(eq(cachedProductId), any());
+        verifyNoInteractions(productRepository, productMapper);
+    }
+
     @Test
     @DisplayName("Should throw ResourceNotFoundException when product with given id is not exist")
     public void givenNotExistentProductId_whenGetProductById_thenThrowResourceNotFoundException() {
         //given
         UUID notExistentProductId = UUID.randomUUID();
 
+        givenProductCacheMiss(notExistentProductId);
         when(productRepository.findById(notExistentProductId)).thenReturn(Optional.empty());
 
         //when and then
@@ -105,6 +176,39 @@ public class ProductServiceImplTests {
         verifyNoMoreInteractions(productRepository);
     }
 
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException without touching repository when id filter rules product out")
+    public void givenIdRuledOutByIdFilter_whenGetProductById_thenThrowResourceNotFoundExceptionWithoutRepositoryCall() {
+        //given
+        UUID notExistentProductId = UUID.randomUUID();
+
+        givenProductCacheMiss(notExistentProductId);
+        when(productIdFilter.mightContain(notExistentProductId)).thenReturn(false);
+
+        //when and then
+        assertThatThrownBy(() -> serviceUnderTest.getProductById(notExistentProductId))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentProductId));
+
+        verifyNoInteractions(productRepository, productMapper);
+    }
+
+    @Test
+    @DisplayName("Should record false positive when id filter lets through product which is not exist")
+    public void givenIdFilterFalsePositive_whenGetProductById_thenRecordFalsePositive() {
+        //given
+        UUID notExistentProductId = UUID.randomUUID();
+
+        givenProductCacheMiss(notExistentProductId);
+        when(productRepository.findById(notExistentProductId)).thenReturn(Optional.empty());
+
+        //when and then
+        assertThatThrownBy(() -> serviceUnderTest.getProductById(notExistentProductId))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verify(productIdFilter, times(1)).recordFalsePositive();
+    }
+
     @Test
     @DisplayName("Should return empty paged response when no products exists")
     public void givenNoProductsExist_whenGetAllProductsPaginated_thenReturnEmptyPagedResponse() {
@@ -112,9 +216,9 @@ public class ProductServiceImplTests {
         int pageNumber = 0;
         int pageSize = 10;
         Pageable pageable = PageRequest.of(pageNumber, pageSize);
-        Page<Product> emptyPage = Page.empty(pageable);
+        Slice<Product> emptySlice = new SliceImpl<>(emptyList(), pageable, false);
 
-        when(productRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(emptySlice);
 
         PagedResponse<ProductDto> expectedPagedResponse = new PagedResponse<>(pageNumber, pageSize, 0L, 0, true, true, emptyList());
 
@@ -125,7 +229,7 @@ public class ProductServiceImplTests {
         assertThat(obtainedPagedResponse.content().isEmpty()).isTrue();
         assertThat(obtainedPagedResponse).usingRecursiveComparison().isEqualTo(expectedPagedResponse);
 
-        verify(productRepository, times(1)).findAll(pageable);
+        verify(productRepository, times(1)).findAllBy(pageable);
         verifyNoInteractions(productMapper);
         verifyNoMoreInteractions(productRepository);
     }
@@ -141,9 +245,9 @@ public class ProductServiceImplTests {
         Product product = TestUtils.getProductButterPersisted();
         ProductDto productDto = TestUtils.getProductButterPersistedDto();
 
-        Page<Product> mockPage = new PageImpl<>(List.of(product), pageable, 1L);
+        Slice<Product> mockSlice = new SliceImpl<>(List.of(product), pageable, false);
 
-        when(productRepository.findAll(any(Pageable.class))).thenReturn(mockPage);
+        when(productRepository.findAllBy(any(Pageable.class))).thenReturn(mockSlice);
         when(productMapper.toDto(any(Product.class))).thenReturn(productDto);
 
         PagedResponse<ProductDto> expectedPagedResponse = new PagedResponse<>(pageNumber, pageSize, 1L, 1, true, true, List.of(productDto));
@@ -156,7 +260,7 @@ public class ProductServiceImplTests {
         assertThat(obtainedPagedResponse.content().size()).isEqualTo(1);
         assertThat(obtainedPagedResponse).usingRecursiveComparison().isEqualTo(expectedPagedResponse);
 
-        verify(productRepository, times(1)).findAll(any(Pageable.class));
+        verify(productRepository, times(1)).findAllBy(any(Pageable.class));
         verify(productMapper, times(1)).toDto(any(Product.class));
         verifyNoMoreInteractions(productRepository, productMapper);
     }
@@ -179,13 +283,9 @@ public class ProductServiceImplTests {
         ProductDto cottageDto = TestUtils.getProductCottagePersistedDto();
         List<ProductDto> expectedDtos = List.of(milkDto, butterDto, cottageDto);
 
-        Page<Product> mockPage = new PageImpl<>(
-                persistedProducts,
-                pageable,
-                persistedProducts.size()
-        );
+        Slice<Product> mockSlice = new SliceImpl<>(persistedProducts, pageable, false);
 
-        when(productRepository.findAll(pageable)).thenReturn(mockPage);
+        when(productRepository.findAllBy(pageable)).thenReturn(mockSlice);
 
         when(productMapper.toDto(productMilkPersisted)).thenReturn(milkDto);
         when(productMapper.toDto(productButterPersisted)).thenReturn(butterDto);
@@ -201,29 +301,171 @@ public class ProductServiceImplTests {
         assertThat(obtainedPagedResponse.content().size()).isEqualTo(3);
         assertThat(obtainedPagedResponse).usingRecursiveComparison().isEqualTo(expectedPagedResponse);
 
-        verify(productRepository, times(1)).findAll(pageable);
+        verify(productRepository, times(1)).findAllBy(pageable);
         verify(productMapper, times(3)).toDto(any(Product.class));
         verifyNoMoreInteractions(productRepository, productMapper);
     }
 
+    @Test
+    @DisplayName("Should take total elements from product counter when page is not the last one")
+    public void givenMorePagesExist_whenGetAllProductsPaginated_thenTakeTotalElementsFromProductCounter() {
+        //given
+        int pageNumber = 0;
+        int pageSize = 1;
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+
+        Product product = TestUtils.getProductMilkPersisted();
+        ProductDto productDto = TestUtils.getProductMilkPersistedDto();
+
+        when(productRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productMapper.toDto(product)).thenReturn(productDto);
+        when(productCounter.get()).thenReturn(3L);
+
+        PagedResponse<ProductDto> expectedPagedResponse = new PagedResponse<>(pageNumber, pageSize, 3L, 3, true, false, List.of(productDto));
+
+        //when
+        PagedResponse<ProductDto> obtainedPagedResponse = serviceUnderTest.getAllProductsPaginated(pageNumber, pageSize);
+
+        //then
+        assertThat(obtainedPagedResponse).usingRecursiveComparison().isEqualTo(expectedPagedResponse);
+
+        verify(productRepository, times(1)).findAllBy(pageable);
+        verify(productRepository, never()).count();
+        verify(productCounter, times(1)).get();
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should return sliced response without counting when getting products slice")
+    public void givenMorePagesExist_whenGetProductsSlice_thenReturnSlicedResponseWithoutCounting() {
+        //given
+        int pageNumber = 0;
+        int pageSize = 1;
+        Pageable pageable = PageRequest.of(pageNumber, pageSize);
+
+        Product product = TestUtils.getProductMilkPersisted();
+        ProductDto productDto = TestUtils.getProductMilkPersistedDto();
+
+        when(productRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productMapper.toDto(product)).thenReturn(productDto);
+
+        SlicedResponse<ProductDto> expectedSlicedResponse = new SlicedResponse<>(pageNumber, pageSize, true, true, List.of(productDto));
+
+        //when
+        SlicedResponse<ProductDto> obtainedSlicedResponse = serviceUnderTest.getProductsSlice(pageNumber, pageSize);
+
+        //then
+        assertThat(obtainedSlicedResponse).usingRecursiveComparison().isEqualTo(expectedSlicedResponse);
+
+        verify(productRepository, times(1)).findAllBy(pageable);
+        verify(productMapper, times(1)).toDto(product);
+        verifyNoMoreInteractions(productRepository, productMapper);
+        verifyNoInteractions(productCounter);
+    }
+
+    @Test
+    @DisplayName("Should return first cursor page with next cursor when more products exist than page size")
+    public void givenEmptyCursorAndMoreProductsThanPageSize_whenGetProductsAfterCursor_thenReturnFirstPageWithNextCursor() {
+        //given
+        int pageSize = 2;
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        Product productButterPersisted = TestUtils.getProductButterPersisted();
+        Product productCottagePersisted = TestUtils.getProductCottagePersisted();
+        ProductDto milkDto = TestUtils.getProductMilkPersistedDto();
+        ProductDto butterDto = TestUtils.getProductButterPersistedDto();
+
+        when(productRepository.findAllByOrderByIdAsc(Limit.of(pageSize + 1)))
+                .thenReturn(List.of(productMilkPersisted, productButterPersisted, productCottagePersisted));
+        when(productMapper.toDto(productMilkPersisted)).thenReturn(milkDto);
+        when(productMapper.toDto(productButterPersisted)).thenReturn(butterDto);
+
+        CursorPagedResponse<ProductDto> expectedResponse = new CursorPagedResponse<>(
+                pageSize, true, CursorUtils.encode(butterDto.id()), List.of(milkDto, butterDto)
+        );
+
+        //when
+        CursorPagedResponse<ProductDto> obtainedResponse = serviceUnderTest.getProductsAfterCursor("", pageSize);
+
+        //then
+        assertThat(obtainedResponse).usingRecursiveComparison().isEqualTo(expectedResponse);
+
+        verify(productRepository, times(1)).findAllByOrderByIdAsc(Limit.of(pageSize + 1));
+        verify(productMapper, times(2)).toDto(any(Product.class));
+        verifyNoMoreInteractions(productRepository, productMapper);
+    }
+
+    @Test
+    @DisplayName("Should return last cursor page without next cursor when seeking after given cursor")
+    public void givenCursor_whenGetProductsAfterCursor_thenSeekAfterCursorAndReturnLastPage() {
+        //given
+        int pageSize = 10;
+        UUID lastSeenId = TestUtils.PRODUCT_MILK_ID;
+        Product productButterPersisted = TestUtils.getProductButterPersisted();
+        ProductDto butterDto = TestUtils.getProductButterPersistedDto();
+
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(pageSize + 1)))
+                .thenReturn(List.of(productButterPersisted));
+        when(productMapper.toDto(productButterPersisted)).thenReturn(butterDto);
+
+        CursorPagedResponse<ProductDto> expectedResponse = new CursorPagedResponse<>(pageSize, false, null, List.of(butterDto));
+
+        //when
+        CursorPagedResponse<ProductDto> obtainedResponse = serviceUnderTest.getProductsAfterCursor(CursorUtils.encode(lastSeenId), pageSize);
+
+        //then
+        assertThat(obtainedResponse).usingRecursiveComparison().isEqualTo(expectedResponse);
+
+        verify(productRepository, times(1)).findByIdGreaterThanOrderByIdAsc(lastSeenId, Limit.of(pageSize + 1));
+        verify(productMapper, times(1)).toDto(productButterPersisted);
+        verifyNoMoreInteractions(productRepository, productMapper);
+    }
+
+    @Test
+    @DisplayName("Should throw BadRequestException when cursor page size exceeds the cap")
+    public void givenTooLargePageSize_whenGetProductsAfterCursor_thenThrowBadRequestException() {
+        //given
+        int tooLargePageSize = CursorUtils.MAX_CURSOR_PAGE_SIZE + 1;
+
+        //when and then
+        assertThatThrownBy(() -> serviceUnderTest.getProductsAfterCursor("", tooLargePageSize))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(productRepository, productMapper);
+    }
+
+    @Test
+    @DisplayName("Should throw BadRequestException when cursor is malformed")
+    public void givenMalformedCursor_whenGetProductsAfterCursor_thenThrowBadRequestException() {
+        //given
+        String malformedCursor = "not-a-cursor";
+
+        //when and then
+        assertThatThrownBy(() -> serviceUnderTest.getProductsAfterCursor(malformedCursor, 10))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(productRepository, productMapper);
+    }
+
     @Test
     @DisplayName("Should update product when valid request and existing id are provided")
     public void givenUpdateProductRequestAndExistentProductId_whenUpdateProduct_thenUpdateProduct() {
         //given
         UUID productId = TestUtils.PRODUCT_MILK_ID;
         UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
-        Product existingProduct = TestUtils.getProductMilkPersisted();
-        Product expectedUpdatedProduct = TestUtils.getUpdatedProductMilk();
+        ProductDto expectedUpdatedDto = new ProductDto(productId, request.title(), request.details(), 1L);
+
+        when(productJdbcRepository.updateTitleAndDetailsById(productId, request.title(), request.details()))
+                .thenReturn(Optional.of(1L));
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(expectedUpdatedProduct);
         //when
         serviceUnderTest.updateProduct(productId, request);
 
         //then
-        verify(productRepository, times(1)).findById(productId);
-        verify(productRepository, times(1)).save(existingProduct);
-        verifyNoMoreInteractions(productRepository);
+        verify(productJdbcRepository, times(1))
+                .updateTitleAndDetailsById(productId, request.title(), request.details());
+        verify(eventPublisher, times(1)).publishEvent(ProductChangedEvent.updated(expectedUpdatedDto));
+        verifyNoMoreInteractions(productJdbcRepository, eventPublisher);
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -233,16 +475,73 @@ public class ProductServiceImplTests {
         UUID notExistentProductId = UUID.randomUUID();
         UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
 
-        when(productRepository.findById(notExistentProductId)).thenReturn(Optional.empty());
+        when(productJdbcRepository.updateTitleAndDetailsById(notExistentProductId, request.title(), request.details()))
+                .thenReturn(Optional.empty());
 
         //when and then
         assertThatThrownBy(() -> serviceUnderTest.updateProduct(notExistentProductId, request))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentProductId));
 
-        verify(productRepository, times(1)).findById(notExistentProductId);
-        verify(productRepository, never()).save(any());
-        verifyNoMoreInteractions(productRepository);
+        verify(productJdbcRepository, times(1))
+                .updateTitleAndDetailsById(notExistentProductId, request.title(), request.details());
+        verifyNoMoreInteractions(productJdbcRepository);
+        verifyNoInteractions(productRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should update product and publish next version when If-Match version is current")
+    public void givenCurrentVersion_whenUpdateProductConditionally_thenUpdateProduct() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        when(productRepository.updateTitleAndDetailsByIdAndVersion(productId, 3L, request.title(), request.details()))
+                .thenReturn(1);
+
+        //when
+        serviceUnderTest.updateProduct(productId, 3L, request);
+
+        //then
+        verify(productRepository, times(1))
+                .updateTitleAndDetailsByIdAndVersion(productId, 3L, request.title(), request.details());
+        verify(eventPublisher, times(1)).publishEvent(
+                ProductChangedEvent.updated(new ProductDto(productId, request.title(), request.details(), 4L))
+        );
+        verifyNoMoreInteractions(productRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should throw PreconditionFailedException when updating existing product with stale version")
+    public void givenStaleVersion_whenUpdateProductConditionally_thenThrowPreconditionFailedException() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        when(productRepository.updateTitleAndDetailsByIdAndVersion(productId, 2L, request.title(), request.details()))
+                .thenReturn(0);
+        when(productRepository.existsById(productId)).thenReturn(true);
+
+        //when and then
+        assertThatThrownBy(() -> serviceUnderTest.updateProduct(productId, 2L, request))
+                .isInstanceOf(PreconditionFailedException.class)
+                .hasMessage(PRODUCT_VERSION_MISMATCH.formatted(productId));
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException when conditionally updating non-existent product")
+    public void givenNotExistentProductId_whenUpdateProductConditionally_thenThrowResourceNotFoundException() {
+        //given
+        UUID notExistentProductId = UUID.randomUUID();
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        when(productRepository.existsById(notExistentProductId)).thenReturn(false);
+
+        //when and then
+        assertThatThrownBy(() -> serviceUnderTest.updateProduct(notExistentProductId, 0L, request))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentProductId));
+
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -250,16 +549,30 @@ public class ProductServiceImplTests {
     public void givenExistentProductId_whenDeleteProduct_thenDeleteProduct() {
         //given
         UUID existentId = TestUtils.PRODUCT_BUTTER_ID;
-        when(productRepository.existsById(existentId)).thenReturn(true);
-        doNothing().when(productRepository).deleteById(existentId);
+        when(productRepository.deleteProductById(existentId)).thenReturn(1);
 
         //when
         serviceUnderTest.deleteProduct(existentId);
 
         //then
-        verify(productRepository, times(1)).existsById(existentId);
-        verify(productRepository, times(1)).deleteById(existentId);
-        verifyNoMoreInteractions(productRepository);
+        verify(productRepository, times(1)).deleteProductById(existentId);
+        verify(eventPublisher, times(1)).publishEvent(ProductChangedEvent.deleted(existentId));
+        verifyNoMoreInteractions(productRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException without touching repository when deleting product ruled out by id filter")
+    public void givenIdRuledOutByIdFilter_whenDeleteProduct_thenThrowResourceNotFoundExceptionWithoutRepositoryCall() {
+        //given
+        UUID notExistentId = UUID.randomUUID();
+        when(productIdFilter.mightContain(notExistentId)).thenReturn(false);
+
+        //when ant then
+        assertThatThrownBy(() -> serviceUnderTest.deleteProduct(notExistentId))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentId));
+
+        verifyNoInteractions(productRepository, eventPublisher);
     }
 
     @Test
@@ -273,8 +586,170 @@ public class ProductServiceImplTests {
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage(PRODUCT_NOT_FOUND_WITH_ID.formatted(notExistentId));
 
-        verify(productRepository, times(1)).existsById(any(UUID.class));
-        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, times(1)).deleteProductById(notExistentId);
         verifyNoMoreInteractions(productRepository);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("Should return found products in requested order and list missing ids when getting products by ids")
+    public void givenExistentAndNotExistentIds_whenGetProductsByIds_thenReturnProductsInRequestedOrderAndNotFoundIds() {
+        //given
+        UUID notExistentId = UUID.randomUUID();
+        UUID filteredOutId = UUID.randomUUID();
+        List<UUID> requestedIds = List.of(
+                TestUtils.PRODUCT_BUTTER_ID, notExistentId, TestUtils.PRODUCT_MILK_ID, filteredOutId, TestUtils.PRODUCT_BUTTER_ID
+        );
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        Product productButterPersisted = TestUtils.getProductButterPersisted();
+
+        givenProductCacheMissForAll();
+        when(productIdFilter.mightContain(filteredOutId)).thenReturn(false);
+        when(productRepository.findByIdIn(anyList())).thenReturn(List.of(productMilkPersisted, productButterPersisted));
+        when(productMapper.toDto(productMilkPersisted)).thenReturn(TestUtils.getProductMilkPersistedDto());
+        when(productMapper.toDto(productButterPersisted)).thenReturn(TestUtils.getProductButterPersistedDto());
+
+        //when
+        ProductLookupResponse response = serviceUnderTest.getProductsByIds(requestedIds);
+
+        //then
+        assertThat(response.content()).isEqualTo(
+                List.of(TestUtils.getProductButterPersistedDto(), TestUtils.getProductMilkPersistedDto())
+        );
+        assertThat(response.notFound()).isEqualTo(List.of(notExistentId, filteredOutId));
+
+        verify(productRepository, times(1)).findByIdIn(anyList());
+        verify(productIdFilter, times(1)).recordFalsePositive();
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should query database in bounded chunks when many ids are requested")
+    public void givenManyIds_whenGetProductsByIds_thenQueryDatabaseInChunks() {
+        //given
+        List<UUID> requestedIds = Stream.generate(UUID::randomUUID).limit(ProductServiceImpl.MAX_LOOKUP_IDS).toList();
+        givenProductCacheMissForAll();
+        when(productRepository.findByIdIn(anyList())).thenReturn(emptyList());
+
+        //when
+        ProductLookupResponse response = serviceUnderTest.getProductsByIds(requestedIds);
+
+        //then
+        assertThat(response.content()).isEqualTo(emptyList());
+        assertThat(response.notFound()).isEqualTo(requestedIds);
+
+        verify(productRepository, times(2)).findByIdIn(argThat(ids -> ids.size() == 500));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw BadRequestException when too many ids are requested")
+    public void givenTooManyIds_whenGetProductsByIds_thenThrowBadRequestException() {
+        //given
+        List<UUID> requestedIds = Stream.generate(UUID::randomUUID).limit(ProductServiceImpl.MAX_LOOKUP_IDS + 1).toList();
+
+        //when & then
+        assertThatThrownBy(() -> serviceUnderTest.getProductsByIds(requestedIds))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage(TOO_MANY_IDS.formatted(ProductServiceImpl.MAX_LOOKUP_IDS));
+
+        verifyNoInteractions(productRepository, productCache);
+    }
+
+    @Test
+    @DisplayName("Should return sliced response of found products when searching products")
+    public void givenQuery_whenSearchProducts_thenReturnSlicedResponseOfFoundProducts() {
+        //given
+        String query = "milk";
+        Pageable pageable = PageRequest.of(0, 1);
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        when(productSearchEngine.search(query, pageable))
+                .thenReturn(new SliceImpl<>(List.of(productMilkPersisted), pageable, true));
+        when(productMapper.toDto(productMilkPersisted)).thenReturn(TestUtils.getProductMilkPersistedDto());
+
+        //when
+        SlicedResponse<ProductDto> obtainedResponse = serviceUnderTest.searchProducts(query, 0, 1);
+
+        //then
+        assertThat(obtainedResponse.content()).isEqualTo(List.of(TestUtils.getProductMilkPersistedDto()));
+        assertThat(obtainedResponse.hasNext()).isTrue();
+        assertThat(obtainedResponse.first()).isTrue();
+
+        verify(productSearchEngine, times(1)).search(query, pageable);
+        verifyNoMoreInteractions(productSearchEngine);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw BadRequestException when searching products with blank query")
+    public void givenBlankQuery_whenSearchProducts_thenThrowBadRequestException() {
+        //when & then
+        assertThatThrownBy(() -> serviceUnderTest.searchProducts("  ", 0, 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage(SEARCH_QUERY_MUST_NOT_BE_BLANK);
+
+        verifyNoInteractions(productSearchEngine);
+    }
+
+    @Test
+    @DisplayName("Should answer suggestions from title index when it is ready")
+    public void givenReadyTitleIndex_whenSuggestProducts_thenReturnSuggestionsFromIndex() {
+        //given
+        List<ProductSuggestion> expectedSuggestions = List.of(new ProductSuggestion(TestUtils.PRODUCT_MILK_ID, "Milk"));
+        when(productTitleIndex.isReady()).thenReturn(true);
+        when(productTitleIndex.suggest("mi", 5)).thenReturn(expectedSuggestions);
+
+        //when
+        List<ProductSuggestion> obtainedSuggestions = serviceUnderTest.suggestProducts("mi", 5);
+
+        //then
+        assertThat(obtainedSuggestions).isEqualTo(expectedSuggestions);
+
+        verify(productTitleIndex, times(1)).isReady();
+        verify(productTitleIndex, times(1)).suggest("mi", 5);
+        verifyNoMoreInteractions(productTitleIndex);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should fall back to title prefix query when title index is not ready")
+    public void givenTitleIndexNotReady_whenSuggestProducts_thenQueryRepository() {
+        //given
+        List<ProductSuggestion> expectedSuggestions = List.of(new ProductSuggestion(TestUtils.PRODUCT_MILK_ID, "Milk"));
+        when(productTitleIndex.isReady()).thenReturn(false);
+        when(productRepository.findByTitleStartingWithIgnoreCaseOrderByTitleAsc("mi", Limit.of(5)))
+                .thenReturn(expectedSuggestions);
+
+        //when
+        List<ProductSuggestion> obtainedSuggestions = serviceUnderTest.suggestProducts(" mi", 5);
+
+        //then
+        assertThat(obtainedSuggestions).isEqualTo(expectedSuggestions);
+
+        verify(productRepository, times(1)).findByTitleStartingWithIgnoreCaseOrderByTitleAsc("mi", Limit.of(5));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should throw BadRequestException when suggest limit is out of range")
+    public void givenTooLargeLimit_whenSuggestProducts_thenThrowBadRequestException() {
+        //when & then
+        assertThatThrownBy(() -> serviceUnderTest.suggestProducts("mi", ProductServiceImpl.MAX_SUGGEST_LIMIT + 1))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage(SUGGEST_LIMIT_OUT_OF_RANGE.formatted(ProductServiceImpl.MAX_SUGGEST_LIMIT));
+
+        verifyNoInteractions(productTitleIndex, productRepository);
+    }
+
+    private void givenProductCacheMissForAll() {
+        when(productCache.getAll(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Function<Set<? extends UUID>, Map<UUID, ProductDto>>>getArgument(1)
+                        .apply(Set.copyOf(invocation.<Collection<UUID>>getArgument(0))));
+    }
+
+    private void givenProductCacheMiss(UUID productId) {
+        when(productCache.get(eq(productId), any()))
+                .thenAnswer(invocation -> invocation.<Function<UUID, ProductDto>>getArgument(1).apply(productId));
     }
-}
\ No newline at end of file
+}
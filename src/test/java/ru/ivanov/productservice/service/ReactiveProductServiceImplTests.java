@@ -0,0 +1,165 @@
+package ru.ivanov.productservice.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.PreconditionFailedException;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.request.UpdateProductRequest;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.ProductR2dbcRepository;
+import ru.ivanov.productservice.service.impl.ReactiveProductServiceImpl;
+import ru.ivanov.productservice.util.CursorUtils;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.mockito.Mockito.*;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_NOT_FOUND_WITH_ID;
+import static ru.ivanov.productservice.util.MessageUtils.PRODUCT_VERSION_MISMATCH;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveProductServiceImplTests {
+    @Mock
+    private ProductR2dbcRepository productR2dbcRepository;
+    @Mock
+    private ProductMapper productMapper;
+    @InjectMocks
+    private ReactiveProductServiceImpl serviceUnderTest;
+
+    @Test
+    @DisplayName("Should emit product DTO when existing product ID is provided")
+    public void givenExistingProductId_whenGetProductById_thenEmitProductDto() {
+        //given
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        ProductDto productMilkDto = TestUtils.getProductMilkPersistedDto();
+        when(productR2dbcRepository.findById(TestUtils.PRODUCT_MILK_ID)).thenReturn(Mono.just(productMilkPersisted));
+        when(productMapper.toDto(productMilkPersisted)).thenReturn(productMilkDto);
+
+        //when
+        Mono<ProductDto> result = serviceUnderTest.getProductById(TestUtils.PRODUCT_MILK_ID);
+
+        //then
+        StepVerifier.create(result)
+                .expectNext(productMilkDto)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should signal ResourceNotFoundException when not existent product ID is provided")
+    public void givenNotExistentProductId_whenGetProductById_thenSignalResourceNotFoundException() {
+        //given
+        UUID productId = UUID.randomUUID();
+        when(productR2dbcRepository.findById(productId)).thenReturn(Mono.empty());
+
+        //when
+        Mono<ProductDto> result = serviceUnderTest.getProductById(productId);
+
+        //then
+        StepVerifier.create(result)
+                .expectErrorMatches(error -> error instanceof ResourceNotFoundException
+                        && error.getMessage().equals(PRODUCT_NOT_FOUND_WITH_ID.formatted(productId)))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should return first page with next cursor and fetch one extra row when more products exist")
+    public void givenMoreProductsThanPageSize_whenGetProductsAfterCursor_thenEmitPageWithNextCursor() {
+        //given
+        Product productMilkPersisted = TestUtils.getProductMilkPersisted();
+        Product productButterPersisted = TestUtils.getProductButterPersisted();
+        ProductDto productMilkDto = TestUtils.getProductMilkPersistedDto();
+        when(productR2dbcRepository.findAfterIdOrderedById(null, 2))
+                .thenReturn(Flux.just(productMilkPersisted, productButterPersisted));
+        when(productMapper.toDto(productMilkPersisted)).thenReturn(productMilkDto);
+        when(productMapper.toDto(productButterPersisted)).thenReturn(TestUtils.getProductButterPersistedDto());
+
+        //when
+        //then
+        StepVerifier.create(serviceUnderTest.getProductsAfterCursor("", 1))
+                .assertNext(page -> {
+                    assertThat(page.hasNext()).isTrue();
+                    assertThat(page.content()).isEqualTo(List.of(productMilkDto));
+                    assertThat(page.nextCursor()).isEqualTo(CursorUtils.encode(TestUtils.PRODUCT_MILK_ID));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should signal BadRequestException without querying when cursor is malformed")
+    public void givenMalformedCursor_whenGetProductsAfterCursor_thenSignalBadRequestException() {
+        //given
+        String malformedCursor = "not a cursor";
+
+        //when
+        //then
+        StepVerifier.create(serviceUnderTest.getProductsAfterCursor(malformedCursor, 10))
+                .expectError(BadRequestException.class)
+                .verify();
+        verifyNoInteractions(productR2dbcRepository);
+    }
+
+    @Test
+    @DisplayName("Should signal PreconditionFailedException when product exists with another version")
+    public void givenStaleVersion_whenUpdateProductWithVersion_thenSignalPreconditionFailedException() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        when(productR2dbcRepository.updateTitleAndDetailsByIdAndVersion(productId, 3L, request.title(), request.details()))
+                .thenReturn(Mono.just(0L));
+        when(productR2dbcRepository.existsById(productId)).thenReturn(Mono.just(true));
+
+        //when
+        Mono<Void> result = serviceUnderTest.updateProduct(productId, 3L, request);
+
+        //then
+        StepVerifier.create(result)
+                .expectErrorMatches(error -> error instanceof PreconditionFailedException
+                        && error.getMessage().equals(PRODUCT_VERSION_MISMATCH.formatted(productId)))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should complete without existence check when versioned update succeeds")
+    public void givenCurrentVersion_whenUpdateProductWithVersion_thenComplete() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        UpdateProductRequest request = TestUtils.getUpdateProductMilkRequest();
+        when(productR2dbcRepository.updateTitleAndDetailsByIdAndVersion(productId, 3L, request.title(), request.details()))
+                .thenReturn(Mono.just(1L));
+
+        //when
+        Mono<Void> result = serviceUnderTest.updateProduct(productId, 3L, request);
+
+        //then
+        StepVerifier.create(result).verifyComplete();
+        verify(productR2dbcRepository, never()).existsById(productId);
+    }
+
+    @Test
+    @DisplayName("Should signal ResourceNotFoundException when deleting not existent product")
+    public void givenNotExistentProductId_whenDeleteProduct_thenSignalResourceNotFoundException() {
+        //given
+        UUID productId = UUID.randomUUID();
+        when(productR2dbcRepository.deleteById(productId)).thenReturn(Mono.just(0L));
+
+        //when
+        Mono<Void> result = serviceUnderTest.deleteProduct(productId);
+
+        //then
+        StepVerifier.create(result)
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,146 @@
+package ru.ivanov.productservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import ru.ivanov.productservice.cache.ProductCache;
+import ru.ivanov.productservice.cache.ProductCounter;
+import ru.ivanov.productservice.event.ProductChangedEvent;
+import ru.ivanov.productservice.exception.BadRequestException;
+import ru.ivanov.productservice.exception.ResourceNotFoundException;
+import ru.ivanov.productservice.id.ProductIdGenerator;
+import ru.ivanov.productservice.mapper.ProductMapper;
+import ru.ivanov.productservice.model.dto.ProductDto;
+import ru.ivanov.productservice.model.dto.response.CursorPagedResponse;
+import ru.ivanov.productservice.model.dto.response.PagedResponse;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.service.impl.ShardedProductServiceImpl;
+import ru.ivanov.productservice.shard.ShardedProductRepository;
+import ru.ivanov.productservice.util.CursorUtils;
+import ru.ivanov.productservice.util.TestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ShardedProductServiceImplTests {
+    @Mock
+    private ShardedProductRepository productRepository;
+    @Mock
+    private ProductCounter productCounter;
+    @Mock
+    private ProductMapper productMapper;
+    @Mock
+    private ProductCache productCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ProductIdGenerator productIdGenerator;
+    @InjectMocks
+    private ShardedProductServiceImpl serviceUnderTest;
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(productRepository.inTransaction(any(UUID.class), any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(1).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should insert the product with a generated id on its shard and publish the event inside that transaction")
+    public void givenCreateProductRequest_whenCreateProduct_thenInsertOnOwningShardAndPublishEvent() {
+        //given
+        ProductDto expectedDto = TestUtils.getProductMilkPersistedDto();
+        when(productIdGenerator.nextId()).thenReturn(TestUtils.PRODUCT_MILK_ID);
+        when(productMapper.toDto(any(Product.class))).thenReturn(expectedDto);
+
+        //when
+        ProductDto obtainedDto = serviceUnderTest.createProduct(TestUtils.getCreateProductMilkRequest());
+
+        //then
+        assertThat(obtainedDto).isEqualTo(expectedDto);
+        verify(productRepository, times(1)).inTransaction(eq(TestUtils.PRODUCT_MILK_ID), any());
+        verify(productRepository, times(1)).insert(argThat(product -> TestUtils.PRODUCT_MILK_ID.equals(product.getId())));
+        verify(eventPublisher, times(1)).publishEvent(ProductChangedEvent.created(expectedDto));
+    }
+
+    @Test
+    @DisplayName("Should throw ResourceNotFoundException and publish nothing when deleting a product absent from its shard")
+    public void givenNotExistentProductId_whenDeleteProduct_thenThrowResourceNotFoundException() {
+        //given
+        UUID productId = TestUtils.PRODUCT_MILK_ID;
+        when(productRepository.deleteById(productId)).thenReturn(0);
+
+        //when
+        //then
+        assertThatThrownBy(() -> serviceUnderTest.deleteProduct(productId))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should ask the shards for one row past the page and return the next cursor when more rows exist")
+    public void givenMoreProductsThanPageSize_whenGetProductsAfterCursor_thenReturnNextCursor() {
+        //given
+        Product milk = TestUtils.getProductMilkPersisted();
+        Product butter = TestUtils.getProductButterPersisted();
+        when(productRepository.findOrderedById((UUID) null, 2)).thenReturn(List.of(milk, butter));
+        when(productMapper.toDto(milk)).thenReturn(TestUtils.getProductMilkPersistedDto());
+
+        //when
+        CursorPagedResponse<ProductDto> response = serviceUnderTest.getProductsAfterCursor(null, 1);
+
+        //then
+        assertThat(response.hasNext()).isTrue();
+        assertThat(response.nextCursor()).isEqualTo(CursorUtils.encode(milk.getId()));
+        assertThat(response.content()).containsExactly(TestUtils.getProductMilkPersistedDto());
+    }
+
+    @Test
+    @DisplayName("Should take total elements from product counter instead of counting every shard")
+    public void givenMorePagesExist_whenGetAllProductsPaginated_thenTakeTotalElementsFromProductCounter() {
+        //given
+        Product milk = TestUtils.getProductMilkPersisted();
+        Product butter = TestUtils.getProductButterPersisted();
+        ProductDto milkDto = TestUtils.getProductMilkPersistedDto();
+        when(productRepository.findOrderedById(0L, 2)).thenReturn(List.of(milk, butter));
+        when(productMapper.toDto(milk)).thenReturn(milkDto);
+        when(productCounter.get()).thenReturn(3L);
+
+        PagedResponse<ProductDto> expectedPagedResponse = new PagedResponse<>(0, 1, 3L, 3, true, false, List.of(milkDto));
+
+        //when
+        PagedResponse<ProductDto> obtainedPagedResponse = serviceUnderTest.getAllProductsPaginated(0, 1);
+
+        //then
+        assertThat(obtainedPagedResponse).usingRecursiveComparison().isEqualTo(expectedPagedResponse);
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    @DisplayName("Should refuse offset pages reaching past the merge window without asking any shard")
+    public void givenPageBeyondWindow_whenGetPage_thenThrowBadRequestException() {
+        //given
+        int pageSize = 100;
+        int firstPageBeyondWindow = ShardedProductRepository.MAX_OFFSET_WINDOW / pageSize;
+
+        //when
+        //then
+        assertThatThrownBy(() -> serviceUnderTest.getAllProductsPaginated(firstPageBeyondWindow, pageSize))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> serviceUnderTest.getProductsSlice(Integer.MAX_VALUE, pageSize))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> serviceUnderTest.searchProducts("milk", firstPageBeyondWindow - 1, pageSize))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,53 @@
+package ru.ivanov.productservice.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductShardRouterTests {
+    private static final int IDS = 100_000;
+
+    @Test
+    @DisplayName("Should spread random ids evenly over the shards")
+    public void givenRandomIds_whenShardOf_thenEveryShardGetsItsShare() {
+        //given
+        ProductShardRouter router = new ProductShardRouter(4);
+        int[] perShard = new int[4];
+
+        //when
+        for (int i = 0; i < IDS; i++) {
+            perShard[router.shardOf(UUID.randomUUID())]++;
+        }
+
+        //then
+        for (int count : perShard) {
+            assertThat(count).isBetween(IDS / 4 - IDS / 40, IDS / 4 + IDS / 40);
+        }
+    }
+
+    @Test
+    @DisplayName("Should move ids only to the appended shard when a shard is added")
+    public void givenRouterGrowingByOneShard_whenShardOf_thenIdsMoveOnlyToNewShard() {
+        //given
+        ProductShardRouter before = new ProductShardRouter(3);
+        ProductShardRouter after = new ProductShardRouter(4);
+        int moved = 0;
+
+        //when
+        for (int i = 0; i < IDS; i++) {
+            UUID id = UUID.randomUUID();
+            int oldShard = before.shardOf(id);
+            int newShard = after.shardOf(id);
+            if (oldShard != newShard) {
+                assertThat(newShard).isEqualTo(3);
+                moved++;
+            }
+        }
+
+        //then
+        assertThat(moved).isBetween(IDS / 4 - IDS / 40, IDS / 4 + IDS / 40);
+    }
+}
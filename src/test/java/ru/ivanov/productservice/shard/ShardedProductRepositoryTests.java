@@ -0,0 +1,163 @@
+package ru.ivanov.productservice.shard;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ivanov.productservice.model.entity.Product;
+import ru.ivanov.productservice.repository.impl.ProductJdbcRepositoryImpl;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShardedProductRepositoryTests {
+    private static final int PRODUCTS = 200;
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private ShardedProductRepository repositoryUnderTest;
+
+    @BeforeEach
+    public void setUp() throws LiquibaseException {
+        for (int i = 0; i < 3; i++) {
+            dataSources.add(shardDataSource());
+        }
+        repositoryUnderTest = repositoryOver(dataSources);
+    }
+
+    @Test
+    @DisplayName("Should store every product only on the shard its id hashes to and find it there")
+    public void givenProducts_whenInsertAll_thenEachProductIsStoredOnItsShardOnly() {
+        //given
+        List<Product> products = products(PRODUCTS);
+
+        //when
+        repositoryUnderTest.insertAll(products);
+
+        //then
+        assertThat(repositoryUnderTest.count()).isEqualTo(PRODUCTS);
+        for (Product product : products) {
+            ProductShard owner = repositoryUnderTest.shardOf(product.getId());
+            for (ProductShard shard : repositoryUnderTest.shards()) {
+                assertThat(shard.repository().existsById(product.getId())).isEqualTo(shard == owner);
+            }
+            assertThat(repositoryUnderTest.findById(product.getId())).get()
+                    .usingRecursiveComparison().isEqualTo(product);
+        }
+        assertThat(repositoryUnderTest.shards())
+                .allSatisfy(shard -> assertThat(shard.repository().count()).isPositive());
+    }
+
+    @Test
+    @DisplayName("Should merge offset pages, cursor pages and the full stream in id order across shards")
+    public void givenProductsOnAllShards_whenReadOrderedById_thenMergedInUnsignedIdOrder() {
+        //given
+        List<Product> products = products(PRODUCTS);
+        repositoryUnderTest.insertAll(products);
+        List<UUID> expectedIds = products.stream()
+                .map(Product::getId)
+                .sorted(ShardedProductRepository.ID_ORDER)
+                .toList();
+        List<UUID> streamedIds = new ArrayList<>();
+
+        //when
+        List<Product> secondPage = repositoryUnderTest.findOrderedById(20L, 20);
+        List<Product> afterCursor = repositoryUnderTest.findOrderedById(expectedIds.get(49), 10);
+        repositoryUnderTest.streamAllOrderedById(null, 7, product -> streamedIds.add(product.getId()));
+
+        //then
+        assertThat(secondPage).extracting(Product::getId).containsExactlyElementsOf(expectedIds.subList(20, 40));
+        assertThat(afterCursor).extracting(Product::getId).containsExactlyElementsOf(expectedIds.subList(50, 60));
+        assertThat(streamedIds).containsExactlyElementsOf(expectedIds);
+    }
+
+    @Test
+    @DisplayName("Should report update and delete counts at the positions of the batch items")
+    public void givenBatchSpanningShards_whenUpdateAllAndDeleteAll_thenCountsKeepItemPositions() {
+        //given
+        List<Product> products = products(10);
+        repositoryUnderTest.insertAll(products.subList(0, 5));
+        List<Product> updates = new ArrayList<>(products);
+        updates.forEach(product -> product.setTitle(product.getTitle() + " updated"));
+
+        //when
+        int[] updateCounts = repositoryUnderTest.updateAll(updates);
+        int[] deleteCounts = repositoryUnderTest.deleteAll(products.stream().map(Product::getId).toList().reversed());
+
+        //then
+        assertThat(updateCounts).containsExactly(1, 1, 1, 1, 1, 0, 0, 0, 0, 0);
+        assertThat(deleteCounts).containsExactly(0, 0, 0, 0, 0, 1, 1, 1, 1, 1);
+        assertThat(repositoryUnderTest.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should move only misplaced products, keeping versions, when a shard is appended")
+    public void givenProductsOnTwoShards_whenRebalancedOverThree_thenEveryProductIsOnItsNewShard() {
+        //given
+        ShardedProductRepository twoShards = repositoryOver(dataSources.subList(0, 2));
+        List<Product> products = products(PRODUCTS);
+        twoShards.insertAll(products);
+        Product updated = products.get(0);
+        twoShards.updateTitleAndDetailsById(updated.getId(), "Updated", "Updated details");
+
+        //when
+        ProductShardRebalancer.Result result = new ProductShardRebalancer(repositoryUnderTest, 16).rebalance();
+
+        //then
+        assertThat(result.scanned()).isEqualTo(PRODUCTS);
+        assertThat(result.moved()).isPositive().isEqualTo(repositoryUnderTest.shards().get(2).repository().count());
+        assertThat(repositoryUnderTest.count()).isEqualTo(PRODUCTS);
+        for (Product product : products) {
+            assertThat(repositoryUnderTest.shardOf(product.getId()).repository().existsById(product.getId())).isTrue();
+        }
+        assertThat(repositoryUnderTest.findById(updated.getId())).get()
+                .extracting(Product::getVersion)
+                .isEqualTo(1L);
+        assertThat(new ProductShardRebalancer(repositoryUnderTest, 16).rebalance().moved()).isZero();
+    }
+
+    private static ShardedProductRepository repositoryOver(List<DataSource> dataSources) {
+        List<ProductShard> shards = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            shards.add(new ProductShard(
+                    shards.size(),
+                    dataSource,
+                    new ProductJdbcRepositoryImpl(new JdbcTemplate(dataSource)),
+                    new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+            ));
+        }
+        return new ShardedProductRepository(shards);
+    }
+
+    private static DataSource shardDataSource() throws LiquibaseException {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:shard-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""
+        );
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-shard.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product("Product " + i, "Details of product " + i);
+            product.setId(UUID.randomUUID());
+            product.setVersion(0L);
+            products.add(product);
+        }
+        return products;
+    }
+}
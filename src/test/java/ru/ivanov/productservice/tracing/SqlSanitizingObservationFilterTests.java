@@ -0,0 +1,44 @@
+package ru.ivanov.productservice.tracing;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlSanitizingObservationFilterTests {
+    private final SqlSanitizingObservationFilter filterUnderTest = new SqlSanitizingObservationFilter();
+
+    @Test
+    @DisplayName("Should mask string and numeric literals but keep identifiers and bind parameters")
+    public void givenSqlWithLiterals_whenSanitize_thenLiteralsAreMasked() {
+        //given
+        String sql = "SELECT id, title FROM products_v2 WHERE title = 'O''Reilly' AND version > 10 AND id = ? LIMIT 11";
+
+        //when
+        String sanitized = SqlSanitizingObservationFilter.sanitize(sql);
+
+        //then
+        assertThat(sanitized)
+                .isEqualTo("SELECT id, title FROM products_v2 WHERE title = ? AND version > ? AND id = ? LIMIT ?");
+    }
+
+    @Test
+    @DisplayName("Should sanitize only the query key values of an observation")
+    public void givenObservationWithQueryAndOtherKeyValues_whenMap_thenOnlyQueryIsSanitized() {
+        //given
+        Observation.Context context = new Observation.Context();
+        context.addHighCardinalityKeyValue(KeyValue.of("jdbc.query[0]", "DELETE FROM products WHERE title = 'Milk'"));
+        context.addHighCardinalityKeyValue(KeyValue.of("jdbc.datasource.name", "'dataSource'"));
+
+        //when
+        Observation.Context mapped = filterUnderTest.map(context);
+
+        //then
+        assertThat(mapped.getHighCardinalityKeyValue("jdbc.query[0]").getValue())
+                .isEqualTo("DELETE FROM products WHERE title = ?");
+        assertThat(mapped.getHighCardinalityKeyValue("jdbc.datasource.name").getValue())
+                .isEqualTo("'dataSource'");
+    }
+}
@@ -0,0 +1,17 @@
+package ru.ivanov.productservice.util;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static ru.ivanov.productservice.metrics.QueryStatsFilter.QUERY_COUNT_HEADER;
+
+/**
+ * Statement budgets for MockMvc requests, read from the X-Query-Count header.
+ * Needs product.query-stats.enabled, which the test profile sets.
+ */
+public class QueryCountMatchers {
+
+    public static ResultMatcher queryCount(int expectedStatements) {
+        return header().string(QUERY_COUNT_HEADER, String.valueOf(expectedStatements));
+    }
+}
@@ -27,18 +27,21 @@ public class TestUtils {
     public static Product getProductMilkPersisted() {
          Product productTransient = getProductMilkTransient();
          productTransient.setId(PRODUCT_MILK_ID);
+         productTransient.setVersion(0L);
         return productTransient;
     }
 
     public static Product getProductButterPersisted() {
         Product productTransient = getProductButterTransient();
         productTransient.setId(PRODUCT_BUTTER_ID);
+        productTransient.setVersion(0L);
         return productTransient;
     }
 
     public static Product getProductCottagePersisted() {
         Product productTransient = getProductCottageTransient();
         productTransient.setId(PRODUCT_COTTAGE_ID);
+        productTransient.setVersion(0L);
         return productTransient;
     }
 
@@ -57,14 +60,14 @@ public class TestUtils {
     }
 
     public static ProductDto getProductMilkPersistedDto() {
-        return new ProductDto(PRODUCT_MILK_ID, "Milk", "Best milk in the world");
+        return new ProductDto(PRODUCT_MILK_ID, "Milk", "Best milk in the world", 0L);
     }
 
     public static ProductDto getProductButterPersistedDto() {
-        return new ProductDto(PRODUCT_BUTTER_ID, "Butter", "Best butter in the world");
+        return new ProductDto(PRODUCT_BUTTER_ID, "Butter", "Best butter in the world", 0L);
     }
 
     public static ProductDto getProductCottagePersistedDto() {
-        return new ProductDto(PRODUCT_COTTAGE_ID, "Cottage", "Best cottage in the world");
+        return new ProductDto(PRODUCT_COTTAGE_ID, "Cottage", "Best cottage in the world", 0L);
     }
 }